@@ -0,0 +1,87 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import simulation.GameResult;
+import simulation.Simulator;
+import util.RandomGenerator;
+
+/**
+ * JMH benchmarks for playing: a single computer turn with the target and pet
+ * moving after it, and a complete four-player computer game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameplayBench {
+  private static final int MAX_TURNS = 1000;
+
+  @Param({ "mansion", "1000", "10000", "100000" })
+  public String rooms;
+
+  private Path file;
+  private Simulator simulator;
+  private World world;
+  private ComputerPlayer cpu;
+  private long seed;
+
+  /**
+   * Loads the world once for the simulator.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup(Level.Trial)
+  public void loadWorld() throws IOException {
+    file = SyntheticMansion.resolve(rooms);
+    simulator = new Simulator(file.toString());
+  }
+
+  /**
+   * Starts a fresh game for the single-turn benchmark, so the computer player
+   * does not fill its inventory and stop picking items up.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup(Level.Iteration)
+  public void newGame() throws IOException {
+    world = new World(file.toString());
+    world.setQuiet(true);
+    cpu = new ComputerPlayer("CPU", world.getSpace(0), world, RandomGenerator.seeded(seed));
+    world.getPlayers().add(cpu);
+  }
+
+  /**
+   * Removes the synthetic world file.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticMansion.cleanUp(file);
+  }
+
+  @Benchmark
+  public String takeTurn() {
+    String action = cpu.takeTurn();
+    world.moveTargetCharacter();
+    world.movePetAutomatically();
+    return action;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public GameResult fullComputerGame() {
+    return simulator.play(4, MAX_TURNS, seed++);
+  }
+}
@@ -0,0 +1,51 @@
+package killdoctorlucky.model;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmarks for the whole-map image: drawing it from scratch, and getting
+ * the copy World keeps. Limited to smaller worlds because the image grows with
+ * the mansion: a 10000-room map is already about 8000 pixels square.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapRenderBench {
+  @Param({ "mansion", "1000" })
+  public String rooms;
+
+  private World world;
+
+  /**
+   * Loads the world.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Path file = SyntheticMansion.resolve(rooms);
+    world = new World(file.toString());
+    SyntheticMansion.cleanUp(file);
+  }
+
+  @Benchmark
+  public BufferedImage generateWorldMap() {
+    return world.generateWorldMap();
+  }
+
+  @Benchmark
+  public BufferedImage renderWorldMap() {
+    return world.renderWorldMap();
+  }
+}
@@ -0,0 +1,79 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmarks for the "is anyone watching?" check made before every attack,
+ * with crowds of players scattered over the mansion: the occupancy index
+ * against asking every player in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObserverBench {
+  private static final int QUERIES = 1024;
+
+  @Param({ "mansion", "10000" })
+  public String rooms;
+
+  @Param({ "4", "500" })
+  public int players;
+
+  private World world;
+  private Iplayer[] watched;
+  private int next;
+
+  /**
+   * Loads the world and scatters the players over it at random.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Path file = SyntheticMansion.resolve(rooms);
+    world = new World(file.toString());
+    SyntheticMansion.cleanUp(file);
+    world.setQuiet(true);
+    Random random = new Random(42);
+    for (int i = 0; i < players; i++) {
+      world.addPlayer("Player " + i, random.nextInt(world.getSpaceCount()));
+    }
+    watched = new Iplayer[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      watched[i] = world.getPlayers().get(random.nextInt(players));
+    }
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (QUERIES - 1);
+    return next;
+  }
+
+  @Benchmark
+  public Object findObserver() {
+    return world.findObserver(watched[nextIndex()]).orElse(null);
+  }
+
+  @Benchmark
+  public Object scanEveryPlayer() {
+    Iplayer player = watched[nextIndex()];
+    for (Iplayer other : world.getPlayers()) {
+      if (!other.getPlayerName().equalsIgnoreCase(player.getPlayerName())
+          && world.canPlayerSee(other, player)) {
+        return other;
+      }
+    }
+    return null;
+  }
+}
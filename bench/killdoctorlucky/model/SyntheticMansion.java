@@ -0,0 +1,63 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import util.MansionGenerator;
+
+/**
+ * Resolves the benchmarks' room-count parameter to a world file, generating
+ * square, connected mansions with {@link MansionGenerator}. Public so that the
+ * benchmarks of other packages share it.
+ */
+public final class SyntheticMansion {
+  /** The benchmark parameter that stands for the real mansion. */
+  public static final String MANSION = "mansion";
+
+  private SyntheticMansion() {
+  }
+
+  /**
+   * Resolves a benchmark room-count parameter to a world file: "mansion" is
+   * res/mansion.txt, and a number is a synthetic mansion with that many rooms
+   * written to a temporary file.
+   *
+   * @param rooms the parameter value
+   * @return the path to load
+   * @throws IOException if the synthetic file cannot be written
+   */
+  public static Path resolve(String rooms) throws IOException {
+    if (MANSION.equals(rooms)) {
+      return Paths.get("res", "mansion.txt");
+    }
+    return write(Integer.parseInt(rooms), 42L);
+  }
+
+  /**
+   * Deletes a file returned by {@link #resolve(String)} unless it is the real
+   * mansion.
+   *
+   * @param file the file to delete
+   * @throws IOException if the file cannot be deleted
+   */
+  public static void cleanUp(Path file) throws IOException {
+    if (!file.startsWith("res")) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Writes a synthetic mansion to a temporary file.
+   *
+   * @param n    the number of rooms
+   * @param seed the generator seed
+   * @return the path of the new file
+   * @throws IOException if the file cannot be written
+   */
+  public static Path write(int n, long seed) throws IOException {
+    Path file = Files.createTempFile("mansion" + n + "-", ".txt");
+    new MansionGenerator(seed, n).write(file);
+    return file;
+  }
+}
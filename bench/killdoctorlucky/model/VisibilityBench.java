@@ -0,0 +1,114 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmarks for visibility between spaces: the precomputed matrix
+ * against comparing names and scanning neighbor lists, and "everyone who can
+ * see into this space" against asking every player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisibilityBench {
+  private static final int QUERIES = 1024;
+  private static final int PLAYERS = 500;
+
+  @Param({ "mansion", "1000", "8192" })
+  public String rooms;
+
+  private World world;
+  private Player[] watchers;
+  private Ispace[] watched;
+  private int next;
+
+  /**
+   * Loads the world, scatters players over it, and picks pairs of spaces half
+   * of which are neighbors.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Path file = SyntheticMansion.resolve(rooms);
+    world = new World(file.toString());
+    SyntheticMansion.cleanUp(file);
+    world.setQuiet(true);
+    Random random = new Random(42);
+    for (int i = 0; i < PLAYERS; i++) {
+      world.addPlayer("Player " + i, random.nextInt(world.getSpaceCount()));
+    }
+    watchers = new Player[QUERIES + 1];
+    watched = new Ispace[QUERIES];
+    for (int i = 0; i <= QUERIES; i++) {
+      int id = random.nextInt(world.getSpaceCount());
+      if (i > 0 && i % 2 == 0 && world.getNeighborCount(watchers[i - 1].getPlayerLocation()
+          .getSpaceId()) > 0) {
+        id = world.getNeighborId(watchers[i - 1].getPlayerLocation().getSpaceId(), 0);
+      }
+      watchers[i] = new Player("Watcher " + i, world.getSpace(id), world);
+      if (i < QUERIES) {
+        watched[i] = world.getSpace(random.nextInt(world.getSpaceCount()));
+      }
+    }
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (QUERIES - 1);
+    return next;
+  }
+
+  @Benchmark
+  public boolean canSee() {
+    int i = nextIndex();
+    return world.canSee(watchers[i].getPlayerLocation().getSpaceId(),
+        watchers[i + 1].getPlayerLocation().getSpaceId());
+  }
+
+  @Benchmark
+  public boolean canPlayerSee() {
+    int i = nextIndex();
+    return world.canPlayerSee(watchers[i], watchers[i + 1]);
+  }
+
+  @Benchmark
+  public boolean canPlayerSeeByNames() {
+    int i = nextIndex();
+    Ispace first = watchers[i].getPlayerLocation();
+    Ispace second = watchers[i + 1].getPlayerLocation();
+    return first == second || first.getSpaceName().equalsIgnoreCase(second.getSpaceName())
+        || world.areNeighbors(first, second);
+  }
+
+  @Benchmark
+  public List<Iplayer> getObservers() {
+    return world.getObservers(watched[nextIndex()]);
+  }
+
+  @Benchmark
+  public List<Iplayer> scanEveryPlayer() {
+    Ispace space = watched[nextIndex()];
+    List<Iplayer> observers = new ArrayList<>();
+    for (Iplayer other : world.getPlayers()) {
+      Ispace from = other.getPlayerLocation();
+      if (from == space || from.getSpaceName().equalsIgnoreCase(space.getSpaceName())
+          || world.areNeighbors(from, space)) {
+        observers.add(other);
+      }
+    }
+    return observers;
+  }
+}
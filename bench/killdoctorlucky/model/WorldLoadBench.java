@@ -0,0 +1,164 @@
+package killdoctorlucky.model;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmarks for building a world: parsing and indexing a whole file on
+ * one thread and on the common pool, opening the same world compiled, reading
+ * just the room lines the old and the new way, and finding the neighbors of
+ * every room and walking the pet path on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorldLoadBench {
+  @Param({ "mansion", "1000", "10000", "100000" })
+  public String rooms;
+
+  private Path file;
+  private Path compiled;
+  private World world;
+  private List<Ispace> spaces;
+
+  /**
+   * Writes the world file, loads it once for the neighbor and pet path
+   * benchmarks, and compiles it.
+   *
+   * @throws IOException if the file cannot be written or read
+   */
+  @Setup
+  public void setUp() throws IOException {
+    file = SyntheticMansion.resolve(rooms);
+    world = new World(file.toString());
+    spaces = world.getSpaces();
+    compiled = Files.createTempFile("world", ".kdlw");
+    world.writeCompiled(compiled.toString());
+  }
+
+  /**
+   * Removes the synthetic and compiled world files.
+   *
+   * @throws IOException if a file cannot be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticMansion.cleanUp(file);
+    Files.deleteIfExists(compiled);
+  }
+
+  @Benchmark
+  public World loadWorld() throws IOException {
+    return new World(file.toString());
+  }
+
+  @Benchmark
+  public World loadOnCommonPool() throws IOException {
+    return new World(file.toString(), ForkJoinPool.commonPool());
+  }
+
+  @Benchmark
+  public World openCompiled() throws IOException {
+    return new World(compiled.toString());
+  }
+
+  /**
+   * Reads the room lines the way loadWorld used to: a BufferedReader, a new
+   * Scanner per line and names joined with +=. Kept as the "before" figure
+   * for {@link #parseRooms()}.
+   */
+  @Benchmark
+  public List<Space> scanRooms() throws IOException {
+    List<Space> found = new ArrayList<>();
+    try (BufferedReader br = new BufferedReader(new FileReader(file.toString()))) {
+      for (int i = 0; i < 3; i++) {
+        br.readLine();
+      }
+      int count = Integer.parseInt(br.readLine().trim());
+      for (int i = 0; i < count; i++) {
+        Scanner lineScanner = new Scanner(br.readLine());
+        int x1 = lineScanner.nextInt();
+        int y1 = lineScanner.nextInt();
+        int x2 = lineScanner.nextInt();
+        int y2 = lineScanner.nextInt();
+        String name = "";
+        while (lineScanner.hasNext()) {
+          name += lineScanner.next() + " ";
+        }
+        found.add(new Space(x1, y1, x2, y2, name.trim()));
+        lineScanner.close();
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Reads the room lines the way loadWorld does now, in place from the bytes.
+   */
+  @Benchmark
+  public List<Space> parseRooms() throws IOException {
+    List<Space> found = new ArrayList<>();
+    try (WorldFileReader in = new WorldFileReader(file.toString())) {
+      for (int i = 0; i < 3; i++) {
+        in.nextLine();
+      }
+      int count = Integer.parseInt(in.readLine().trim());
+      for (int i = 0; i < count; i++) {
+        in.nextLine();
+        in.nextInt();
+        int x1 = in.intValue();
+        in.nextInt();
+        int y1 = in.intValue();
+        in.nextInt();
+        int x2 = in.intValue();
+        in.nextInt();
+        found.add(new Space(x1, y1, x2, in.intValue(), in.rest()));
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Finds every room's neighbors by testing each pair of rooms, as loadWorld
+   * used to. Kept as the "before" figure for {@link #establishNeighbors()};
+   * it is quadratic in the rooms, so leave 100000 out of {@code -Pjmh.rooms}
+   * to keep a run short.
+   */
+  @Benchmark
+  public int[][] pairwiseNeighbors() {
+    return SpaceGrid.pairwiseAdjacency(spaces);
+  }
+
+  @Benchmark
+  public int[][] establishNeighbors() {
+    return new SpaceGrid(spaces).adjacency();
+  }
+
+  @Benchmark
+  public int[][] establishNeighborsOnCommonPool() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    return new SpaceGrid(spaces, pool).adjacency(pool);
+  }
+
+  @Benchmark
+  public int[] computePetPath() {
+    return world.computePetPathIds();
+  }
+}
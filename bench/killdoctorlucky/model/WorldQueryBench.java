@@ -0,0 +1,108 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmarks for the read-only queries a turn makes: looking spaces up by
+ * name, checking whether one player can see another, and the visibility check
+ * that stops an attack. Name lookups are also timed with the linear,
+ * case-insensitive scan that the hashed index replaced, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WorldQueryBench {
+  private static final int QUERIES = 1024;
+
+  @Param({ "mansion", "1000", "10000", "100000" })
+  public String rooms;
+
+  private World world;
+  private List<Ispace> spaces;
+  private String[] exactNames;
+  private String[] foldedNames;
+  private Player[] watchers;
+  private Player attacker;
+  private int next;
+
+  /**
+   * Loads the world and places players so that every attack is seen: the
+   * attacker stands with the target and a witness stands next door, or in the
+   * same room if the target's room has no neighbors.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Path file = SyntheticMansion.resolve(rooms);
+    world = new World(file.toString());
+    SyntheticMansion.cleanUp(file);
+    world.setQuiet(true);
+    spaces = world.getSpaces();
+    exactNames = new String[QUERIES];
+    foldedNames = new String[QUERIES];
+    watchers = new Player[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      Ispace space = spaces.get((int) ((i * 2654435761L) % spaces.size()));
+      exactNames[i] = space.getSpaceName();
+      foldedNames[i] = space.getSpaceName().toUpperCase();
+      watchers[i] = new Player("Watcher " + i, space, world);
+    }
+
+    Ispace targetRoom = world.getTargetLocation();
+    attacker = new Player("Attacker", targetRoom, world);
+    world.getPlayers().add(attacker);
+    List<String> neighbors = targetRoom.getNeighbors();
+    Ispace nextDoor = neighbors.isEmpty() ? targetRoom : world.getSpaceByName(neighbors.get(0));
+    world.getPlayers().add(new Player("Witness", nextDoor, world));
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (QUERIES - 1);
+    return next;
+  }
+
+  @Benchmark
+  public Ispace getSpaceByName() {
+    return world.getSpaceByName(exactNames[nextIndex()]);
+  }
+
+  @Benchmark
+  public Ispace getSpaceByNameOtherCase() {
+    return world.getSpaceByName(foldedNames[nextIndex()]);
+  }
+
+  @Benchmark
+  public Ispace getSpaceByNameLinearScan() {
+    String name = foldedNames[nextIndex()];
+    for (Ispace space : spaces) {
+      if (space.getSpaceName().equalsIgnoreCase(name)) {
+        return space;
+      }
+    }
+    return null;
+  }
+
+  @Benchmark
+  public boolean canPlayerSee() {
+    int i = nextIndex();
+    return world.canPlayerSee(watchers[i], watchers[(i + 1) & (QUERIES - 1)]);
+  }
+
+  @Benchmark
+  public int attackSeenByNeighbor() {
+    attacker.attackDoctorLucky("default");
+    return world.getTargetCharacter().getTargetHealth();
+  }
+}
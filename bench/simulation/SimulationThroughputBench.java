@@ -0,0 +1,64 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import killdoctorlucky.model.SyntheticMansion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark for how many complete computer-only games per second the
+ * Simulator plays on one thread, by world size and number of players. Every
+ * game has a new seed, so the games differ as they would in a tournament.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SimulationThroughputBench {
+  private static final int MAX_TURNS = 1000;
+
+  @Param({ "mansion", "1000", "10000" })
+  public String rooms;
+
+  @Param({ "2", "4", "8" })
+  public int players;
+
+  private Path file;
+  private Simulator simulator;
+  private long seed;
+
+  /**
+   * Loads the world once for the simulator.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup(Level.Trial)
+  public void loadWorld() throws IOException {
+    file = SyntheticMansion.resolve(rooms);
+    simulator = new Simulator(file.toString());
+  }
+
+  /**
+   * Removes the synthetic world file.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticMansion.cleanUp(file);
+  }
+
+  @Benchmark
+  public GameResult playGame() {
+    return simulator.play(players, MAX_TURNS, seed++);
+  }
+}
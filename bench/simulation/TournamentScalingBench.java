@@ -0,0 +1,80 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import killdoctorlucky.model.SyntheticMansion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark for how a tournament scales with the size of its thread pool.
+ * Each invocation plays a batch of four-player games on a pool of the given
+ * size, and scores are in games per second; comparing the scores across pool
+ * sizes gives the speedup. Pool sizes above the number of processors measure
+ * the cost of oversubscription.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TournamentScalingBench {
+  private static final int GAMES = 2000; // per invocation
+  private static final int PLAYERS = 4;
+  private static final int MAX_TURNS = 1000;
+
+  @Param({ "mansion", "1000" })
+  public String rooms;
+
+  @Param({ "1", "2", "4", "8" })
+  public int threads;
+
+  private Path file;
+  private Tournament tournament;
+  private ForkJoinPool pool;
+  private long seed;
+
+  /**
+   * Loads the world and starts the pool.
+   *
+   * @throws IOException if the world cannot be loaded
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file = SyntheticMansion.resolve(rooms);
+    List<Entrant> entrants = new ArrayList<>();
+    for (int i = 0; i < PLAYERS; i++) {
+      entrants.add(Entrant.computer("CPU" + (i + 1), 0));
+    }
+    tournament = new Tournament(new Simulator(file.toString()), entrants, MAX_TURNS);
+    pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Stops the pool and removes the synthetic world file.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    pool.shutdown();
+    SyntheticMansion.cleanUp(file);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(GAMES)
+  public TournamentResult runTournament() {
+    return tournament.run(GAMES, seed++, pool);
+  }
+}
@@ -0,0 +1,73 @@
+package view;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH micro-benchmark for painting the window background once: stretching the
+ * full-size image on every paint, as GameView used to, against copying the
+ * copy that is stretched once per window size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BackgroundPaintBench {
+  @Param({ "800x600", "1920x1080" })
+  public String window;
+
+  private BufferedImage background;
+  private ScaledBackground scaled;
+  private BufferedImage screen;
+  private int width;
+  private int height;
+
+  /**
+   * Loads the background the way GameView does and makes a screen-sized
+   * target to paint on.
+   *
+   * @throws IOException if the image cannot be read
+   */
+  @Setup
+  public void setUp() throws IOException {
+    BufferedImage original = ImageIO.read(new File("res/spooky_bg.png"));
+    background = new BufferedImage(original.getWidth(), original.getHeight(),
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = background.createGraphics();
+    g2.drawImage(original, 0, 0, null);
+    g2.dispose();
+    scaled = new ScaledBackground(background);
+
+    String[] size = window.split("x");
+    width = Integer.parseInt(size[0]);
+    height = Integer.parseInt(size[1]);
+    screen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+  }
+
+  @Benchmark
+  public BufferedImage rescaleEveryPaint() {
+    Graphics2D g2 = screen.createGraphics();
+    g2.drawImage(background, 0, 0, width, height, null);
+    g2.dispose();
+    return screen;
+  }
+
+  @Benchmark
+  public BufferedImage cachedPaint() {
+    Graphics2D g2 = screen.createGraphics();
+    scaled.paint(g2, width, height, null);
+    g2.dispose();
+    return screen;
+  }
+}
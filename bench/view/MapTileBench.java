@@ -0,0 +1,84 @@
+package view;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import killdoctorlucky.model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import util.MansionGenerator;
+
+/**
+ * JMH benchmark for one frame of panning across the tiled map: the viewport
+ * moves 64 pixels right and 40 down each frame and wraps at the map's edge, so
+ * most frames reuse cached tiles and a few draw a new row or column. A frame
+ * must stay under 16 ms for 60 fps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapTileBench {
+  private static final int WIDTH = 1280;
+  private static final int HEIGHT = 800;
+
+  @Param({ "10000", "1000000" })
+  public int rooms;
+
+  @Param({ "1", "3", "5" })
+  public int zoom;
+
+  private MapTileRenderer renderer;
+  private BufferedImage screen;
+  private Dimension size;
+  private int frame;
+
+  /**
+   * Generates and loads a square mansion.
+   *
+   * @throws IOException if the world file cannot be written or read
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Path file = Files.createTempFile("tiles", ".txt");
+    try {
+      new MansionGenerator(42L, rooms).write(file);
+      renderer = new MapTileRenderer(new World(file.toString()), 128);
+    } finally {
+      Files.delete(file);
+    }
+    screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    size = renderer.getMapSize(zoom);
+  }
+
+  /**
+   * Releases the screen image.
+   */
+  @TearDown
+  public void tearDown() {
+    screen.flush();
+  }
+
+  @Benchmark
+  public BufferedImage panOneFrame() {
+    frame++;
+    int x = (int) ((long) frame * 64 % Math.max(1, size.width - WIDTH));
+    int y = (int) ((long) frame * 40 % Math.max(1, size.height - HEIGHT));
+    Graphics2D g2 = screen.createGraphics();
+    g2.translate(-x, -y);
+    renderer.paint(g2, new Rectangle(x, y, WIDTH, HEIGHT), zoom);
+    g2.dispose();
+    return screen;
+  }
+}
@@ -7,12 +7,13 @@ import controller.commands.MoveCommand;
 import controller.commands.MovePetCommand;
 import controller.commands.PickupCommand;
 import controller.commands.SaveMapCommand;
+import controller.commands.SaveSvgMapCommand;
 import java.io.IOException;
+import java.util.Locale;
 import java.util.Scanner;
 import killdoctorlucky.model.ComputerPlayer;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Iworld;
-import killdoctorlucky.model.TargetCharacter;
 import util.RandomGenerator;
 
 /**
@@ -100,9 +101,7 @@ public class ControllerImpl implements Icontroller {
         model.moveTargetCharacter();
 
         // Extra credit: move the pet automatically (wandering pet)
-        if (model instanceof killdoctorlucky.model.World) {
-          ((killdoctorlucky.model.World) model).movePetAutomatically();
-        }
+        model.movePetAutomatically();
 
         turnCount++;
         currentPlayerIndex = (currentPlayerIndex + 1) % model.getPlayers().size();
@@ -111,7 +110,7 @@ public class ControllerImpl implements Icontroller {
 
     if (!model.isGameNotOver()) {
       appendMessage("Game Over! " + model.getWinner() + " has killed "
-          + TargetCharacter.getInstance().getTargetName() + "!");
+          + model.getTargetCharacter().getTargetName() + "!");
     } else if (turnCount >= maxTurns) {
       appendMessage("Maximum number of turns reached. Game ends in a draw!");
     }
@@ -166,9 +165,11 @@ public class ControllerImpl implements Icontroller {
         command = new DisplayPlayerCommand(playerName);
         break;
       case "savemap":
-        appendMessage("Enter filename (e.g. worldmap.png): ");
+        appendMessage("Enter filename (worldmap.png or worldmap.svg): ");
         String fileName = sc.nextLine().trim();
-        command = new SaveMapCommand(fileName);
+        command = fileName.toLowerCase(Locale.ROOT).endsWith(".svg")
+            ? new SaveSvgMapCommand(fileName, true)
+            : new SaveMapCommand(fileName);
         // savemap is a free command; it should not consume the turn.
         consumesTurn = false;
         break;
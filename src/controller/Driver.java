@@ -52,7 +52,7 @@ public class Driver {
     // 4) Load the world (only IOException can be thrown here)
     final Iworld world;
     try {
-      world = new World(path);
+      world = World.open(path);
     } catch (IOException ioe) {
       System.err.println("Failed to load world: " + ioe.getMessage());
       return;
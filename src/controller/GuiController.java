@@ -6,15 +6,16 @@ import controller.commands.LookCommand;
 import controller.commands.MoveCommand;
 import controller.commands.PickupCommand;
 import controller.commands.SaveMapCommand;
-import java.awt.Rectangle;
+import controller.commands.SaveSvgMapCommand;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 import killdoctorlucky.model.ComputerPlayer;
-import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
 import killdoctorlucky.model.Iworld;
@@ -28,7 +29,7 @@ import view.IviewFeatures;
  * the pet between turns.
  */
 public class GuiController implements Icontroller, IviewFeatures {
-  private static final int SCALE = 20;
+  private static final int ICON_HALF = 5; // player icons are 10 pixels square
   private final Iworld model;
   private final GameView view;
   private final int maxTurns;
@@ -51,6 +52,9 @@ public class GuiController implements Icontroller, IviewFeatures {
     this.maxTurns = maxTurns;
 
     view.setViewFeatures(this);
+    // The map is drawn a tile at a time from Iworld.findSpacesIn, so that large
+    // mansions, including paged ones, never need one huge image.
+    view.setMapWorld(model);
     view.appendToLog("Welcome to Kill Doctor Lucky!\n" + "• Move by clicking the map or 'M'.\n"
         + "• Pickup items via button or 'P'.\n" + "• Look via button or 'L'.\n"
         + "• Attack via button or 'A'.\n");
@@ -61,16 +65,11 @@ public class GuiController implements Icontroller, IviewFeatures {
   }
 
   private void redrawAll() {
-    view.redrawMap(model.generateWorldMap());
-
     List<Iplayer> players = model.getPlayers();
     Ispace target = model.getTargetLocation();
     view.setEntities(players, target);
-
-    if (model instanceof World) {
-      Ipet pet = ((World) model).getPet();
-      view.setPet(pet);
-    }
+    view.setPet(model.getPet());
+    view.repaintMap();
 
     String current = players.get(turnCount % players.size()).getPlayerName();
     view.setStatusText(
@@ -96,7 +95,7 @@ public class GuiController implements Icontroller, IviewFeatures {
     String path = JOptionPane.showInputDialog(view, "Enter path to new world file:");
     if (path != null && !path.isEmpty()) {
       try {
-        Iworld w2 = new World(path);
+        Iworld w2 = World.open(path);
         new GuiController(w2, view, maxTurns);
       } catch (IOException ex) {
         JOptionPane.showMessageDialog(view, "Load failed: " + ex.getMessage());
@@ -116,10 +115,10 @@ public class GuiController implements Icontroller, IviewFeatures {
 
   @Override
   public void handleMove() {
-    List<Ispace> spaces = (model instanceof World) ? ((World) model).getSpaces()
-        : Collections.emptyList();
-
-    String[] names = spaces.stream().map(Ispace::getSpaceName).toArray(String[]::new);
+    // Only neighbors can be moved to, and their names are all the room holds,
+    // so no other room has to be read from a large world.
+    Iplayer me = model.getPlayers().get(turnCount % model.getPlayers().size());
+    String[] names = me.getPlayerLocation().getNeighbors().toArray(new String[0]);
 
     String choice = (String) JOptionPane.showInputDialog(view, "Choose a space to move to:", "Move",
         JOptionPane.PLAIN_MESSAGE, null, names, names.length > 0 ? names[0] : null);
@@ -172,12 +171,74 @@ public class GuiController implements Icontroller, IviewFeatures {
 
   @Override
   public void handleSaveMap() {
-    String fileName = JOptionPane.showInputDialog(view, "Enter filename (e.g. worldmap.png):",
+    String fileName = JOptionPane.showInputDialog(view,
+        "Enter filename (worldmap.png or worldmap.svg):",
         "Save Map", JOptionPane.QUESTION_MESSAGE);
     if (fileName == null || fileName.trim().isEmpty()) {
       return;
     }
-    exec(new SaveMapCommand(fileName.trim()), true);
+    fileName = fileName.trim();
+    if (fileName.toLowerCase(Locale.ROOT).endsWith(".svg")) {
+      exportMap(fileName, new SaveSvgMapCommand(fileName)::save);
+    } else {
+      String[] choices = { "Fast", "Default", "Smallest" };
+      Object choice = JOptionPane.showInputDialog(view, "Compression:", "Save Map",
+          JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+      if (choice == null) {
+        return;
+      }
+      int level = choice == choices[0] ? SaveMapCommand.FAST
+          : choice == choices[1] ? SaveMapCommand.DEFAULT : SaveMapCommand.SMALLEST;
+      exportMap(fileName, new SaveMapCommand(fileName, level)::save);
+    }
+    redrawAll();
+    processTurns(true);
+  }
+
+  /**
+   * A way of writing the map to a file.
+   */
+  private interface MapExport {
+    void save(Iworld model, IntConsumer progress) throws IOException;
+  }
+
+  /**
+   * Saves the map on a background thread, so a large map does not freeze the
+   * window while it is encoded. Progress and the outcome go to the log.
+   *
+   * @param fileName the file being written
+   * @param export   the export to run
+   */
+  private void exportMap(String fileName, MapExport export) {
+    view.appendToLog("Saving map to " + fileName + "...");
+    new SwingWorker<Void, Integer>() {
+      @Override
+      protected Void doInBackground() throws IOException {
+        export.save(model, percent -> {
+          if (percent % 10 == 0 && percent > 0 && percent < 100) {
+            publish(percent);
+          }
+        });
+        return null;
+      }
+
+      @Override
+      protected void process(List<Integer> percents) {
+        view.appendToLog("Saving map: " + percents.get(percents.size() - 1) + "%");
+      }
+
+      @Override
+      protected void done() {
+        try {
+          get();
+          view.appendToLog("Map saved as " + fileName + ".");
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+          view.appendToLog("Error: could not save map: " + ex.getCause().getMessage());
+        }
+      }
+    }.execute();
   }
 
   @Override
@@ -197,36 +258,64 @@ public class GuiController implements Icontroller, IviewFeatures {
 
   @Override
   public void handleMapClick(int x, int y) {
+    int scale = view.getMapScale();
     // Check for player icon clicks
-    for (Iplayer p : model.getPlayers()) {
-      Ispace loc = p.getPlayerLocation();
-      int cx = ((loc.getUpperColumn() + loc.getLowerColumn()) / 2) * SCALE;
-      int cy = ((loc.getUpperRow() + loc.getLowerRow()) / 2) * SCALE;
-      Rectangle icon = new Rectangle(cx - 5, cy - 5, 10, 10);
-      if (icon.contains(x, y)) {
-        JOptionPane.showMessageDialog(view, getPlayerInfo(p.getPlayerName()), "Player Info",
-            JOptionPane.INFORMATION_MESSAGE);
-        return;
-      }
+    Iplayer clicked = findPlayerAt(model, x, y, scale);
+    if (clicked != null) {
+      JOptionPane.showMessageDialog(view, getPlayerInfo(clicked.getPlayerName()), "Player Info",
+          JOptionPane.INFORMATION_MESSAGE);
+      return;
     }
     // Otherwise check for room clicks
-    if (model instanceof World) {
-      for (Ispace s : ((World) model).getSpaces()) {
-        int rx = s.getUpperColumn() * SCALE;
-        int ry = s.getUpperRow() * SCALE;
-        int rw = (s.getLowerColumn() - s.getUpperColumn()) * SCALE;
-        int rh = (s.getLowerRow() - s.getUpperRow()) * SCALE;
-        Rectangle roomRect = new Rectangle(rx, ry, rw, rh);
-        if (roomRect.contains(x, y)) {
-          int ans = JOptionPane.showConfirmDialog(view, "Move to " + s.getSpaceName() + "?",
-              "Confirm Move", JOptionPane.YES_NO_OPTION);
-          if (ans == JOptionPane.YES_OPTION) {
-            handleMoveTo(s.getSpaceName());
-          }
-          return;
-        }
+    Ispace s = findSpaceAt(model, x, y, scale);
+    if (s != null) {
+      int ans = JOptionPane.showConfirmDialog(view, "Move to " + s.getSpaceName() + "?",
+          "Confirm Move", JOptionPane.YES_NO_OPTION);
+      if (ans == JOptionPane.YES_OPTION) {
+        handleMoveTo(s.getSpaceName());
+      }
+    }
+  }
+
+  /**
+   * Finds the room under a point of the map through
+   * {@link Iworld#findSpaceIdAt(int, int)}, which worlds answer from their
+   * index without reading every room.
+   *
+   * @param model the world
+   * @param x     the x-coordinate in pixels of the map as drawn
+   * @param y     the y-coordinate in pixels of the map as drawn
+   * @param scale pixels per grid cell at the current zoom
+   * @return the room, or null if the point is outside every room
+   */
+  static Ispace findSpaceAt(Iworld model, int x, int y, int scale) {
+    int id = model.findSpaceIdAt(Math.floorDiv(y, scale), Math.floorDiv(x, scale));
+    return id < 0 ? null : model.getSpace(id);
+  }
+
+  /**
+   * Finds the first player whose icon covers a point of the map. Icons are
+   * drawn the same size at every zoom, centred on a grid corner of the room,
+   * so the test is made in screen pixels.
+   *
+   * @param model the world
+   * @param x     the x-coordinate in pixels of the map as drawn
+   * @param y     the y-coordinate in pixels of the map as drawn
+   * @param scale pixels per grid cell at the current zoom
+   * @return the player, or null if the point is not on a player icon
+   */
+  static Iplayer findPlayerAt(Iworld model, int x, int y, int scale) {
+    List<Iplayer> players = model.getPlayers();
+    for (int i = 0; i < players.size(); i++) {
+      Ispace loc = players.get(i).getPlayerLocation();
+      int cx = (loc.getUpperColumn() + loc.getLowerColumn()) / 2 * scale;
+      int cy = (loc.getUpperRow() + loc.getLowerRow()) / 2 * scale;
+      if (x >= cx - ICON_HALF && x < cx + ICON_HALF && y >= cy - ICON_HALF
+          && y < cy + ICON_HALF) {
+        return players.get(i);
       }
     }
+    return null;
   }
 
   private void exec(controller.commands.Icommand cmd, boolean consumesTurn) {
@@ -242,8 +331,6 @@ public class GuiController implements Icontroller, IviewFeatures {
         view.appendToLog(model.getSpaceInfo(getPlayer()));
       } else if (cmd instanceof DisplayPlayerCommand) {
         view.appendToLog(getPlayerInfo(getPlayer()));
-      } else if (cmd instanceof SaveMapCommand) {
-        view.appendToLog("Map saved.");
       }
     } catch (IllegalArgumentException ex) {
       view.appendToLog("Error: " + ex.getMessage());
@@ -289,9 +376,7 @@ public class GuiController implements Icontroller, IviewFeatures {
 
   private void advanceTargetAndPet() {
     model.moveTargetCharacter();
-    if (model instanceof World) {
-      ((World) model).movePetAutomatically();
-    }
+    model.movePetAutomatically();
     turnCount++;
   }
 
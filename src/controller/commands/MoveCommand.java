@@ -29,7 +29,8 @@ public class MoveCommand implements Icommand {
       throw new IllegalArgumentException("Player not found: " + playerName);
     }
     Iplayer player = model.getPlayers().get(pindex);
-    Ispace newSpace = model.getSpaceByName(targetSpaceName);
+    Ispace newSpace = model.findSpaceByName(targetSpaceName)
+        .orElseThrow(() -> new IllegalArgumentException("Space not found: " + targetSpaceName));
     player.moveTo(newSpace); // Will throw if invalid neighbor
   }
 
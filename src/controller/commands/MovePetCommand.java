@@ -3,7 +3,6 @@ package controller.commands;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Ispace;
 import killdoctorlucky.model.Iworld;
-import killdoctorlucky.model.Space;
 
 /**
  * Command to move the target character's pet to a specified space.
@@ -23,19 +22,18 @@ public class MovePetCommand implements Icommand {
 
   @Override
   public void execute(Iworld model) {
-    Ispace newSpace = model.getSpaceByName(targetSpaceName);
+    Ispace newSpace = model.findSpaceByName(targetSpaceName)
+        .orElseThrow(() -> new IllegalArgumentException("Space not found: " + targetSpaceName));
     Ipet pet = model.getPet();
     if (pet == null) {
       throw new IllegalArgumentException("No pet found in the game.");
     }
     // Remove pet flag from the current space.
-    if (pet.getCurrentSpace() != null && pet.getCurrentSpace() instanceof Space) {
-      ((Space) pet.getCurrentSpace()).setHasPet(false);
+    if (pet.getCurrentSpace() != null) {
+      pet.getCurrentSpace().setHasPet(false);
     }
     pet.moveTo(newSpace);
-    if (newSpace instanceof Space) {
-      ((Space) newSpace).setHasPet(true);
-    }
+    newSpace.setHasPet(true);
     System.out.println("Pet moved to " + newSpace.getSpaceName());
   }
 }
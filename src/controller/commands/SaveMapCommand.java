@@ -3,14 +3,32 @@ package controller.commands;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.function.IntConsumer;
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.event.IIOWriteProgressListener;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
 import killdoctorlucky.model.Iworld;
 
 /**
  * Command to generate and save the world map as a PNG file.
  */
 public class SaveMapCommand implements Icommand {
+  /**
+   * Lowest compression level that still compresses. Level 0 stores the pixels
+   * as they are, which is rarely faster since the file is many times larger.
+   */
+  public static final int FAST = 1;
+  /** Compression level the PNG encoder uses when it is not given one. */
+  public static final int DEFAULT = 4;
+  /** Compression level that writes slowest and makes the smallest file. */
+  public static final int SMALLEST = 9;
+
   private final String fileName;
+  private final int level;
 
   /**
    * Constructs a SaveMapCommand.
@@ -18,17 +36,131 @@ public class SaveMapCommand implements Icommand {
    * @param fileName the name of the file to save the map.
    */
   public SaveMapCommand(String fileName) {
+    this(fileName, DEFAULT);
+  }
+
+  /**
+   * Constructs a SaveMapCommand with a compression level.
+   *
+   * @param fileName the name of the file to save the map.
+   * @param level    the deflate level, from 0 to {@link #SMALLEST}
+   * @throws IllegalArgumentException if the level is out of range
+   */
+  public SaveMapCommand(String fileName, int level) {
+    if (level < 0 || level > SMALLEST) {
+      throw new IllegalArgumentException("Compression level must be 0 to 9: " + level);
+    }
     this.fileName = fileName;
+    this.level = level;
+  }
+
+  /**
+   * Gets the name of the file the map is saved to.
+   *
+   * @return the file name
+   */
+  public String getFileName() {
+    return fileName;
   }
 
   @Override
   public void execute(Iworld model) {
-    BufferedImage map = model.generateWorldMap();
     try {
-      ImageIO.write(map, "png", new File(fileName));
+      save(model, null);
       System.out.println("Map saved as " + fileName);
     } catch (IOException e) {
       System.out.println("Failed to save map: " + e.getMessage());
     }
   }
+
+  /**
+   * Draws the map and writes it, reporting how far the encoding has got. The
+   * map only depends on the rooms, which never change once a world is loaded,
+   * so this may run on any thread while the game goes on.
+   *
+   * @param model    the world whose map to save
+   * @param progress told the percentage written so far, from the encoding
+   *                 thread; may be null
+   * @throws IOException if the file cannot be written
+   */
+  public void save(Iworld model, IntConsumer progress) throws IOException {
+    BufferedImage map = model.generateWorldMap();
+    File file = new File(fileName);
+    // Deleted first so that a shorter image does not leave the old file's tail behind.
+    if (file.exists() && !file.delete()) {
+      throw new IOException("Cannot replace " + fileName);
+    }
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+    try (ImageOutputStream out = new FileImageOutputStream(file)) {
+      writer.setOutput(out);
+      if (progress != null) {
+        writer.addIIOWriteProgressListener(new ProgressListener(progress));
+      }
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality(level));
+      writer.write(null, new IIOImage(map, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  /**
+   * The PNG encoder takes a quality from 1 (level 0) to 0 (level 9) and
+   * truncates 9 * (1 - quality) to get the deflate level, so each level is
+   * asked for half a step in to survive the rounding.
+   */
+  private static float quality(int level) {
+    return level == SMALLEST ? 0f : 1f - (level + 0.5f) / SMALLEST;
+  }
+
+  /**
+   * Passes whole-percent progress on, once per percent.
+   */
+  private static final class ProgressListener implements IIOWriteProgressListener {
+    private final IntConsumer progress;
+    private int reported = -1;
+
+    ProgressListener(IntConsumer progress) {
+      this.progress = progress;
+    }
+
+    private void report(int percent) {
+      if (percent > reported) {
+        reported = percent;
+        progress.accept(percent);
+      }
+    }
+
+    @Override
+    public void imageStarted(ImageWriter source, int imageIndex) {
+      report(0);
+    }
+
+    @Override
+    public void imageProgress(ImageWriter source, float percentageDone) {
+      report(Math.min(99, (int) percentageDone));
+    }
+
+    @Override
+    public void imageComplete(ImageWriter source) {
+      report(100);
+    }
+
+    @Override
+    public void thumbnailStarted(ImageWriter source, int imageIndex, int thumbnailIndex) {
+    }
+
+    @Override
+    public void thumbnailProgress(ImageWriter source, float percentageDone) {
+    }
+
+    @Override
+    public void thumbnailComplete(ImageWriter source) {
+    }
+
+    @Override
+    public void writeAborted(ImageWriter source) {
+    }
+  }
 }
@@ -0,0 +1,206 @@
+package controller.commands;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.IntConsumer;
+import killdoctorlucky.model.Ipet;
+import killdoctorlucky.model.Iplayer;
+import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.Iworld;
+
+/**
+ * Command to save the world map as an SVG file. Each room becomes one
+ * rectangle and one label, written out as the rooms are visited, so the file
+ * grows with the number of rooms rather than with the map's area, and nothing
+ * but the room being written is held in memory. The drawing matches
+ * {@link Iworld#generateWorldMap()}, and can also show Doctor Lucky, the
+ * players and the pet where the GUI draws them.
+ */
+public class SaveSvgMapCommand implements Icommand {
+  private static final int SCALE = 20; // pixels per grid cell, as in the raster map
+  private static final int MARGIN = 50; // extra room on the right for long labels
+  private static final String STYLE = "rect{fill:#e6e6e6;stroke:#000}"
+      + "text{font:12px sans-serif;text-anchor:middle;dominant-baseline:central}";
+
+  private final String fileName;
+  private final boolean markers;
+
+  /**
+   * Constructs a SaveSvgMapCommand that draws the rooms only.
+   *
+   * @param fileName the name of the file to save the map.
+   */
+  public SaveSvgMapCommand(String fileName) {
+    this(fileName, false);
+  }
+
+  /**
+   * Constructs a SaveSvgMapCommand.
+   *
+   * @param fileName the name of the file to save the map.
+   * @param markers  whether to draw Doctor Lucky, the players and the pet
+   */
+  public SaveSvgMapCommand(String fileName, boolean markers) {
+    this.fileName = fileName;
+    this.markers = markers;
+  }
+
+  /**
+   * Gets the name of the file the map is saved to.
+   *
+   * @return the file name
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  @Override
+  public void execute(Iworld model) {
+    try {
+      save(model, null);
+      System.out.println("Map saved as " + fileName);
+    } catch (IOException e) {
+      System.out.println("Failed to save map: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the map to the file, reporting how many of the rooms are done.
+   *
+   * @param model    the world whose map to save; it must index its spaces
+   * @param progress told the percentage written so far; may be null
+   * @throws IOException if the file cannot be written
+   */
+  public void save(Iworld model, IntConsumer progress) throws IOException {
+    try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+      write(model, out, progress);
+    }
+  }
+
+  /**
+   * Streams the map to a writer. The writer is not closed, and should be
+   * buffered, since the document is written a few characters at a time.
+   *
+   * @param model    the world whose map to write
+   * @param out      where to write the document
+   * @param progress told the percentage written so far; may be null
+   * @throws IOException if the writer fails
+   */
+  public void write(Iworld model, Writer out, IntConsumer progress) throws IOException {
+    int width = model.getColumnCount() * SCALE + MARGIN;
+    int height = model.getRowCount() * SCALE;
+    out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\""
+        + height + "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+    out.write("<style>" + STYLE + "</style>\n");
+    out.write("<rect width=\"100%\" height=\"100%\" style=\"fill:#fff;stroke:none\"/>\n");
+
+    int count = model.getSpaceCount();
+    int reported = -1;
+    for (int id = 0; id < count; id++) {
+      writeSpace(out, model.getSpace(id));
+      int percent = (int) ((id + 1L) * 100 / count);
+      if (progress != null && percent > reported) {
+        reported = percent;
+        progress.accept(percent);
+      }
+    }
+    if (markers) {
+      writeMarkers(out, model);
+    }
+    out.write("</svg>\n");
+    out.flush();
+    if (progress != null && reported < 100) {
+      progress.accept(100);
+    }
+  }
+
+  private static void writeSpace(Writer out, Ispace space) throws IOException {
+    int x = space.getUpperColumn() * SCALE;
+    int y = space.getUpperRow() * SCALE;
+    int w = (space.getLowerColumn() - space.getUpperColumn()) * SCALE;
+    int h = (space.getLowerRow() - space.getUpperRow()) * SCALE;
+    // Like fillRect, a room written with its corners swapped has no box, only a label.
+    if (w >= 0 && h >= 0) {
+      out.write("<rect x=\"");
+      out.write(Integer.toString(x));
+      out.write("\" y=\"");
+      out.write(Integer.toString(y));
+      out.write("\" width=\"");
+      out.write(Integer.toString(w));
+      out.write("\" height=\"");
+      out.write(Integer.toString(h));
+      out.write("\"/>");
+    }
+    out.write("<text x=\"");
+    out.write(Integer.toString(x + w / 2));
+    out.write("\" y=\"");
+    out.write(Integer.toString(y + h / 2));
+    out.write("\">");
+    writeEscaped(out, space.getSpaceName());
+    out.write("</text>\n");
+  }
+
+  private static void writeMarkers(Writer out, Iworld model) throws IOException {
+    Ispace target = model.getTargetLocation();
+    if (target != null) {
+      out.write("<rect x=\"" + (centerX(target) - 6) + "\" y=\"" + (centerY(target) - 6)
+          + "\" width=\"12\" height=\"12\" style=\"fill:red;stroke:none\"/>\n");
+    }
+    List<Iplayer> players = model.getPlayers();
+    if (players != null) {
+      for (int i = 0; i < players.size(); i++) {
+        Ispace s = players.get(i).getPlayerLocation();
+        out.write("<circle cx=\"" + centerX(s) + "\" cy=\"" + centerY(s)
+            + "\" r=\"5\" fill=\"blue\"><title>");
+        writeEscaped(out, players.get(i).getPlayerName());
+        out.write("</title></circle>\n");
+      }
+    }
+    Ipet pet = model.getPet();
+    if (pet != null && pet.getCurrentSpace() != null) {
+      int cx = centerX(pet.getCurrentSpace());
+      int cy = centerY(pet.getCurrentSpace());
+      out.write("<polygon points=\"" + cx + "," + (cy - 6) + " " + (cx - 6) + "," + (cy + 6)
+          + " " + (cx + 6) + "," + (cy + 6) + "\" fill=\"green\"/>\n");
+    }
+  }
+
+  private static int centerX(Ispace space) {
+    return ((space.getUpperColumn() + space.getLowerColumn()) / 2) * SCALE;
+  }
+
+  private static int centerY(Ispace space) {
+    return ((space.getUpperRow() + space.getLowerRow()) / 2) * SCALE;
+  }
+
+  /**
+   * Writes text as XML character data. Control characters that XML cannot
+   * hold are dropped.
+   */
+  private static void writeEscaped(Writer out, String text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '&':
+          out.write("&amp;");
+          break;
+        case '<':
+          out.write("&lt;");
+          break;
+        case '>':
+          out.write("&gt;");
+          break;
+        default:
+          if (c >= ' ' || c == '\t' || c == '\n' || c == '\r') {
+            out.write(c);
+          }
+      }
+    }
+  }
+}
@@ -0,0 +1,323 @@
+package killdoctorlucky.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The rooms of a world kept as columns of ints instead of one {@link Space}
+ * object per room: the bounds in four parallel arrays, names as indexes into
+ * a table holding each distinct string once, and items and neighbor names as
+ * flat runs of indexes. A room is handed out as a small view over the columns,
+ * made the first time it is asked for and then kept, so it keeps its identity
+ * for the rest of the game.
+ *
+ * <p>What never changes is shared by {@link #fresh()} copies. What the game
+ * changes is kept per copy: which room has the pet, and the items of the few
+ * rooms whose items have been picked up or dropped.
+ */
+final class CompactSpaces extends AbstractList<Ispace> implements RandomAccess {
+  private final int[] upperRows;
+  private final int[] upperCols;
+  private final int[] lowerRows;
+  private final int[] lowerCols;
+  private final String[] strings; // every distinct room and neighbor name
+  private final int[] roomNames; // string index of each room's name
+  private final int[] nameTable; // open addressing, room id + 1 keyed by folded name
+  private final Iitem[] itemTable;
+  private final int[] itemOffsets; // room i holds itemIds[itemOffsets[i] .. itemOffsets[i + 1])
+  private final int[] itemIds;
+  // Neighbor names as string indexes, or null when they are the names of the
+  // world's adjacency, which is then read instead.
+  private final int[] nameOffsets;
+  private final int[] neighborNames;
+  private final int[] adjacencyOffsets;
+  private final int[] adjacencyTargets;
+
+  private final Room[] made;
+  private final BitSet hasPet = new BitSet();
+  private final Map<Integer, List<Iitem>> changedItems = new HashMap<>();
+
+  /**
+   * Copies rooms into compact storage.
+   *
+   * @param spaces          the rooms, in id order
+   * @param neighborOffsets the world's adjacency offsets
+   * @param neighborTargets the world's adjacency targets
+   */
+  CompactSpaces(List<Ispace> spaces, int[] neighborOffsets, int[] neighborTargets) {
+    int n = spaces.size();
+    upperRows = new int[n];
+    upperCols = new int[n];
+    lowerRows = new int[n];
+    lowerCols = new int[n];
+    roomNames = new int[n];
+    itemOffsets = new int[n + 1];
+    Map<String, Integer> table = new HashMap<>(n * 2);
+    List<String> distinct = new ArrayList<>(n);
+    Map<Iitem, Integer> itemIndexes = new IdentityHashMap<>();
+    List<Iitem> distinctItems = new ArrayList<>();
+    boolean namesFollowAdjacency = true;
+    int itemCount = 0;
+    int nameCount = 0;
+    for (int i = 0; i < n; i++) {
+      Ispace s = spaces.get(i);
+      upperRows[i] = s.getUpperRow();
+      upperCols[i] = s.getUpperColumn();
+      lowerRows[i] = s.getLowerRow();
+      lowerCols[i] = s.getLowerColumn();
+      roomNames[i] = intern(s.getSpaceName(), table, distinct);
+      itemCount += Space.readItemObjects(s).size();
+      itemOffsets[i + 1] = itemCount;
+      nameCount += s.getNeighbors().size();
+    }
+    itemIds = new int[itemCount];
+    int[] names = new int[nameCount];
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      Ispace s = spaces.get(i);
+      int k = itemOffsets[i];
+      for (Iitem item : Space.readItemObjects(s)) {
+        Integer index = itemIndexes.putIfAbsent(item, distinctItems.size());
+        if (index == null) {
+          index = distinctItems.size();
+          distinctItems.add(item);
+        }
+        itemIds[k++] = index;
+      }
+      List<String> neighbors = s.getNeighbors();
+      int from = neighborOffsets[i];
+      namesFollowAdjacency &= neighbors.size() == neighborOffsets[i + 1] - from;
+      for (int j = 0; j < neighbors.size(); j++) {
+        names[offsets[i] + j] = intern(neighbors.get(j), table, distinct);
+        namesFollowAdjacency = namesFollowAdjacency
+            && names[offsets[i] + j] == roomNames[neighborTargets[from + j]];
+      }
+      offsets[i + 1] = offsets[i] + neighbors.size();
+    }
+    strings = distinct.toArray(new String[0]);
+    itemTable = distinctItems.toArray(new Iitem[0]);
+    nameOffsets = namesFollowAdjacency ? null : offsets;
+    neighborNames = namesFollowAdjacency ? null : names;
+    adjacencyOffsets = neighborOffsets;
+    adjacencyTargets = neighborTargets;
+
+    nameTable = new int[Integer.highestOneBit(Math.max(2 * n - 1, 1)) << 1];
+    int mask = nameTable.length - 1;
+    for (int i = 0; i < n; i++) {
+      int slot = CompiledWorld.hash(strings[roomNames[i]]) & mask;
+      while (nameTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      nameTable[slot] = i + 1;
+    }
+    made = new Room[n];
+    for (int i = 0; i < n; i++) {
+      if (spaces.get(i).getHasPet()) {
+        hasPet.set(i);
+      }
+    }
+  }
+
+  private CompactSpaces(CompactSpaces other) {
+    upperRows = other.upperRows;
+    upperCols = other.upperCols;
+    lowerRows = other.lowerRows;
+    lowerCols = other.lowerCols;
+    strings = other.strings;
+    roomNames = other.roomNames;
+    nameTable = other.nameTable;
+    itemTable = other.itemTable;
+    itemOffsets = other.itemOffsets;
+    itemIds = other.itemIds;
+    nameOffsets = other.nameOffsets;
+    neighborNames = other.neighborNames;
+    adjacencyOffsets = other.adjacencyOffsets;
+    adjacencyTargets = other.adjacencyTargets;
+    made = new Room[other.made.length];
+  }
+
+  private static int intern(String s, Map<String, Integer> table, List<String> strings) {
+    Integer index = table.putIfAbsent(s, strings.size());
+    if (index == null) {
+      index = strings.size();
+      strings.add(s);
+    }
+    return index;
+  }
+
+  /**
+   * Gets a fresh set of the same rooms, with every item where it was when the
+   * rooms were copied in and no pet anywhere.
+   *
+   * @return the new rooms
+   */
+  CompactSpaces fresh() {
+    return new CompactSpaces(this);
+  }
+
+  /**
+   * Finds a room by name, ignoring case. Where several rooms share a name the
+   * first one wins, as in {@link World}.
+   *
+   * @param name the name to look for
+   * @return the room's id, or -1 if no room has that name
+   */
+  int findRoom(String name) {
+    int mask = nameTable.length - 1;
+    for (int slot = CompiledWorld.hash(name) & mask; ; slot = (slot + 1) & mask) {
+      int entry = nameTable[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      if (strings[roomNames[entry - 1]].equalsIgnoreCase(name)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  @Override
+  public Ispace get(int index) {
+    Room room = made[index];
+    if (room == null) {
+      room = new Room(index);
+      made[index] = room;
+    }
+    return room;
+  }
+
+  @Override
+  public int size() {
+    return made.length;
+  }
+
+  /**
+   * Copies the items a room was stored with out of the shared columns.
+   */
+  private List<Iitem> storedItems(int id) {
+    List<Iitem> copy = new ArrayList<>(itemOffsets[id + 1] - itemOffsets[id]);
+    for (int k = itemOffsets[id]; k < itemOffsets[id + 1]; k++) {
+      copy.add(itemTable[itemIds[k]]);
+    }
+    return copy;
+  }
+
+  /**
+   * A room: its id in the columns.
+   */
+  final class Room implements Ispace {
+    private final int id;
+
+    private Room(int id) {
+      this.id = id;
+    }
+
+    /**
+     * Gets the room's items as a list the game may change. The first time,
+     * the room's items are copied out of the shared columns.
+     *
+     * @return the room's own list of items
+     */
+    List<Iitem> getItemObjects() {
+      return changedItems.computeIfAbsent(id, k -> storedItems(k));
+    }
+
+    /**
+     * Gets the room's items as they are now, for reading only, without giving
+     * the room a list of its own.
+     *
+     * @return the room's items
+     */
+    List<Iitem> readItemObjects() {
+      List<Iitem> changed = changedItems.get(id);
+      return changed != null ? changed : storedItems(id);
+    }
+
+    @Override
+    public int getUpperRow() {
+      return upperRows[id];
+    }
+
+    @Override
+    public int getUpperColumn() {
+      return upperCols[id];
+    }
+
+    @Override
+    public int getLowerRow() {
+      return lowerRows[id];
+    }
+
+    @Override
+    public int getLowerColumn() {
+      return lowerCols[id];
+    }
+
+    @Override
+    public int getSpaceId() {
+      return id;
+    }
+
+    @Override
+    public String getSpaceName() {
+      return strings[roomNames[id]];
+    }
+
+    @Override
+    public void addItem(Iitem item) {
+      getItemObjects().add(item);
+    }
+
+    @Override
+    public List<String> getItems() {
+      List<String> itemNames = new ArrayList<>();
+      List<Iitem> changed = changedItems.get(id);
+      if (changed != null) {
+        for (Iitem item : changed) {
+          itemNames.add(item.getItemName());
+        }
+      } else {
+        for (int k = itemOffsets[id]; k < itemOffsets[id + 1]; k++) {
+          itemNames.add(itemTable[itemIds[k]].getItemName());
+        }
+      }
+      return itemNames;
+    }
+
+    @Override
+    public List<String> getNeighbors() {
+      int from = nameOffsets == null ? adjacencyOffsets[id] : nameOffsets[id];
+      int to = nameOffsets == null ? adjacencyOffsets[id + 1] : nameOffsets[id + 1];
+      return new AbstractList<String>() {
+        @Override
+        public String get(int index) {
+          if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("No neighbor " + index);
+          }
+          return nameOffsets == null ? strings[roomNames[adjacencyTargets[from + index]]]
+              : strings[neighborNames[from + index]];
+        }
+
+        @Override
+        public int size() {
+          return to - from;
+        }
+      };
+    }
+
+    @Override
+    public void setHasPet(boolean flag) {
+      hasPet.set(id, flag);
+    }
+
+    @Override
+    public boolean getHasPet() {
+      return hasPet.get(id);
+    }
+  }
+}
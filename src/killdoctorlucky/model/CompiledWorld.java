@@ -0,0 +1,675 @@
+package killdoctorlucky.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A world compiled to a binary file, so that it opens without parsing text,
+ * searching for neighbors or walking the pet path again. The file is mapped
+ * into memory and rooms are only made into {@link Space} objects when the
+ * game first asks for them. Everything else, including finding a room by name,
+ * can be read straight from the file, so a {@link PagedWorld} can play a world
+ * that does not fit on the heap.
+ *
+ * <p>The file is a header of {@value #HEADER_INTS} big-endian ints followed by
+ * int sections and a string table, each sized by the header:
+ * <pre>
+ *   rects              4 per room: upper row, upper column, lower row, lower column
+ *   grid cell starts   grid rows * grid columns + 1, and grid entries: the
+ *                      buckets of a {@link SpaceGrid} over the rects, cell by
+ *                      cell, which answer the map's position queries
+ *   room names         1 per room: string index
+ *   name table         a power of two of at least twice the rooms: an open
+ *                      addressing hash table of room id + 1 (0 is empty),
+ *                      keyed by the case-folded name, filled in id order
+ *   item offsets       rooms + 1: room i holds items [off[i], off[i + 1])
+ *   items              3 per item: space index, damage, string index
+ *   neighbor offsets   rooms + 1, and neighbor ids: the world's adjacency
+ *   name offsets       rooms + 1, and string indexes: the rooms' neighbor name
+ *                      lists, only when they differ from the adjacency
+ *   pet path           space ids
+ *   string offsets     strings + 1 byte offsets into the UTF-8 string bytes
+ * </pre>
+ */
+final class CompiledWorld {
+  /** The first four bytes of a compiled world: "KDLW". */
+  static final int MAGIC = 0x4B444C57;
+  /** The format version this class writes and reads. */
+  static final int VERSION = 3;
+
+  private static final int HEADER_INTS = 22;
+  private static final int FLAG_UNIQUE_NAMES = 1; // no two rooms share a name, ignoring case
+  private static final int FLAG_NEIGHBOR_NAMES = 2; // the name offsets and names sections exist
+
+  private final ByteBuffer data;
+  private final int flags;
+  private final int rows;
+  private final int cols;
+  private final int roomCount;
+  private final int itemCount;
+  private final int edgeCount;
+  private final int nameEdgeCount;
+  private final int petPathLength;
+  private final int stringCount;
+  private final int targetHealth;
+  private final int targetName;
+  private final int petName;
+  private final int nameTableSize;
+  private final int gridMinRow;
+  private final int gridMinCol;
+  private final int cellSize;
+  private final int gridRows;
+  private final int gridCols;
+  private final int gridEntryCount;
+  // Byte positions of the sections.
+  private final int rects;
+  private final int cellStart;
+  private final int cellSpaces;
+  private final int roomNames;
+  private final int nameTable;
+  private final int itemOffsets;
+  private final int items;
+  private final int neighborOffsets;
+  private final int neighborTargets;
+  private final int nameOffsets;
+  private final int names;
+  private final int petPath;
+  private final int stringOffsets;
+  private final int stringBytes;
+  // Decoded on first use once a World shares its rooms' strings and items;
+  // null for a PagedWorld, which keeps nothing per room. Strings and items are
+  // immutable, so copies of the world on other threads may share them; a race
+  // only decodes one twice.
+  private volatile String[] strings;
+  private volatile Item[] itemCache;
+
+  private CompiledWorld(ByteBuffer data, String filePath) throws IOException {
+    this.data = data;
+    if (data.capacity() < HEADER_INTS * 4 || data.getInt(0) != MAGIC) {
+      throw new IOException("Not a compiled world: " + filePath);
+    }
+    int version = data.getInt(4);
+    if (version != VERSION) {
+      throw new IOException("Unsupported compiled world version " + version + " in " + filePath);
+    }
+    this.flags = data.getInt(8);
+    this.rows = data.getInt(12);
+    this.cols = data.getInt(16);
+    this.roomCount = data.getInt(20);
+    this.itemCount = data.getInt(24);
+    this.edgeCount = data.getInt(28);
+    this.nameEdgeCount = data.getInt(32);
+    this.petPathLength = data.getInt(36);
+    this.stringCount = data.getInt(40);
+    int stringByteCount = data.getInt(44);
+    this.targetHealth = data.getInt(48);
+    this.targetName = data.getInt(52);
+    this.petName = data.getInt(56);
+    this.nameTableSize = data.getInt(60);
+    this.gridMinRow = data.getInt(64);
+    this.gridMinCol = data.getInt(68);
+    this.cellSize = data.getInt(72);
+    this.gridRows = data.getInt(76);
+    this.gridCols = data.getInt(80);
+    this.gridEntryCount = data.getInt(84);
+    long cells = (long) gridRows * gridCols;
+
+    // Section positions; a damaged header is caught by the size check below.
+    long at = HEADER_INTS * 4L;
+    this.rects = (int) at;
+    at += 16L * roomCount;
+    this.cellStart = (int) at;
+    at += 4L * (cells + 1);
+    this.cellSpaces = (int) at;
+    at += 4L * gridEntryCount;
+    this.roomNames = (int) at;
+    at += 4L * roomCount;
+    this.nameTable = (int) at;
+    at += 4L * nameTableSize;
+    this.itemOffsets = (int) at;
+    at += 4L * (roomCount + 1);
+    this.items = (int) at;
+    at += 12L * itemCount;
+    this.neighborOffsets = (int) at;
+    at += 4L * (roomCount + 1);
+    this.neighborTargets = (int) at;
+    at += 4L * edgeCount;
+    this.nameOffsets = (int) at;
+    if ((flags & FLAG_NEIGHBOR_NAMES) != 0) {
+      at += 4L * (roomCount + 1);
+    }
+    this.names = (int) at;
+    at += 4L * nameEdgeCount;
+    this.petPath = (int) at;
+    at += 4L * petPathLength;
+    this.stringOffsets = (int) at;
+    at += 4L * (stringCount + 1);
+    this.stringBytes = (int) at;
+    at += stringByteCount;
+    if (roomCount < 1 || itemCount < 0 || edgeCount < 0 || nameEdgeCount < 0
+        || petPathLength < 0 || stringCount < 0 || stringByteCount < 0
+        || Integer.bitCount(nameTableSize) != 1 || nameTableSize < roomCount
+        || cellSize < 1 || gridRows < 1 || gridCols < 1 || gridEntryCount < roomCount
+        || at != data.capacity() || data.getInt(cellStart) != 0
+        || data.getInt(cellSpaces - 4) != gridEntryCount) {
+      throw new IOException("Compiled world is damaged or truncated: " + filePath);
+    }
+  }
+
+  /**
+   * Tells whether a file starts like a compiled world.
+   *
+   * @param filePath the file to look at
+   * @return true if it starts with {@link #MAGIC}
+   * @throws IOException if the file cannot be opened
+   */
+  static boolean isCompiled(String filePath) throws IOException {
+    try (DataInputStream in = new DataInputStream(new FileInputStream(filePath))) {
+      byte[] head = new byte[4];
+      int n = in.read(head);
+      return n == 4 && ByteBuffer.wrap(head).getInt() == MAGIC;
+    }
+  }
+
+  /**
+   * Maps a compiled world into memory. Nothing but the header is read.
+   *
+   * @param filePath the compiled file
+   * @return the compiled world
+   * @throws IOException if the file cannot be read, is not a compiled world of
+   *                     this version, or is larger than 2 GB
+   */
+  static CompiledWorld open(String filePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Compiled world is too large to map: " + filePath);
+      }
+      // The mapping stays valid after the channel is closed.
+      return new CompiledWorld(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+          filePath);
+    }
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  int getColumns() {
+    return cols;
+  }
+
+  int getRoomCount() {
+    return roomCount;
+  }
+
+  int getTargetHealth() {
+    return targetHealth;
+  }
+
+  String getTargetName() {
+    return string(targetName);
+  }
+
+  String getPetName() {
+    return string(petName);
+  }
+
+  boolean hasUniqueNames() {
+    return (flags & FLAG_UNIQUE_NAMES) != 0;
+  }
+
+  /**
+   * Gets a room's name without making the room.
+   *
+   * @param id the room
+   * @return its name
+   */
+  String roomName(int id) {
+    return string(data.getInt(roomNames + 4 * id));
+  }
+
+  /**
+   * Finds a room by name, ignoring case, in the file's name table. Where
+   * several rooms share a name the first one wins, as in {@link World}.
+   *
+   * @param name the name to look for
+   * @return the room's id, or -1 if no room has that name
+   */
+  int findRoom(String name) {
+    int mask = nameTableSize - 1;
+    for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+      int entry = data.getInt(nameTable + 4 * slot);
+      if (entry == 0) {
+        return -1;
+      }
+      if (roomName(entry - 1).equalsIgnoreCase(name)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Finds the lowest id of a room covering a grid cell, with the same
+   * half-open rectangles as {@link Iworld#findSpaceIdAt(int, int)}. Only the
+   * file's grid bucket under the cell is read.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the room's id, or -1 if the cell is outside every room
+   */
+  int roomAt(int row, int col) {
+    int cell = SpaceGrid.cellOf(row, gridMinRow, cellSize, gridRows) * gridCols
+        + SpaceGrid.cellOf(col, gridMinCol, cellSize, gridCols);
+    int end = data.getInt(cellStart + 4 * (cell + 1));
+    // Buckets are in id order, so the first hit is the lowest id.
+    for (int k = data.getInt(cellStart + 4 * cell); k < end; k++) {
+      int id = data.getInt(cellSpaces + 4 * k);
+      int at = rects + 16 * id;
+      if (data.getInt(at) <= row && row < data.getInt(at + 8) && data.getInt(at + 4) <= col
+          && col < data.getInt(at + 12)) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the rooms that overlap a rectangle of grid cells, with the same
+   * inclusive corners as {@link Iworld#findSpacesIn(int, int, int, int)}. Only
+   * the file's grid buckets under the rectangle are read.
+   *
+   * @return the ids of the rooms, ascending
+   */
+  int[] roomsIn(int top, int left, int bottom, int right) {
+    if (bottom < top || right < left) {
+      return new int[0];
+    }
+    IntList found = new IntList();
+    int r1 = SpaceGrid.cellOf(bottom, gridMinRow, cellSize, gridRows);
+    int c0 = SpaceGrid.cellOf(left, gridMinCol, cellSize, gridCols);
+    int c1 = SpaceGrid.cellOf(right, gridMinCol, cellSize, gridCols);
+    for (int r = SpaceGrid.cellOf(top, gridMinRow, cellSize, gridRows); r <= r1; r++) {
+      for (int c = c0; c <= c1; c++) {
+        int cell = r * gridCols + c;
+        int end = data.getInt(cellStart + 4 * (cell + 1));
+        for (int k = data.getInt(cellStart + 4 * cell); k < end; k++) {
+          int id = data.getInt(cellSpaces + 4 * k);
+          int at = rects + 16 * id;
+          int row1 = data.getInt(at);
+          int col1 = data.getInt(at + 4);
+          int row2 = data.getInt(at + 8);
+          int col2 = data.getInt(at + 12);
+          if (Math.min(row1, row2) <= bottom && Math.max(row1, row2) >= top
+              && Math.min(col1, col2) <= right && Math.max(col1, col2) >= left) {
+            found.add(id);
+          }
+        }
+      }
+    }
+    // A room that covers several cells was found once per cell.
+    int[] ids = Arrays.copyOf(found.values, found.size());
+    Arrays.sort(ids);
+    int unique = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if (unique == 0 || ids[unique - 1] != ids[i]) {
+        ids[unique++] = ids[i];
+      }
+    }
+    return Arrays.copyOf(ids, unique);
+  }
+
+  int neighborCount(int id) {
+    return data.getInt(neighborOffsets + 4 * (id + 1)) - data.getInt(neighborOffsets + 4 * id);
+  }
+
+  int neighborId(int id, int index) {
+    return data.getInt(neighborTargets + 4 * (data.getInt(neighborOffsets + 4 * id) + index));
+  }
+
+  /**
+   * Gets the number of items a room was compiled with.
+   *
+   * @param id the room
+   * @return its item count
+   */
+  int itemCount(int id) {
+    return data.getInt(itemOffsets + 4 * (id + 1)) - data.getInt(itemOffsets + 4 * id);
+  }
+
+  int petPathLength() {
+    return petPathLength;
+  }
+
+  int petPathAt(int index) {
+    return data.getInt(petPath + 4 * index);
+  }
+
+  int[] neighborOffsets() {
+    return ints(neighborOffsets, roomCount + 1);
+  }
+
+  int[] neighborTargets() {
+    return ints(neighborTargets, edgeCount);
+  }
+
+  int[] petPath() {
+    return ints(petPath, petPathLength);
+  }
+
+  /**
+   * Gets a fresh set of rooms, as they were when the world was compiled. Each
+   * room is made on first access and then kept, so it keeps its identity and
+   * its state for the rest of the game.
+   *
+   * @return the rooms, in id order
+   */
+  List<Ispace> spaces() {
+    shareDecoded();
+    return new Rooms();
+  }
+
+  /**
+   * Gets every item in the rooms, in room order.
+   *
+   * @return an unmodifiable view of the items
+   */
+  List<Iitem> items() {
+    shareDecoded();
+    return new AbstractList<Iitem>() {
+      @Override
+      public Iitem get(int index) {
+        if (index < 0 || index >= itemCount) {
+          throw new IndexOutOfBoundsException("No item " + index);
+        }
+        return item(index);
+      }
+
+      @Override
+      public int size() {
+        return itemCount;
+      }
+    };
+  }
+
+  /**
+   * Starts keeping decoded strings and items, so that every room made from
+   * this file shares them.
+   */
+  private synchronized void shareDecoded() {
+    if (strings == null) {
+      itemCache = new Item[itemCount];
+      strings = new String[stringCount];
+    }
+  }
+
+  /**
+   * Makes a room as it was compiled.
+   *
+   * @param id the room
+   * @return a new space with its neighbor names and items
+   */
+  Space room(int id) {
+    int at = rects + 16 * id;
+    Space space = new Space(data.getInt(at), data.getInt(at + 4), data.getInt(at + 8),
+        data.getInt(at + 12), roomName(id));
+    space.setSpaceId(id);
+    if ((flags & FLAG_NEIGHBOR_NAMES) != 0) {
+      int end = data.getInt(nameOffsets + 4 * (id + 1));
+      for (int k = data.getInt(nameOffsets + 4 * id); k < end; k++) {
+        space.addNeighbor(string(data.getInt(names + 4 * k)));
+      }
+    } else {
+      int end = data.getInt(neighborOffsets + 4 * (id + 1));
+      for (int k = data.getInt(neighborOffsets + 4 * id); k < end; k++) {
+        space.addNeighbor(roomName(data.getInt(neighborTargets + 4 * k)));
+      }
+    }
+    int end = data.getInt(itemOffsets + 4 * (id + 1));
+    for (int k = data.getInt(itemOffsets + 4 * id); k < end; k++) {
+      space.addItem(item(k));
+    }
+    return space;
+  }
+
+  private Item item(int k) {
+    Item[] cache = itemCache;
+    Item item = cache == null ? null : cache[k];
+    if (item == null) {
+      int at = items + 12 * k;
+      item = new Item(data.getInt(at), data.getInt(at + 4), string(data.getInt(at + 8)));
+      if (cache != null) {
+        cache[k] = item;
+      }
+    }
+    return item;
+  }
+
+  private String string(int index) {
+    String[] cache = strings;
+    String s = cache == null ? null : cache[index];
+    if (s == null) {
+      int from = data.getInt(stringOffsets + 4 * index);
+      int to = data.getInt(stringOffsets + 4 * (index + 1));
+      byte[] bytes = new byte[to - from];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = data.get(stringBytes + from + i);
+      }
+      s = new String(bytes, StandardCharsets.UTF_8);
+      if (cache != null) {
+        cache[index] = s;
+      }
+    }
+    return s;
+  }
+
+  private int[] ints(int at, int count) {
+    int[] result = new int[count];
+    ByteBuffer view = data.duplicate();
+    view.position(at);
+    view.asIntBuffer().get(result);
+    return result;
+  }
+
+  /**
+   * The rooms of one game, made from the file as they are asked for.
+   */
+  private final class Rooms extends AbstractList<Ispace> implements RandomAccess {
+    private final Space[] made = new Space[roomCount];
+
+    @Override
+    public Ispace get(int index) {
+      Space space = made[index];
+      if (space == null) {
+        space = room(index);
+        made[index] = space;
+      }
+      return space;
+    }
+
+    @Override
+    public int size() {
+      return roomCount;
+    }
+  }
+
+  /**
+   * Writes a loaded world to a compiled file. The rooms are written as they are
+   * now, so the world should not have been played.
+   *
+   * @param world    the world to compile; its rooms must be {@link Space}s or
+   *                 in compact storage
+   * @param filePath where to write it
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the world has no rooms or has rooms of
+   *                                  its own kind
+   */
+  static void write(World world, String filePath) throws IOException {
+    List<Ispace> spaces = world.spaces;
+    int n = spaces.size();
+    if (n == 0) {
+      throw new IllegalArgumentException("A world needs at least one room to be compiled.");
+    }
+    Map<String, Integer> table = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    int[] rects = new int[4 * n];
+    int[] roomNames = new int[n];
+    int[] itemOffsets = new int[n + 1];
+    int[] neighborOffsets = new int[n + 1];
+    int[] nameOffsets = new int[n + 1];
+    IntList items = new IntList();
+    IntList targets = new IntList();
+    IntList names = new IntList();
+    Set<String> folded = new HashSet<>();
+    boolean unique = true;
+    boolean namesFollowAdjacency = true;
+
+    for (int i = 0; i < n; i++) {
+      Ispace s = spaces.get(i);
+      if (!(s instanceof Space || s instanceof CompactSpaces.Room)) {
+        throw new IllegalArgumentException("Only worlds made of Space rooms can be compiled.");
+      }
+      rects[4 * i] = s.getUpperRow();
+      rects[4 * i + 1] = s.getUpperColumn();
+      rects[4 * i + 2] = s.getLowerRow();
+      rects[4 * i + 3] = s.getLowerColumn();
+      roomNames[i] = intern(s.getSpaceName(), table, strings);
+      unique &= folded.add(World.foldCase(s.getSpaceName()));
+      for (Iitem item : Space.readItemObjects(s)) {
+        items.add(item.getSpaceIndex());
+        items.add(item.getDamage());
+        items.add(intern(item.getItemName(), table, strings));
+      }
+      itemOffsets[i + 1] = items.size() / 3;
+
+      int count = world.getNeighborCount(i);
+      List<String> neighborNames = s.getNeighbors();
+      boolean same = neighborNames.size() == count;
+      for (int k = 0; k < count; k++) {
+        int j = world.getNeighborId(i, k);
+        targets.add(j);
+        same = same && neighborNames.get(k).equals(spaces.get(j).getSpaceName());
+      }
+      namesFollowAdjacency &= same;
+      neighborOffsets[i + 1] = targets.size();
+      for (String name : neighborNames) {
+        names.add(intern(name, table, strings));
+      }
+      nameOffsets[i + 1] = names.size();
+    }
+    int targetName = intern(world.targetCharacter.getTargetName(), table, strings);
+    int petName = intern(world.pet.getName(), table, strings);
+    int[] petPath = world.petPathIds();
+    int[] nameTable = new int[Integer.highestOneBit(2 * n - 1) << 1];
+    for (int i = 0; i < n; i++) {
+      int mask = nameTable.length - 1;
+      int slot = hash(spaces.get(i).getSpaceName()) & mask;
+      while (nameTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      nameTable[slot] = i + 1;
+    }
+
+    SpaceGrid grid = world.spaceGrid();
+
+    byte[][] encoded = new byte[strings.size()][];
+    int[] stringOffsets = new int[strings.size() + 1];
+    for (int i = 0; i < encoded.length; i++) {
+      encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+      stringOffsets[i + 1] = stringOffsets[i] + encoded[i].length;
+    }
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)), 1 << 16))) {
+      int flags = (unique ? FLAG_UNIQUE_NAMES : 0)
+          | (namesFollowAdjacency ? 0 : FLAG_NEIGHBOR_NAMES);
+      int[] header = { MAGIC, VERSION, flags, world.rows, world.cols, n, items.size() / 3,
+          targets.size(), namesFollowAdjacency ? 0 : names.size(), petPath.length,
+          strings.size(), stringOffsets[strings.size()], world.getStartingHealth(), targetName,
+          petName, nameTable.length, grid.getMinRow(), grid.getMinColumn(), grid.getCellSize(),
+          grid.getGridRows(), grid.getGridColumns(), grid.getCellSpaces().length };
+      writeInts(out, header, header.length);
+      writeInts(out, rects, rects.length);
+      writeInts(out, grid.getCellStart(), grid.getCellStart().length);
+      writeInts(out, grid.getCellSpaces(), grid.getCellSpaces().length);
+      writeInts(out, roomNames, n);
+      writeInts(out, nameTable, nameTable.length);
+      writeInts(out, itemOffsets, n + 1);
+      writeInts(out, items.values, items.size());
+      writeInts(out, neighborOffsets, n + 1);
+      writeInts(out, targets.values, targets.size());
+      if (!namesFollowAdjacency) {
+        writeInts(out, nameOffsets, n + 1);
+        writeInts(out, names.values, names.size());
+      }
+      writeInts(out, petPath, petPath.length);
+      writeInts(out, stringOffsets, stringOffsets.length);
+      for (byte[] bytes : encoded) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Hashes a name for the name table, so that names equal ignoring case land
+   * in the same place.
+   */
+  static int hash(String name) {
+    int h = World.foldCase(name).hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int intern(String s, Map<String, Integer> table, List<String> strings) {
+    Integer index = table.get(s);
+    if (index == null) {
+      index = strings.size();
+      table.put(s, index);
+      strings.add(s);
+    }
+    return index;
+  }
+
+  private static void writeInts(DataOutputStream out, int[] values, int count)
+      throws IOException {
+    for (int i = 0; i < count; i++) {
+      out.writeInt(values[i]);
+    }
+  }
+
+  /**
+   * A growable list of ints, so large sections are not boxed while they are
+   * gathered.
+   */
+  private static final class IntList {
+    private int[] values = new int[16];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int size() {
+      return size;
+    }
+  }
+}
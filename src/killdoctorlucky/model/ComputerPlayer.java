@@ -1,5 +1,6 @@
 package killdoctorlucky.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import util.RandomGenerator;
 
@@ -39,8 +40,8 @@ public class ComputerPlayer extends Player {
    * Determines and executes the next action for the computer-controlled player.
    * If the computer is in the same space as the target and is unseen by others,
    * it attacks using the weapon with the most damage. Otherwise, it prioritizes:
-   * 1. Picking up items if available. 2. Moving toward Doctor Lucky's location if
-   * possible. 3. Looking around as a fallback.
+   * 1. Picking up items if available and there is room. 2. Moving toward Doctor
+   * Lucky's location if possible. 3. Looking around as a fallback.
    *
    * @return a string describing the action taken
    */
@@ -50,15 +51,7 @@ public class ComputerPlayer extends Player {
 
     // Check if in same room as target and unseen
     if (current.getSpaceName().equalsIgnoreCase(targetLocation.getSpaceName())) {
-      boolean isSeen = false;
-      for (Iplayer other : world.getPlayers()) {
-        if (!other.getPlayerName().equalsIgnoreCase(getPlayerName())
-            && world.canPlayerSee(other, this)) {
-          isSeen = true;
-          break;
-        }
-      }
-      if (!isSeen) {
+      if (!world.findObserver(this).isPresent()) {
         // Determine the weapon with the highest damage
         int bestDamage = 0;
         String bestWeapon = "default";
@@ -75,7 +68,7 @@ public class ComputerPlayer extends Player {
 
     // Priority: Pickup > Move toward target > Look
     List<String> items = getPlayerLocation().getItems();
-    if (!items.isEmpty()) {
+    if (!items.isEmpty() && !isInventoryFull()) {
       String item = items.get(randGen.nextInt(items.size()));
       pickUpItem(item);
       return "picked up " + item;
@@ -84,9 +77,9 @@ public class ComputerPlayer extends Player {
     List<String> neighbors = getPlayerLocation().getNeighbors();
     if (!neighbors.isEmpty()) {
       // Try to move toward Doctor Lucky's location
-      String targetSpace = chooseSpaceTowardTarget(neighbors);
-      moveTo(world.getSpaceByName(targetSpace));
-      return "moved to " + targetSpace;
+      Ispace targetSpace = chooseSpaceTowardTarget(neighbors);
+      moveTo(targetSpace);
+      return "moved to " + targetSpace.getSpaceName();
     }
 
     // Fallback: look around
@@ -94,26 +87,70 @@ public class ComputerPlayer extends Player {
   }
 
   /**
-   * Chooses a neighboring space that moves closer to Doctor Lucky's location.
-   * Falls back to a random neighbor if no clear path is better.
+   * Chooses a neighboring space that moves closer to Doctor Lucky's location:
+   * the first move of a shortest walk when the world can find one. Otherwise
+   * neighbors are ranked by walking distance, where the world can tell, and
+   * then by straight-line estimate. Falls back to a random neighbor if none of
+   * the neighbor names match a space.
+   *
+   * <p>A player already in the target's room, but seen there, therefore steps
+   * out to the neighbor nearest it in a straight line, as it did before
+   * walking distances were known: every neighbor is one move from the target,
+   * and the target moves on at the end of the turn anyway.
    *
    * @param neighbors list of neighboring space names
-   * @return the chosen space name
+   * @return the chosen space
    */
-  private String chooseSpaceTowardTarget(List<String> neighbors) {
+  private Ispace chooseSpaceTowardTarget(List<String> neighbors) {
+    Ispace current = getPlayerLocation();
     Ispace targetLocation = world.getTargetLocation();
-    String bestSpace = neighbors.get(randGen.nextInt(neighbors.size())); // Default random
-    int minDistance = Integer.MAX_VALUE;
+    String randomSpace = neighbors.get(randGen.nextInt(neighbors.size())); // Default random
+    int step = world.getNextStep(current, targetLocation);
+    if (step >= 0) {
+      return world.getSpace(step);
+    }
 
-    for (String neighborName : neighbors) {
-      Ispace neighbor = world.getSpaceByName(neighborName);
-      int distance = estimateDistance(neighbor, targetLocation);
-      if (distance < minDistance) {
+    // Already with the target, no way to it, or no walks to follow.
+    Ispace bestSpace = null;
+    int minDistance = Integer.MAX_VALUE;
+    int minEstimate = Integer.MAX_VALUE;
+    for (Ispace neighbor : neighborSpaces(current, neighbors)) {
+      int distance = world.getDistance(neighbor, targetLocation);
+      int estimate = estimateDistance(neighbor, targetLocation);
+      if (distance < 0) {
+        distance = estimate;
+      }
+      if (distance < minDistance || distance == minDistance && estimate < minEstimate) {
         minDistance = distance;
-        bestSpace = neighborName;
+        minEstimate = estimate;
+        bestSpace = neighbor;
+      }
+    }
+    return bestSpace != null ? bestSpace : world.getSpaceByName(randomSpace);
+  }
+
+  /**
+   * Gets the neighbors of the player's space: from the world's adjacency when
+   * the world has indexed the space under its id, otherwise by looking up each
+   * name. Names that match no space are skipped.
+   *
+   * @param current   the player's space
+   * @param neighbors the names of its neighbors
+   * @return the neighboring spaces
+   */
+  private List<Ispace> neighborSpaces(Ispace current, List<String> neighbors) {
+    List<Ispace> spaces = new ArrayList<>(neighbors.size());
+    int from = current.getSpaceId();
+    if (from >= 0 && from < world.getSpaceCount() && world.getSpace(from) == current) {
+      for (int k = 0; k < world.getNeighborCount(from); k++) {
+        spaces.add(world.getSpace(world.getNeighborId(from, k)));
+      }
+    } else {
+      for (String name : neighbors) {
+        world.findSpaceByName(name).ifPresent(spaces::add);
       }
     }
-    return bestSpace;
+    return spaces;
   }
 
   /**
@@ -0,0 +1,114 @@
+package killdoctorlucky.model;
+
+import java.util.Arrays;
+
+/**
+ * Answers "how many moves from one space to another", and "which way first",
+ * over a world's neighbor graph. Small worlds get exact all-pairs tables;
+ * worlds too big for that get a landmark (ALT) lower bound and search for
+ * the first move.
+ */
+interface DistanceOracle {
+
+  /** Returned by {@link #distance(int, int)} when there is no path. */
+  int UNREACHABLE = Integer.MAX_VALUE;
+
+  /** Largest world that gets the exact all-pairs tables (two of 8 MB each). */
+  int MATRIX_LIMIT = 2048;
+
+  /**
+   * Gets the number of moves between two spaces.
+   *
+   * @param from the id of the starting space
+   * @param to   the id of the destination space
+   * @return the distance (exact, or a lower bound for large worlds), or
+   *         {@link #UNREACHABLE} if to cannot be reached from from
+   */
+  int distance(int from, int to);
+
+  /**
+   * Gets the first move of a shortest walk between two spaces. Where several
+   * walks are shortest, the first neighbor of from, in adjacency order, that
+   * starts one wins.
+   *
+   * @param from the id of the starting space
+   * @param to   the id of the destination space
+   * @return the id of the neighbor of from to move into, or -1 if from is to
+   *         or to cannot be reached
+   */
+  int nextStep(int from, int to);
+
+  /**
+   * Builds the oracle that suits the size of the given adjacency graph.
+   *
+   * @param offsets CSR offsets: the neighbors of i are targets[offsets[i] ..
+   *                offsets[i + 1])
+   * @param targets CSR neighbor ids
+   * @return an exact oracle for small graphs, a landmark oracle otherwise
+   */
+  static DistanceOracle forGraph(int[] offsets, int[] targets) {
+    int n = offsets.length - 1;
+    if (n <= MATRIX_LIMIT) {
+      return new MatrixDistanceOracle(offsets, targets);
+    }
+    return new LandmarkDistanceOracle(offsets, targets, 8);
+  }
+
+  /**
+   * Breadth-first search from one space, writing hop counts (or -1 for
+   * unreachable spaces) into dist.
+   *
+   * @param offsets CSR offsets
+   * @param targets CSR neighbor ids
+   * @param source  the space to search from
+   * @param dist    output distances, one per space
+   * @param queue   scratch space at least as long as dist
+   * @return the id of a space farthest from source
+   */
+  static int breadthFirst(int[] offsets, int[] targets, int source, int[] dist, int[] queue) {
+    return breadthFirst(offsets, targets, source, dist, null, queue);
+  }
+
+  /**
+   * Breadth-first search from one space that also records, for every space it
+   * reaches, the neighbor of source that a shortest walk there starts with.
+   * Neighbors are queued in adjacency order, so that neighbor is the first one
+   * in adjacency order that starts a shortest walk.
+   *
+   * @param offsets CSR offsets
+   * @param targets CSR neighbor ids
+   * @param source  the space to search from
+   * @param dist    output distances, one per space
+   * @param first   output first moves, one per space (-1 for source and for
+   *                unreachable spaces); may be null
+   * @param queue   scratch space at least as long as dist
+   * @return the id of a space farthest from source
+   */
+  static int breadthFirst(int[] offsets, int[] targets, int source, int[] dist, int[] first,
+      int[] queue) {
+    if (first != null) {
+      Arrays.fill(first, -1);
+    }
+    Arrays.fill(dist, -1);
+    int head = 0;
+    int tail = 0;
+    dist[source] = 0;
+    queue[tail++] = source;
+    int last = source;
+    while (head < tail) {
+      int u = queue[head++];
+      last = u;
+      for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+        int v = targets[k];
+        if (dist[v] < 0) {
+          dist[v] = dist[u] + 1;
+          if (first != null) {
+            first[v] = u == source ? v : first[u];
+          }
+          queue[tail++] = v;
+        }
+      }
+    }
+    return last;
+  }
+}
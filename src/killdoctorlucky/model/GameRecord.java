@@ -0,0 +1,143 @@
+package killdoctorlucky.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of a game that does not depend on how a world keeps its rooms: the
+ * winner, the last attacker and whether messages are printed, and the way
+ * players, spaces and the target are described. {@link World} and
+ * {@link PagedWorld} each keep one and answer the matching {@link Iworld}
+ * calls from it.
+ */
+final class GameRecord {
+  private String winnerName = null;
+  private String lastAttacker = null;
+  private boolean quiet = false;
+
+  /**
+   * Turns console output on or off, for the game and its target.
+   *
+   * @param quiet           true to suppress all game messages
+   * @param targetCharacter the target, which prints its own messages
+   */
+  void setQuiet(boolean quiet, ItargetCharacter targetCharacter) {
+    this.quiet = quiet;
+    if (targetCharacter instanceof TargetCharacter) {
+      ((TargetCharacter) targetCharacter).setVerbose(!quiet);
+    }
+  }
+
+  boolean isQuiet() {
+    return quiet;
+  }
+
+  void announce(String message) {
+    if (!quiet) {
+      System.out.println(message);
+    }
+  }
+
+  void setLastAttacker(String name) {
+    this.lastAttacker = name;
+  }
+
+  String getWinner() {
+    return (winnerName != null) ? winnerName : "No one";
+  }
+
+  void setWinner(String name) {
+    this.winnerName = (name != null) ? name : lastAttacker;
+  }
+
+  /**
+   * Gets the items every player holds, player by player.
+   */
+  static List<String> playerItems(List<Iplayer> players) {
+    List<String> result = new ArrayList<>();
+    for (Iplayer p : players) {
+      result.addAll(p.getPlayerItems());
+    }
+    return result;
+  }
+
+  /**
+   * Gets every item lying in a space, as "item in space", space by space.
+   */
+  static List<String> spaceItems(List<Ispace> spaces) {
+    List<String> result = new ArrayList<>();
+    for (Ispace s : spaces) {
+      for (String item : s.getItems()) {
+        result.add(item + " in " + s.getSpaceName());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds a player by name, ignoring case.
+   *
+   * @return the player's position in the list, or -1 if there is none
+   */
+  static int findPlayerIndex(List<Iplayer> players, String name) {
+    for (int i = 0; i < players.size(); i++) {
+      if (players.get(i).getPlayerName().equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Describes the target: its name, health and where it is.
+   */
+  static String describeTarget(ItargetCharacter targetCharacter, Ispace location) {
+    return targetCharacter.getTargetName() + " (" + targetCharacter.getTargetHealth() + " HP) at "
+        + location.getSpaceName();
+  }
+
+  /**
+   * Describes a space by its name and corners, as
+   * {@link Iworld#getSpaceInfo(int)} does.
+   */
+  static String describeBounds(Ispace space) {
+    return space.getSpaceName() + ": (Row " + space.getUpperRow() + ", Col "
+        + space.getUpperColumn() + ") - (Row " + space.getLowerRow() + ", Col "
+        + space.getLowerColumn() + ")";
+  }
+
+  /**
+   * Describes a space as a player looking around it sees it, as
+   * {@link Iworld#getSpaceInfo(String)} does. Neighbors with the pet in them
+   * cannot be seen into.
+   *
+   * @param s         the space
+   * @param occupants the names of the players in it
+   * @param pet       the pet, or null if the world has none
+   * @param neighbors the neighboring spaces, in order
+   * @return the description
+   */
+  static String describeSpace(Ispace s, List<String> occupants, Ipet pet,
+      List<Ispace> neighbors) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Space: ").append(s.getSpaceName()).append("\n").append("Items: ")
+        .append(s.getItems()).append("\n").append("Players Present: ");
+    sb.append(occupants).append("\n");
+    // If the current space contains the pet, list it explicitly.
+    if (s.getHasPet() && pet != null) {
+      sb.append("Also present: ").append(pet.getName()).append("\n");
+    }
+    sb.append("Coordinates: [").append(s.getUpperRow()).append(", ").append(s.getUpperColumn())
+        .append("] to [").append(s.getLowerRow()).append(", ").append(s.getLowerColumn())
+        .append("]\n").append("--- Visible Neighboring Spaces ---\n");
+    for (Ispace neighbor : neighbors) {
+      if (neighbor.getHasPet()) {
+        sb.append(neighbor.getSpaceName()).append(" (Not visible)\n");
+      } else {
+        sb.append(neighbor.getSpaceName()).append(" (Items: ").append(neighbor.getItems())
+            .append(")\n");
+      }
+    }
+    return sb.toString();
+  }
+}
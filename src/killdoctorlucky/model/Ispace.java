@@ -36,6 +36,16 @@ public interface Ispace {
    */
   int getLowerColumn();
 
+  /**
+   * Gets the dense integer id of the space, which is its index in the world
+   * that loaded it.
+   *
+   * @return the space id, or -1 if no world has indexed this space
+   */
+  default int getSpaceId() {
+    return -1;
+  }
+
   /**
    * Retrieves the name of the space.
    *
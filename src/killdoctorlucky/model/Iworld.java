@@ -1,7 +1,9 @@
 package killdoctorlucky.model;
 
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Represents the world or game board in the "Kill Doctor Lucky" game. This
@@ -76,6 +78,21 @@ public interface Iworld {
    */
   Ispace getSpaceByName(String name);
 
+  /**
+   * Retrieves a specific space by its name, ignoring case, without falling back
+   * to another space when the name is unknown.
+   *
+   * @param name The name of the space to retrieve.
+   * @return the matching space, or an empty Optional if there is none.
+   */
+  default Optional<Ispace> findSpaceByName(String name) {
+    Ispace space = getSpaceByName(name);
+    if (space != null && space.getSpaceName().equalsIgnoreCase(name)) {
+      return Optional.of(space);
+    }
+    return Optional.empty();
+  }
+
   /**
    * Retrieves detailed information about a space based on its name.
    *
@@ -99,6 +116,13 @@ public interface Iworld {
    */
   Ispace getTargetLocation();
 
+  /**
+   * Gets the target character of this game. Each world has its own target.
+   *
+   * @return the target character
+   */
+  ItargetCharacter getTargetCharacter();
+
   /**
    * Moves the target character to the next space in a predefined sequence or
    * logic.
@@ -135,6 +159,13 @@ public interface Iworld {
    */
   Ipet getPet();
 
+  /**
+   * Moves the pet one step along its wandering path. Worlds whose pet does not
+   * wander leave it where it is.
+   */
+  default void movePetAutomatically() {
+  }
+
   /**
    * Determines if one player (pA) can see another (pB). Typically, a player can
    * see another if they are in the same space or in a neighboring space.
@@ -144,4 +175,256 @@ public interface Iworld {
    * @return true if pA can see pB, false otherwise
    */
   boolean canPlayerSee(Iplayer a, Iplayer b);
+
+  /**
+   * Finds a player who can see the given player. Players with the same name as
+   * the given player are not counted. When several players can see it, the one
+   * that comes first in {@link #getPlayers()} is returned.
+   *
+   * @param player the player that might be observed
+   * @return the first player who can see it, or an empty Optional if none can
+   */
+  default Optional<Iplayer> findObserver(Iplayer player) {
+    for (Iplayer other : getPlayers()) {
+      if (!other.getPlayerName().equalsIgnoreCase(player.getPlayerName())
+          && canPlayerSee(other, player)) {
+        return Optional.of(other);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Finds every player who can see into a space, in the order of
+   * {@link #getPlayers()}. Players standing in the space itself are included.
+   *
+   * @param space the space being watched
+   * @return the players who can see into it
+   */
+  default List<Iplayer> getObservers(Ispace space) {
+    List<Iplayer> observers = new ArrayList<>();
+    for (Iplayer other : getPlayers()) {
+      Ispace from = other.getPlayerLocation();
+      if (from == space || from.getSpaceName().equalsIgnoreCase(space.getSpaceName())
+          || areNeighbors(from, space)) {
+        observers.add(other);
+      }
+    }
+    return observers;
+  }
+
+  /**
+   * Tells the world that a player has moved to a new space, so that it can keep
+   * track of who is where.
+   *
+   * @param player the player, already at its new location
+   */
+  default void playerMoved(Iplayer player) {
+  }
+
+  /**
+   * Gets every space in the world, in id order. The list is for reading only.
+   *
+   * @return the spaces; empty if the world has none
+   */
+  List<Ispace> getSpaces();
+
+  /**
+   * Gets the number of spaces in the world. Space ids run from 0 to this count
+   * minus one.
+   *
+   * @return the number of spaces
+   */
+  default int getSpaceCount() {
+    return getSpaces().size();
+  }
+
+  /**
+   * Retrieves a space by its id.
+   *
+   * @param spaceId the id of the space
+   * @return the space with that id
+   * @throws IndexOutOfBoundsException if no space has that id
+   */
+  default Ispace getSpace(int spaceId) {
+    return getSpaces().get(spaceId);
+  }
+
+  /**
+   * Gets the height of the mansion's grid, in cells. By default this is just
+   * tall enough to hold every space.
+   *
+   * @return the number of rows
+   */
+  default int getRowCount() {
+    int rows = 0;
+    for (Ispace s : getSpaces()) {
+      rows = Math.max(rows, Math.max(s.getUpperRow(), s.getLowerRow()));
+    }
+    return rows;
+  }
+
+  /**
+   * Gets the width of the mansion's grid, in cells. By default this is just
+   * wide enough to hold every space.
+   *
+   * @return the number of columns
+   */
+  default int getColumnCount() {
+    int cols = 0;
+    for (Ispace s : getSpaces()) {
+      cols = Math.max(cols, Math.max(s.getUpperColumn(), s.getLowerColumn()));
+    }
+    return cols;
+  }
+
+  /**
+   * Finds the spaces that overlap a rectangle of grid cells, for drawing or
+   * hit-testing part of the map. Corners are inclusive.
+   *
+   * @param top    the first row
+   * @param left   the first column
+   * @param bottom the last row
+   * @param right  the last column
+   * @return the overlapping spaces, in id order
+   */
+  default List<Ispace> findSpacesIn(int top, int left, int bottom, int right) {
+    List<Ispace> found = new ArrayList<>();
+    for (int id = 0; id < getSpaceCount(); id++) {
+      Ispace s = getSpace(id);
+      if (Math.min(s.getUpperRow(), s.getLowerRow()) <= bottom
+          && Math.max(s.getUpperRow(), s.getLowerRow()) >= top
+          && Math.min(s.getUpperColumn(), s.getLowerColumn()) <= right
+          && Math.max(s.getUpperColumn(), s.getLowerColumn()) >= left) {
+        found.add(s);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Finds the space under a grid cell of the drawn map, for hit-testing a
+   * click. A space covers the cells from its upper corner up to, but not
+   * including, its lower corner; where spaces overlap, the lowest id wins.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the id of the space, or -1 if the cell is outside every space
+   */
+  default int findSpaceIdAt(int row, int col) {
+    for (int id = 0; id < getSpaceCount(); id++) {
+      Ispace s = getSpace(id);
+      if (s.getUpperRow() <= row && row < s.getLowerRow() && s.getUpperColumn() <= col
+          && col < s.getLowerColumn()) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the number of neighbors of a space. Together with
+   * {@link #getNeighborId(int, int)} this walks a space's neighbors without
+   * allocating, in the same order as {@link Ispace#getNeighbors()}. Neighbor
+   * names that match no space are skipped.
+   *
+   * <p>The default looks each name up, so worlds that keep an adjacency
+   * should answer from it instead.
+   *
+   * @param spaceId the id of the space
+   * @return the number of neighboring spaces
+   * @throws IndexOutOfBoundsException if no space has that id
+   */
+  default int getNeighborCount(int spaceId) {
+    int count = 0;
+    for (String name : getSpace(spaceId).getNeighbors()) {
+      if (findSpaceByName(name).isPresent()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the id of one neighbor of a space.
+   *
+   * @param spaceId the id of the space
+   * @param index   which neighbor, from 0 to getNeighborCount(spaceId) - 1
+   * @return the id of that neighboring space
+   * @throws IndexOutOfBoundsException if the space or the neighbor does not
+   *                                   exist
+   */
+  default int getNeighborId(int spaceId, int index) {
+    int k = index;
+    for (String name : getSpace(spaceId).getNeighbors()) {
+      Optional<Ispace> neighbor = findSpaceByName(name);
+      if (neighbor.isPresent() && k-- == 0) {
+        Ispace space = neighbor.get();
+        int id = space.getSpaceId();
+        return id >= 0 && id < getSpaceCount() && getSpace(id) == space ? id
+            : getSpaces().indexOf(space);
+      }
+    }
+    throw new IndexOutOfBoundsException(
+        "Space " + spaceId + " has no neighbor at position " + index);
+  }
+
+  /**
+   * Checks whether two spaces are neighbors.
+   *
+   * @param from the space being left
+   * @param to   the space being entered
+   * @return true if to is one of from's neighbors
+   */
+  default boolean areNeighbors(Ispace from, Ispace to) {
+    return from.getNeighbors().contains(to.getSpaceName());
+  }
+
+  /**
+   * Checks whether a player standing in one space can see into another: its
+   * own space or one of its neighbors.
+   *
+   * @param fromSpaceId the id of the observer's space
+   * @param toSpaceId   the id of the space being watched
+   * @return true if the second space can be seen from the first
+   * @throws IndexOutOfBoundsException if either space does not exist
+   */
+  default boolean canSee(int fromSpaceId, int toSpaceId) {
+    return fromSpaceId == toSpaceId || areNeighbors(getSpace(fromSpaceId), getSpace(toSpaceId));
+  }
+
+  /**
+   * Gets the number of moves it takes to walk from one space to another
+   * through neighboring spaces.
+   *
+   * @param from the starting space
+   * @param to   the destination space
+   * @return the number of moves (a lower bound on very large worlds),
+   *         Integer.MAX_VALUE if there is no path, or -1 if this world cannot
+   *         tell
+   */
+  default int getDistance(Ispace from, Ispace to) {
+    return -1;
+  }
+
+  /**
+   * Gets the first move of a shortest walk from one space to another.
+   *
+   * @param from the starting space
+   * @param to   the destination space
+   * @return the id of the neighbor of from to move into, or -1 if from is to,
+   *         there is no path, or this world cannot tell
+   */
+  default int getNextStep(Ispace from, Ispace to) {
+    return -1;
+  }
+
+  /**
+   * Reports a game event, such as an attack or a pickup, to the console.
+   *
+   * @param message the message to report
+   */
+  default void announce(String message) {
+    System.out.println(message);
+  }
 }
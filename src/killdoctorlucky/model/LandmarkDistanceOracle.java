@@ -0,0 +1,226 @@
+package killdoctorlucky.model;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Landmark (ALT) distance estimates for worlds too big for an all-pairs
+ * table. A few far-apart landmark spaces each keep their distance to every
+ * space, and the triangle inequality turns those into the lower bound
+ * max over landmarks of |d(L, from) - d(L, to)|.
+ *
+ * <p>The bound is not a distance, so the room that minimizes it need not be on
+ * a shortest walk. First moves are found instead by an A* search guided by
+ * the bound, which never overestimates and so finds a shortest walk. A search
+ * can visit much of the world, so each search keeps the last first moves it
+ * found in a table of {@value #CACHED_MOVES} entries, indexed by a hash of the
+ * pair of spaces; asking again for a pair still in the table costs a lookup,
+ * and a pair that is not costs a search.
+ *
+ * <p>Copies of a world share the oracle, so threads may ask at once. Each
+ * question takes a search, with its scratch arrays and table, from a pool kept
+ * by the oracle and puts it back afterwards. The pool holds at most as many
+ * searches as threads have asked at once, and goes when the oracle does.
+ */
+final class LandmarkDistanceOracle implements DistanceOracle {
+  private static final int CACHE_BITS = 12;
+  /** Number of first moves each search remembers. */
+  static final int CACHED_MOVES = 1 << CACHE_BITS;
+
+  private final int[] offsets;
+  private final int[] targets;
+  private final int[][] fromLandmark; // fromLandmark[l][space], -1 when unreachable
+  private final Deque<Search> idle = new ConcurrentLinkedDeque<>(); // searches not in use
+
+  /**
+   * Picks landmarks by farthest-point sampling and runs a breadth-first search
+   * from each.
+   *
+   * @param offsets   CSR offsets
+   * @param targets   CSR neighbor ids
+   * @param landmarks how many landmarks to keep
+   */
+  LandmarkDistanceOracle(int[] offsets, int[] targets, int landmarks) {
+    this.offsets = offsets;
+    this.targets = targets;
+    int n = offsets.length - 1;
+    int count = Math.max(1, Math.min(landmarks, n));
+    this.fromLandmark = new int[count][n];
+    int[] queue = new int[n];
+    // nearest[v] is v's distance to the closest landmark chosen so far; the
+    // next landmark is the space that maximizes it, preferring spaces the
+    // current landmarks cannot reach at all so every component gets one.
+    int[] nearest = new int[n];
+    Arrays.fill(nearest, Integer.MAX_VALUE);
+    int next = n == 0 ? -1 : 0;
+    for (int l = 0; l < count && next >= 0; l++) {
+      int[] dist = fromLandmark[l];
+      DistanceOracle.breadthFirst(offsets, targets, next, dist, queue);
+      next = -1;
+      int best = 0;
+      for (int v = 0; v < n; v++) {
+        if (dist[v] >= 0) {
+          nearest[v] = Math.min(nearest[v], dist[v]);
+        }
+        if (nearest[v] > best) {
+          best = nearest[v];
+          next = v;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int distance(int from, int to) {
+    if (from == to) {
+      return 0;
+    }
+    int bound = 1;
+    for (int[] dist : fromLandmark) {
+      int a = dist[from];
+      int b = dist[to];
+      if (a >= 0 && b >= 0) {
+        bound = Math.max(bound, Math.abs(a - b));
+      } else if ((a >= 0) != (b >= 0)) {
+        // One is in the landmark's component and the other is not.
+        return UNREACHABLE;
+      }
+    }
+    return bound;
+  }
+
+  @Override
+  public int nextStep(int from, int to) {
+    if (from == to || distance(from, to) == UNREACHABLE) {
+      return -1;
+    }
+    // The search used last is taken first, as its table is the most likely
+    // to hold the answer.
+    Search search = idle.pollFirst();
+    if (search == null) {
+      search = new Search();
+    }
+    try {
+      return search.cachedFirstMove(from, to);
+    } finally {
+      idle.offerFirst(search);
+    }
+  }
+
+  /**
+   * An A* search, used by one thread at a time. Spaces are marked with the
+   * number of the search that last reached them instead of clearing the arrays
+   * between searches.
+   * The queue is ordered by estimated length and then by distance walked, so
+   * every space on a shortest walk is settled before the spaces after it, and
+   * each space keeps the earliest first move, in adjacency order, of the
+   * shortest walks reaching it.
+   */
+  private final class Search {
+    private final int[] reached = new int[offsets.length - 1]; // search that reached each space
+    private final int[] settled = new int[offsets.length - 1]; // search that settled each space
+    private final int[] walked = new int[offsets.length - 1];
+    private final int[] first = new int[offsets.length - 1]; // index of the first move
+    private long[] keys = new long[64]; // estimate << 32 | walked, a binary heap
+    private int[] spaces = new int[64];
+    private int size;
+    private int search;
+    private final long[] pairs = new long[CACHED_MOVES]; // from << 32 | to, or -1 when empty
+    private final int[] moves = new int[CACHED_MOVES];
+
+    Search() {
+      Arrays.fill(pairs, -1L);
+    }
+
+    int cachedFirstMove(int from, int to) {
+      long pair = (long) from << 32 | to;
+      int slot = (int) (pair * 0x9E3779B97F4A7C15L >>> (64 - CACHE_BITS));
+      if (pairs[slot] != pair) {
+        moves[slot] = firstMove(from, to);
+        pairs[slot] = pair;
+      }
+      return moves[slot];
+    }
+
+    int firstMove(int from, int to) {
+      if (++search == 0) {
+        Arrays.fill(reached, 0);
+        Arrays.fill(settled, 0);
+        search = 1;
+      }
+      size = 0;
+      reached[from] = search;
+      walked[from] = 0;
+      push(distance(from, to), 0, from);
+      while (size > 0) {
+        int u = pop();
+        if (settled[u] == search) {
+          continue;
+        }
+        settled[u] = search;
+        if (u == to) {
+          return targets[offsets[from] + first[u]];
+        }
+        int g = walked[u] + 1;
+        for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+          int v = targets[k];
+          int move = u == from ? k - offsets[from] : first[u];
+          if (reached[v] == search && g >= walked[v]) {
+            if (g == walked[v] && move < first[v]) {
+              first[v] = move;
+            }
+            continue;
+          }
+          int estimate = distance(v, to);
+          if (estimate == UNREACHABLE) {
+            continue;
+          }
+          reached[v] = search;
+          walked[v] = g;
+          first[v] = move;
+          push(g + estimate, g, v);
+        }
+      }
+      return -1;
+    }
+
+    private void push(int estimate, int g, int space) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        spaces = Arrays.copyOf(spaces, size * 2);
+      }
+      long key = (long) estimate << 32 | g;
+      int i = size++;
+      while (i > 0 && keys[(i - 1) / 2] > key) {
+        keys[i] = keys[(i - 1) / 2];
+        spaces[i] = spaces[(i - 1) / 2];
+        i = (i - 1) / 2;
+      }
+      keys[i] = key;
+      spaces[i] = space;
+    }
+
+    private int pop() {
+      int top = spaces[0];
+      long key = keys[--size];
+      int space = spaces[size];
+      int i = 0;
+      while (2 * i + 1 < size) {
+        int child = 2 * i + 1;
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (keys[child] >= key) {
+          break;
+        }
+        keys[i] = keys[child];
+        spaces[i] = spaces[child];
+        i = child;
+      }
+      keys[i] = key;
+      spaces[i] = space;
+      return top;
+    }
+  }
+}
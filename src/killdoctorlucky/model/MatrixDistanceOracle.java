@@ -0,0 +1,48 @@
+package killdoctorlucky.model;
+
+/**
+ * Exact all-pairs distances and first moves, found with one breadth-first
+ * search per space and stored row by row in two short arrays.
+ */
+final class MatrixDistanceOracle implements DistanceOracle {
+  private final int size;
+  private final short[] table; // table[from * size + to], -1 when unreachable
+  private final short[] steps; // steps[from * size + to], the first move or -1
+
+  /**
+   * Runs a breadth-first search from every space of the graph.
+   *
+   * @param offsets CSR offsets
+   * @param targets CSR neighbor ids
+   */
+  MatrixDistanceOracle(int[] offsets, int[] targets) {
+    this.size = offsets.length - 1;
+    if (size > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many spaces for a distance table: " + size);
+    }
+    this.table = new short[size * size];
+    this.steps = new short[size * size];
+    int[] dist = new int[size];
+    int[] first = new int[size];
+    int[] queue = new int[size];
+    for (int from = 0; from < size; from++) {
+      DistanceOracle.breadthFirst(offsets, targets, from, dist, first, queue);
+      int row = from * size;
+      for (int to = 0; to < size; to++) {
+        table[row + to] = (short) dist[to];
+        steps[row + to] = (short) first[to];
+      }
+    }
+  }
+
+  @Override
+  public int distance(int from, int to) {
+    int d = table[from * size + to];
+    return d < 0 ? UNREACHABLE : d;
+  }
+
+  @Override
+  public int nextStep(int from, int to) {
+    return steps[from * size + to];
+  }
+}
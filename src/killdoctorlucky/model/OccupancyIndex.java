@@ -0,0 +1,222 @@
+package killdoctorlucky.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Records which players stand in which space, as one bitset of seats per
+ * space. A player's seat is its position in the world's player list, so the
+ * lowest set bit is always the player who comes first in turn order.
+ *
+ * <p>Only players that report their moves to the world are tracked this way.
+ * Any other player is kept on a short list and checked the slow way, so the
+ * answers are always the same as asking every player in turn.
+ */
+final class OccupancyIndex {
+  private final Iplayer[] seats;
+  private final int[] seatSpace; // space id of each seat, or -1 if it is not tracked
+  private final int[] untracked; // seats that are not tracked, ascending
+  private final Map<Iplayer, Integer> seatOf;
+  private final long[][] occupants; // per space, null until someone stands there
+  private final long[] seen; // scratch bitset for observer queries
+  private final int words;
+  private final BiPredicate<Ispace, Ispace> canSee;
+
+  /**
+   * Seats the given players.
+   *
+   * @param roster     the players in turn order
+   * @param spaceCount the number of spaces in the world
+   * @param spaceIds   the space id of each player, or -1 for a player whose
+   *                   moves the world does not hear about
+   * @param canSee     whether a player in one space can see into another, for
+   *                   players that are not tracked
+   */
+  OccupancyIndex(List<Iplayer> roster, int spaceCount, int[] spaceIds,
+      BiPredicate<Ispace, Ispace> canSee) {
+    int n = roster.size();
+    this.seats = roster.toArray(new Iplayer[n]);
+    this.seatSpace = new int[n];
+    this.seatOf = new IdentityHashMap<>(n);
+    this.occupants = new long[spaceCount][];
+    this.words = Math.max(1, (n + 63) >>> 6);
+    this.seen = new long[words];
+    this.canSee = canSee;
+    int[] slow = new int[n];
+    int slowCount = 0;
+    for (int seat = 0; seat < n; seat++) {
+      // A player listed twice is only tracked in its first seat.
+      boolean first = seatOf.putIfAbsent(seats[seat], seat) == null;
+      int space = first ? spaceIds[seat] : -1;
+      seatSpace[seat] = space;
+      if (space < 0) {
+        slow[slowCount++] = seat;
+      } else {
+        set(space, seat);
+      }
+    }
+    this.untracked = Arrays.copyOf(slow, slowCount);
+  }
+
+  /**
+   * Moves a tracked player to another space. Players that are not seated or not
+   * tracked are ignored.
+   *
+   * @param player  the player that moved
+   * @param spaceId the id of the space it moved to
+   */
+  void move(Iplayer player, int spaceId) {
+    Integer seat = seatOf.get(player);
+    if (seat == null || seatSpace[seat] < 0) {
+      return;
+    }
+    int from = seatSpace[seat];
+    occupants[from][seat >>> 6] &= ~(1L << seat);
+    seatSpace[seat] = spaceId;
+    set(spaceId, seat);
+  }
+
+  /**
+   * Checks whether a player is seated and tracked, so that its location in
+   * this index can be trusted.
+   *
+   * @param player the player to check
+   * @return true if the player's moves are tracked
+   */
+  boolean isTracked(Iplayer player) {
+    Integer seat = seatOf.get(player);
+    return seat != null && seatSpace[seat] >= 0;
+  }
+
+  /**
+   * Gets the id of the space a tracked player stands in.
+   *
+   * @param player a tracked player
+   * @return the id of its space
+   */
+  int spaceOf(Iplayer player) {
+    return seatSpace[seatOf.get(player)];
+  }
+
+  /**
+   * Starts a new observer query by forgetting the spaces added so far.
+   */
+  void clearSeen() {
+    Arrays.fill(seen, 0L);
+  }
+
+  /**
+   * Adds the players standing in a space to the current observer query.
+   *
+   * @param spaceId the id of a space from which the watched space can be seen
+   */
+  void addSeen(int spaceId) {
+    long[] here = occupants[spaceId];
+    if (here != null) {
+      for (int w = 0; w < words; w++) {
+        seen[w] |= here[w];
+      }
+    }
+  }
+
+  /**
+   * Finds the first player in turn order among those added to the current
+   * query, other than players with the same name as the watched player.
+   *
+   * @param watched the player being watched
+   * @return the observer, or null if the player is unseen
+   */
+  Iplayer firstSeen(Iplayer watched) {
+    String name = watched.getPlayerName();
+    int slow = 0;
+    int seat = nextSetBit(seen, 0);
+    while (seat >= 0 || slow < untracked.length) {
+      Iplayer other;
+      if (slow < untracked.length && (seat < 0 || untracked[slow] < seat)) {
+        other = seats[untracked[slow++]];
+        if (!canSee.test(other.getPlayerLocation(), watched.getPlayerLocation())) {
+          continue;
+        }
+      } else {
+        other = seats[seat];
+        seat = nextSetBit(seen, seat + 1);
+      }
+      if (!other.getPlayerName().equalsIgnoreCase(name)) {
+        return other;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds every player of the current query to a list, in turn order.
+   *
+   * @param watched the space being watched
+   * @param into    the list to add the players to
+   */
+  void collectSeen(Ispace watched, List<Iplayer> into) {
+    int slow = 0;
+    int seat = nextSetBit(seen, 0);
+    while (seat >= 0 || slow < untracked.length) {
+      if (slow < untracked.length && (seat < 0 || untracked[slow] < seat)) {
+        Iplayer other = seats[untracked[slow++]];
+        if (canSee.test(other.getPlayerLocation(), watched)) {
+          into.add(other);
+        }
+      } else {
+        into.add(seats[seat]);
+        seat = nextSetBit(seen, seat + 1);
+      }
+    }
+  }
+
+  /**
+   * Adds the players standing in a space to a list, in turn order. Players that
+   * are not tracked are matched by the name of their location.
+   *
+   * @param space   the space
+   * @param spaceId the id of the space
+   * @param into    the list to add the players to
+   */
+  void collectOccupants(Ispace space, int spaceId, List<Iplayer> into) {
+    long[] here = occupants[spaceId];
+    int slow = 0;
+    int seat = here == null ? -1 : nextSetBit(here, 0);
+    while (seat >= 0 || slow < untracked.length) {
+      if (slow < untracked.length && (seat < 0 || untracked[slow] < seat)) {
+        Iplayer other = seats[untracked[slow++]];
+        if (other.getPlayerLocation().getSpaceName().equalsIgnoreCase(space.getSpaceName())) {
+          into.add(other);
+        }
+      } else {
+        into.add(seats[seat]);
+        seat = nextSetBit(here, seat + 1);
+      }
+    }
+  }
+
+  private void set(int spaceId, int seat) {
+    if (occupants[spaceId] == null) {
+      occupants[spaceId] = new long[words];
+    }
+    occupants[spaceId][seat >>> 6] |= 1L << seat;
+  }
+
+  private static int nextSetBit(long[] bits, int from) {
+    int w = from >>> 6;
+    if (w >= bits.length) {
+      return -1;
+    }
+    long word = bits[w] & (-1L << from);
+    while (word == 0) {
+      if (++w == bits.length) {
+        return -1;
+      }
+      word = bits[w];
+    }
+    return (w << 6) + Long.numberOfTrailingZeros(word);
+  }
+}
@@ -0,0 +1,570 @@
+package killdoctorlucky.model;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A world played straight from a compiled file (see
+ * {@link World#writeCompiled(String)}), for mansions too large to hold on the
+ * heap. The file is mapped into memory; names, neighbors and the pet's path are
+ * read from it as they are needed, and rooms are made into {@link Space}
+ * objects on demand and kept in a cache of bounded size. Nothing is kept per
+ * room, so the heap a game needs does not depend on the size of the mansion.
+ *
+ * <p>A room is dropped from the cache when it has not been used for a while,
+ * and made again from the file if it is needed later, unless the game still
+ * needs that very object: a player or the pet is in it, or items have been
+ * taken from it. Code outside the game should therefore look rooms up again
+ * rather than hold on to them. Walking distances are found by a breadth-first
+ * search over the file's neighbor lists that keeps only the rooms it reaches;
+ * a search that reaches {@value #SEARCH_LIMIT} rooms gives up, and computer
+ * players then head for the target by the straight-line estimate.
+ * {@link World#open(String)} picks this class for compiled files too large to
+ * hold on the heap.
+ *
+ * <p>Like {@link World}, a PagedWorld is played from one thread at a time.
+ */
+public class PagedWorld implements Iworld {
+  /** Number of rooms the cache keeps when no size is given. */
+  public static final int DEFAULT_CACHE_SIZE = 4096;
+  /** Most rooms a search for a walk reaches before it gives up. */
+  public static final int SEARCH_LIMIT = 1 << 14;
+
+  private final CompiledWorld file;
+  private final Rooms rooms;
+  private final List<Iplayer> players = new ArrayList<>();
+  private final ItargetCharacter targetCharacter;
+  private final Ipet pet;
+  private final boolean uniqueNames; // no two rooms share a name, ignoring case
+  private int targetLocationIndex;
+  private int petIndex;
+  private final GameRecord record = new GameRecord(); // winner, last attacker, quiet
+  // A walk search's hash table of rooms reached, -1 where empty, with the
+  // first move to each, and its queue; made on the first search.
+  private int[] reached;
+  private int[] firstMoves;
+  private int[] queue;
+
+  /**
+   * Opens a compiled world with a cache of {@value #DEFAULT_CACHE_SIZE} rooms.
+   *
+   * @param filePath the compiled world file
+   * @throws IOException if the file cannot be read or is not a compiled world
+   */
+  public PagedWorld(String filePath) throws IOException {
+    this(filePath, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Opens a compiled world.
+   *
+   * @param filePath  the compiled world file
+   * @param cacheSize how many rooms to keep beyond the ones the game needs
+   * @throws IOException if the file cannot be read or is not a compiled world
+   * @throws IllegalArgumentException if the cache size is less than one
+   */
+  public PagedWorld(String filePath, int cacheSize) throws IOException {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException("The room cache must hold at least one room.");
+    }
+    this.file = CompiledWorld.open(filePath);
+    this.rooms = new Rooms(cacheSize);
+    this.targetCharacter = new TargetCharacter(file.getTargetName(), file.getTargetHealth());
+    this.uniqueNames = file.hasUniqueNames();
+
+    // The target and the pet start in the first room, as in World.
+    targetLocationIndex = 0;
+    petIndex = 0;
+    Ispace start = rooms.get(0);
+    this.pet = new Pet(file.getPetName(), start);
+    start.setHasPet(true);
+  }
+
+  /**
+   * Turns console output from this world and its players on or off.
+   *
+   * @param quiet true to suppress all game messages
+   */
+  public void setQuiet(boolean quiet) {
+    record.setQuiet(quiet, targetCharacter);
+  }
+
+  @Override
+  public void announce(String message) {
+    record.announce(message);
+  }
+
+  @Override
+  public List<Iplayer> getPlayers() {
+    return players;
+  }
+
+  @Override
+  public void addPlayer(String name, int spaceIndex) {
+    if (spaceIndex < 0 || spaceIndex >= getSpaceCount()) {
+      throw new IllegalArgumentException(
+          "Invalid space index " + spaceIndex + " for player start location.");
+    }
+    Ispace start = rooms.get(spaceIndex);
+    players.add(new Player(name, start, this));
+    announce("Player " + name + " added at space " + start.getSpaceName());
+  }
+
+  @Override
+  public int getSpaceCount() {
+    return file.getRoomCount();
+  }
+
+  @Override
+  public Ispace getSpace(int spaceId) {
+    if (spaceId < 0 || spaceId >= getSpaceCount()) {
+      throw new IndexOutOfBoundsException("No space " + spaceId);
+    }
+    return rooms.get(spaceId);
+  }
+
+  @Override
+  public int getRowCount() {
+    return file.getRows();
+  }
+
+  @Override
+  public int getColumnCount() {
+    return file.getColumns();
+  }
+
+  @Override
+  public List<Ispace> findSpacesIn(int top, int left, int bottom, int right) {
+    int[] ids = file.roomsIn(top, left, bottom, right);
+    List<Ispace> found = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      found.add(rooms.get(id));
+    }
+    return found;
+  }
+
+  @Override
+  public int findSpaceIdAt(int row, int col) {
+    return file.roomAt(row, col);
+  }
+
+  @Override
+  public int getNeighborCount(int spaceId) {
+    return file.neighborCount(spaceId);
+  }
+
+  @Override
+  public int getNeighborId(int spaceId, int index) {
+    if (index < 0 || index >= getNeighborCount(spaceId)) {
+      throw new IndexOutOfBoundsException(
+          "Space " + spaceId + " has no neighbor at position " + index);
+    }
+    return file.neighborId(spaceId, index);
+  }
+
+  @Override
+  public boolean areNeighbors(Ispace from, Ispace to) {
+    if (!isRoom(from) || !isRoom(to)) {
+      return Iworld.super.areNeighbors(from, to);
+    }
+    return isNeighbor(from.getSpaceId(), to.getSpaceId());
+  }
+
+  @Override
+  public boolean canSee(int fromSpaceId, int toSpaceId) {
+    return fromSpaceId == toSpaceId || isNeighbor(fromSpaceId, toSpaceId);
+  }
+
+  @Override
+  public boolean canPlayerSee(Iplayer a, Iplayer b) {
+    Ispace from = a.getPlayerLocation();
+    Ispace to = b.getPlayerLocation();
+    if (from == to) {
+      return true;
+    }
+    if (uniqueNames && isRoom(from) && isRoom(to)) {
+      return canSee(from.getSpaceId(), to.getSpaceId());
+    }
+    return from.getSpaceName().equalsIgnoreCase(to.getSpaceName()) || areNeighbors(from, to);
+  }
+
+  @Override
+  public int getDistance(Ispace from, Ispace to) {
+    if (!isRoom(from) || !isRoom(to)) {
+      return -1;
+    }
+    int[] walk = searchWalk(from.getSpaceId(), to.getSpaceId());
+    return walk == null ? -1 : walk[0];
+  }
+
+  @Override
+  public int getNextStep(Ispace from, Ispace to) {
+    if (!isRoom(from) || !isRoom(to)) {
+      return -1;
+    }
+    int[] walk = searchWalk(from.getSpaceId(), to.getSpaceId());
+    return walk == null ? -1 : walk[1];
+  }
+
+  /**
+   * Searches breadth first from one room for another, keeping only the rooms
+   * it reaches. Neighbors are queued in adjacency order, so the first move
+   * found is the first neighbor, in that order, that starts a shortest walk.
+   * The rooms reached are kept in a small hash table of ids that is reused
+   * from one search to the next.
+   *
+   * @return the distance (Integer.MAX_VALUE if there is no path) and the first
+   *         move (-1 if from is to or there is no path), or null if the search
+   *         reached {@value #SEARCH_LIMIT} rooms first
+   */
+  private int[] searchWalk(int from, int to) {
+    if (from == to) {
+      return new int[] { 0, -1 };
+    }
+    if (reached == null) {
+      reached = new int[2 * SEARCH_LIMIT];
+      firstMoves = new int[2 * SEARCH_LIMIT];
+      queue = new int[SEARCH_LIMIT];
+    }
+    Arrays.fill(reached, -1);
+    int head = 0;
+    int tail = 0;
+    reach(from, -1);
+    queue[tail++] = from;
+    int depth = 0; // of the room being expanded
+    int layerEnd = tail;
+    while (head < tail) {
+      if (head == layerEnd) {
+        depth++;
+        layerEnd = tail;
+      }
+      int u = queue[head++];
+      int count = file.neighborCount(u);
+      for (int k = 0; k < count; k++) {
+        int v = file.neighborId(u, k);
+        if (reached[slotOf(v)] == v) {
+          continue;
+        }
+        int move = u == from ? v : firstMoves[slotOf(u)];
+        if (v == to) {
+          return new int[] { depth + 1, move };
+        }
+        if (tail == SEARCH_LIMIT) {
+          return null;
+        }
+        reach(v, move);
+        queue[tail++] = v;
+      }
+    }
+    return new int[] { Integer.MAX_VALUE, -1 };
+  }
+
+  /**
+   * Gets the slot of the search's hash table that holds a room, or the empty
+   * slot where it would go.
+   */
+  private int slotOf(int room) {
+    int mask = reached.length - 1;
+    int slot = room * 0x9E3779B9 >>> Integer.numberOfLeadingZeros(mask);
+    while (reached[slot] != room && reached[slot] != -1) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void reach(int room, int move) {
+    int slot = slotOf(room);
+    reached[slot] = room;
+    firstMoves[slot] = move;
+  }
+
+  private boolean isNeighbor(int from, int to) {
+    int count = file.neighborCount(from);
+    for (int k = 0; k < count; k++) {
+      if (file.neighborId(from, k) == to) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks that a space is this world's current object for its id.
+   */
+  private boolean isRoom(Ispace space) {
+    int id = space.getSpaceId();
+    return id >= 0 && id < getSpaceCount() && rooms.held(id) == space;
+  }
+
+  /**
+   * Gets every room, as a view that reads each one through
+   * {@link #getSpace(int)} when it is asked for.
+   */
+  @Override
+  public List<Ispace> getSpaces() {
+    return new AbstractList<Ispace>() {
+      @Override
+      public Ispace get(int index) {
+        return getSpace(index);
+      }
+
+      @Override
+      public int size() {
+        return getSpaceCount();
+      }
+    };
+  }
+
+  /**
+   * Draws every room, as {@link World#generateWorldMap()} does. The rooms are
+   * read from the file one at a time, but the image is the size of the whole
+   * mansion.
+   */
+  @Override
+  public BufferedImage generateWorldMap() {
+    return World.renderWorldMap(getRowCount(), getColumnCount(), peekAll());
+  }
+
+  /**
+   * Gets every room to look at without keeping any, as {@link Rooms#peek(int)}
+   * does.
+   */
+  private List<Ispace> peekAll() {
+    return new AbstractList<Ispace>() {
+      @Override
+      public Ispace get(int index) {
+        return rooms.peek(index);
+      }
+
+      @Override
+      public int size() {
+        return getSpaceCount();
+      }
+    };
+  }
+
+  @Override
+  public List<String> getPlayerItems() {
+    return GameRecord.playerItems(players);
+  }
+
+  @Override
+  public List<String> getSpaceItems() {
+    return GameRecord.spaceItems(peekAll());
+  }
+
+  @Override
+  public boolean isGameNotOver() {
+    return targetCharacter.getTargetHealth() > 0;
+  }
+
+  @Override
+  public int findPlayerIndex(String name) {
+    return GameRecord.findPlayerIndex(players, name);
+  }
+
+  @Override
+  public Ispace getSpaceByName(String name) {
+    Optional<Ispace> found = findSpaceByName(name);
+    if (found.isPresent()) {
+      return found.get();
+    }
+    announce("Warning: Space '" + name + "' not found.");
+    return rooms.get(0);
+  }
+
+  @Override
+  public Optional<Ispace> findSpaceByName(String name) {
+    int id = file.findRoom(name);
+    return id < 0 ? Optional.empty() : Optional.of(rooms.get(id));
+  }
+
+  @Override
+  public String getSpaceInfo(int index) {
+    if (index < 0 || index >= getSpaceCount()) {
+      return "Invalid space index";
+    }
+    return GameRecord.describeBounds(rooms.get(index));
+  }
+
+  @Override
+  public String getSpaceInfo(String spaceName) {
+    Ispace s = findSpaceByName(spaceName).orElse(null);
+    if (s == null) {
+      return "Space not found: " + spaceName;
+    }
+    List<String> playersInSpace = new ArrayList<>();
+    for (Iplayer player : players) {
+      if (player.getPlayerLocation().getSpaceName().equalsIgnoreCase(s.getSpaceName())) {
+        playersInSpace.add(player.getPlayerName());
+      }
+    }
+    List<Ispace> neighbors = new ArrayList<>();
+    int id = s.getSpaceId();
+    for (int k = 0; k < file.neighborCount(id); k++) {
+      neighbors.add(rooms.peek(file.neighborId(id, k)));
+    }
+    return GameRecord.describeSpace(s, playersInSpace, pet, neighbors);
+  }
+
+  @Override
+  public String viewTargetCharacter() {
+    return GameRecord.describeTarget(targetCharacter, getTargetLocation());
+  }
+
+  @Override
+  public Ispace getTargetLocation() {
+    return rooms.get(targetLocationIndex);
+  }
+
+  @Override
+  public ItargetCharacter getTargetCharacter() {
+    return targetCharacter;
+  }
+
+  @Override
+  public void moveTargetCharacter() {
+    targetLocationIndex = (targetLocationIndex + 1) % getSpaceCount();
+  }
+
+  /**
+   * Moves the pet one step along the depth-first path stored in the file.
+   */
+  @Override
+  public void movePetAutomatically() {
+    int length = file.petPathLength();
+    if (length == 0) {
+      return;
+    }
+    pet.getCurrentSpace().setHasPet(false);
+    petIndex = (petIndex + 1) % length;
+    Ispace next = rooms.get(file.petPathAt(petIndex));
+    pet.moveTo(next);
+    next.setHasPet(true);
+  }
+
+  @Override
+  public void setLastAttacker(String name) {
+    record.setLastAttacker(name);
+  }
+
+  @Override
+  public String getWinner() {
+    return record.getWinner();
+  }
+
+  @Override
+  public void setWinner(String name) {
+    record.setWinner(name);
+  }
+
+  @Override
+  public Ipet getPet() {
+    return pet;
+  }
+
+  /**
+   * Gets the number of rooms currently made, for tests of the cache.
+   *
+   * @return the number of rooms held in memory
+   */
+  int heldRoomCount() {
+    return rooms.size();
+  }
+
+  /**
+   * Tells whether the game still needs a room object: a player or the pet is
+   * in it, or it no longer has every item it was compiled with.
+   */
+  private boolean inUse(Space room) {
+    if (room.getHasPet() || room.getItemObjects().size() != file.itemCount(room.getSpaceId())) {
+      return true;
+    }
+    for (Iplayer player : players) {
+      if (player.getPlayerLocation() == room) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The rooms made from the file. The most recently used ones are kept, up to
+   * the cache size; a room pushed out while still in use is pinned instead.
+   * Pinned rooms are checked again, and the free ones dropped, whenever their
+   * number has doubled.
+   */
+  private final class Rooms {
+    private static final int MIN_SWEEP = 16;
+
+    private final Map<Integer, Space> recent;
+    private final Map<Integer, Space> pinned = new HashMap<>();
+    private int sweepAt = MIN_SWEEP;
+
+    Rooms(int capacity) {
+      this.recent = new LinkedHashMap<Integer, Space>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Space> eldest) {
+          if (size() <= capacity) {
+            return false;
+          }
+          if (inUse(eldest.getValue())) {
+            pin(eldest.getValue());
+          }
+          return true;
+        }
+      };
+    }
+
+    /**
+     * Gets a room, making it if it is not held.
+     */
+    Space get(int id) {
+      Space room = held(id);
+      if (room == null) {
+        room = file.room(id);
+        recent.put(id, room);
+      }
+      return room;
+    }
+
+    /**
+     * Gets a room if it is held, or null.
+     */
+    Space held(int id) {
+      Space room = pinned.get(id);
+      return room != null ? room : recent.get(id);
+    }
+
+    /**
+     * Gets a room to look at without keeping it: the held one if there is
+     * one, otherwise a fresh copy from the file.
+     */
+    Space peek(int id) {
+      Space room = held(id);
+      return room != null ? room : file.room(id);
+    }
+
+    int size() {
+      return recent.size() + pinned.size();
+    }
+
+    private void pin(Space room) {
+      pinned.put(room.getSpaceId(), room);
+      if (pinned.size() >= sweepAt) {
+        pinned.values().removeIf(r -> !inUse(r));
+        sweepAt = Math.max(MIN_SWEEP, 2 * pinned.size());
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs work over a range of indexes on a fork-join pool. The range is cut into
+ * pieces of a fixed size, so the pieces are the same however many threads take
+ * them, and a body that only writes to its own piece gives the same result as
+ * a plain loop. If pieces fail, the exception of the first failing piece is
+ * thrown once every piece is done, so the error reported does not depend on
+ * which thread got there first.
+ */
+final class ParallelRange {
+
+  /**
+   * Work on one piece of the range.
+   */
+  interface Body {
+    /**
+     * Does the work for indexes from to to - 1.
+     *
+     * @param from the first index
+     * @param to   one past the last index
+     * @throws IOException if the work fails
+     */
+    void run(int from, int to) throws IOException;
+  }
+
+  private ParallelRange() {
+  }
+
+  /**
+   * Runs a body over every piece of a range and waits for all of them.
+   *
+   * @param pool  the pool whose threads do the work, or null to run the whole
+   *              range as one piece on this thread
+   * @param count the size of the range, starting from 0
+   * @param piece the size of every piece but the last
+   * @param body  the work
+   * @throws IOException if a piece throws one
+   */
+  static void forEach(ForkJoinPool pool, int count, int piece, Body body) throws IOException {
+    int pieces = pieces(count, piece);
+    if (pieces == 0) {
+      return;
+    }
+    if (pool == null) {
+      body.run(0, count);
+      return;
+    }
+    Throwable[] failures = new Throwable[pieces];
+    pool.invoke(new Pieces(0, pieces, count, piece, body, failures));
+    for (Throwable failure : failures) {
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pieces a range is cut into.
+   *
+   * @param count the size of the range
+   * @param piece the size of a piece
+   * @return the number of pieces
+   */
+  static int pieces(int count, int piece) {
+    return (int) ((count + (long) piece - 1) / piece);
+  }
+
+  /**
+   * Runs a run of pieces, splitting it in half until it is one piece.
+   */
+  private static final class Pieces extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int first;
+    private final int end;
+    private final int count;
+    private final int piece;
+    private final transient Body body;
+    private final transient Throwable[] failures;
+
+    Pieces(int first, int end, int count, int piece, Body body, Throwable[] failures) {
+      this.first = first;
+      this.end = end;
+      this.count = count;
+      this.piece = piece;
+      this.body = body;
+      this.failures = failures;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - first > 1) {
+        int mid = (first + end) >>> 1;
+        invokeAll(new Pieces(first, mid, count, piece, body, failures),
+            new Pieces(mid, end, count, piece, body, failures));
+        return;
+      }
+      int from = first * piece;
+      try {
+        body.run(from, Math.min(count, from + piece));
+      } catch (IOException | RuntimeException | Error e) {
+        failures[first] = e;
+      }
+    }
+  }
+}
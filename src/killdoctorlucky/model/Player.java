@@ -2,6 +2,7 @@ package killdoctorlucky.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Represents a player in the "Kill Doctor Lucky" game. This class manages
@@ -54,10 +55,11 @@ public class Player implements Iplayer {
   @Override
   public void moveTo(Ispace newSpace) {
     // Only allow a move if the target space is adjacent (in the neighbor list).
-    if (!location.getNeighbors().contains(newSpace.getSpaceName())) {
+    if (!world.areNeighbors(location, newSpace)) {
       throw new IllegalArgumentException("Cannot move to a non-adjacent space!");
     }
     this.location = newSpace;
+    world.playerMoved(this);
   }
 
   @Override
@@ -71,11 +73,11 @@ public class Player implements Iplayer {
       throw new IllegalArgumentException("Item name cannot be empty!");
     }
     // Check if the player's inventory is already full
-    if (inventory.size() >= maxInventory) {
+    if (isInventoryFull()) {
       throw new IllegalArgumentException("Inventory is full. Cannot pick up more items.");
     }
     // Find the item in the current space
-    List<Iitem> spaceItems = ((Space) location).getItemObjects();
+    List<Iitem> spaceItems = Space.itemObjects(location);
     Iitem found = null;
     for (Iitem item : spaceItems) {
       if (item.getItemName().equalsIgnoreCase(itemName)) {
@@ -88,29 +90,38 @@ public class Player implements Iplayer {
     }
     inventory.add(found);
     spaceItems.remove(found);
-    System.out.println("Picked up: " + found.getItemName());
+    world.announce("Picked up: " + found.getItemName());
+  }
+
+  /**
+   * Checks whether the player can carry any more items.
+   *
+   * @return true if the inventory is at capacity
+   */
+  protected boolean isInventoryFull() {
+    return inventory.size() >= maxInventory;
   }
 
   @Override
   public void attackDoctorLucky(String weapon) {
     // Must be in the same space as the target.
     if (!location.getSpaceName().equalsIgnoreCase(world.getTargetLocation().getSpaceName())) {
-      System.out.println("You must be in the same room as the target to attack!");
+      world.announce("You must be in the same room as the target to attack!");
       return;
     }
     // Check if any other player sees the attack.
-    for (Iplayer other : world.getPlayers()) {
-      if (!other.getPlayerName().equalsIgnoreCase(this.name) && world.canPlayerSee(other, this)) {
-        System.out.println("Attack was seen by " + other.getPlayerName() + ". No damage dealt!");
-        return;
-      }
+    Optional<Iplayer> observer = world.findObserver(this);
+    if (observer.isPresent()) {
+      world.announce("Attack was seen by " + observer.get().getPlayerName() + ". No damage dealt!");
+      return;
     }
+    ItargetCharacter target = world.getTargetCharacter();
     // If no weapon is available, perform a default 1-damage attack.
     if (inventory.isEmpty() || "default".equalsIgnoreCase(weapon)) {
-      System.out.println(name + " pokes the target in the eye (1 damage)!");
+      world.announce(name + " pokes the target in the eye (1 damage)!");
       world.setLastAttacker(this.name);
-      TargetCharacter.getInstance().decreaseHealth(1);
-      if (TargetCharacter.getInstance().getTargetHealth() <= 0) {
+      target.decreaseHealth(1);
+      if (target.getTargetHealth() <= 0) {
         world.setWinner(this.name);
       }
       return;
@@ -119,18 +130,17 @@ public class Player implements Iplayer {
     for (Iitem item : inventory) {
       if (item.getItemName().equalsIgnoreCase(weapon)) {
         world.setLastAttacker(this.name);
-        TargetCharacter.getInstance().decreaseHealth(item.getDamage());
-        System.out
-            .println(name + " attacked with " + weapon + " for " + item.getDamage() + " damage!");
+        target.decreaseHealth(item.getDamage());
+        world.announce(name + " attacked with " + weapon + " for " + item.getDamage() + " damage!");
         // Remove the weapon from inventory after use
         removeItem(item.getItemName());
-        if (TargetCharacter.getInstance().getTargetHealth() <= 0) {
+        if (target.getTargetHealth() <= 0) {
           world.setWinner(this.name);
         }
         return;
       }
     }
-    System.out.println("Weapon not found in inventory!");
+    world.announce("Weapon not found in inventory!");
   }
 
   @Override
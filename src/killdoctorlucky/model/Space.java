@@ -16,6 +16,7 @@ public class Space implements Ispace {
   private List<Iitem> items;
   private List<String> neighbors;
   private boolean hasPet; // indicates if the pet is in this space
+  private int spaceId = -1; // index in the owning world, assigned by World
 
   /**
    * Constructs a new Space with specified boundaries and name.
@@ -51,6 +52,7 @@ public class Space implements Ispace {
     this.items = new ArrayList<>(other.items);
     this.neighbors = new ArrayList<>(other.neighbors);
     this.hasPet = other.hasPet;
+    this.spaceId = other.spaceId;
   }
 
   /**
@@ -62,6 +64,40 @@ public class Space implements Ispace {
     return items;
   }
 
+  /**
+   * Returns the internal list of item objects of a room of this package
+   * (package-private).
+   *
+   * @param space a {@link Space} or a room in compact storage
+   * @return the list of Iitem objects in the room
+   * @throws IllegalArgumentException if the room is of another kind
+   */
+  static List<Iitem> itemObjects(Ispace space) {
+    if (space instanceof Space) {
+      return ((Space) space).items;
+    }
+    if (space instanceof CompactSpaces.Room) {
+      return ((CompactSpaces.Room) space).getItemObjects();
+    }
+    throw new IllegalArgumentException("Space " + space.getSpaceName() + " has no item list");
+  }
+
+  /**
+   * Gets the item objects of a room of this package for reading only. Unlike
+   * {@link #itemObjects(Ispace)}, a room in compact storage is not given a
+   * list of its own.
+   *
+   * @param space a {@link Space} or a room in compact storage
+   * @return the Iitem objects in the room; not to be changed
+   * @throws IllegalArgumentException if the room is of another kind
+   */
+  static List<Iitem> readItemObjects(Ispace space) {
+    if (space instanceof CompactSpaces.Room) {
+      return ((CompactSpaces.Room) space).readItemObjects();
+    }
+    return itemObjects(space);
+  }
+
   @Override
   public int getUpperRow() {
     return upperRow;
@@ -82,6 +118,21 @@ public class Space implements Ispace {
     return lowerCol;
   }
 
+  @Override
+  public int getSpaceId() {
+    return spaceId;
+  }
+
+  /**
+   * Assigns this space's id within its world (package-private for internal
+   * use).
+   *
+   * @param spaceId the index of this space in the world's space list
+   */
+  void setSpaceId(int spaceId) {
+    this.spaceId = spaceId;
+  }
+
   @Override
   public String getSpaceName() {
     return name;
@@ -0,0 +1,444 @@
+package killdoctorlucky.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A uniform-grid spatial index over the rectangles of a list of spaces. Each
+ * space is bucketed into every grid cell its bounds cover, so the rooms that
+ * can possibly touch a given room are found by scanning only the few cells
+ * around it instead of every other room in the mansion.
+ */
+final class SpaceGrid {
+  // Rooms per piece when the grid is built or searched on several threads.
+  private static final int PIECE = 8192;
+
+  private final List<Ispace> spaces;
+  private final int minRow;
+  private final int minCol;
+  private final int cellSize;
+  private final int gridRows;
+  private final int gridCols;
+  private final int[] cellStart; // cell c owns cellSpaces[cellStart[c] .. cellStart[c + 1])
+  private final int[] cellSpaces;
+
+  /**
+   * Builds the grid for the given spaces. The cell size follows the average
+   * room extent, and is grown if needed so the grid never has more than about
+   * four cells per room.
+   *
+   * @param spaces the spaces to index, in world order
+   */
+  SpaceGrid(List<Ispace> spaces) {
+    this(spaces, null);
+  }
+
+  /**
+   * Builds the grid for the given spaces, splitting the work across a pool.
+   * The grid is the same as one built on a single thread.
+   *
+   * @param spaces the spaces to index, in world order
+   * @param pool   the pool to build on, or null to build on this thread
+   */
+  SpaceGrid(List<Ispace> spaces, ForkJoinPool pool) {
+    this.spaces = spaces;
+    int n = spaces.size();
+    // Bounds and total extent: loRow, loCol, hiRow, hiCol, extent for each piece.
+    long[][] parts = new long[Math.max(1, ParallelRange.pieces(n, PIECE))][];
+    run(pool, n, (from, to) -> parts[from / PIECE] = measure(from, to));
+    long loRow = Integer.MAX_VALUE;
+    long loCol = Integer.MAX_VALUE;
+    long hiRow = Integer.MIN_VALUE;
+    long hiCol = Integer.MIN_VALUE;
+    long extent = 0;
+    for (long[] part : parts) {
+      if (part != null) {
+        loRow = Math.min(loRow, part[0]);
+        loCol = Math.min(loCol, part[1]);
+        hiRow = Math.max(hiRow, part[2]);
+        hiCol = Math.max(hiCol, part[3]);
+        extent += part[4];
+      }
+    }
+    if (n == 0) {
+      loRow = 0;
+      loCol = 0;
+      hiRow = 0;
+      hiCol = 0;
+    }
+    this.minRow = (int) loRow;
+    this.minCol = (int) loCol;
+
+    long spanRows = hiRow - loRow + 1;
+    long spanCols = hiCol - loCol + 1;
+    long size = Math.max(1, n == 0 ? 1 : extent / n);
+    long maxCells = 4L * Math.max(n, 1);
+    while (((spanRows + size - 1) / size) * ((spanCols + size - 1) / size) > maxCells) {
+      size *= 2;
+    }
+    this.cellSize = (int) Math.min(size, Integer.MAX_VALUE);
+    this.gridRows = (int) ((spanRows + size - 1) / size);
+    this.gridCols = (int) ((spanCols + size - 1) / size);
+
+    // Two passes: count the rooms per cell, then fill the flattened buckets.
+    int cells = gridRows * gridCols;
+    if (pool == null) {
+      int[] counts = new int[cells + 1];
+      for (Ispace s : spaces) {
+        for (int r = cellRow(top(s)); r <= cellRow(bottom(s)); r++) {
+          for (int c = cellCol(left(s)); c <= cellCol(right(s)); c++) {
+            counts[r * gridCols + c + 1]++;
+          }
+        }
+      }
+      for (int c = 1; c < counts.length; c++) {
+        counts[c] += counts[c - 1];
+      }
+      this.cellStart = counts;
+      this.cellSpaces = new int[counts[counts.length - 1]];
+      int[] fill = Arrays.copyOf(counts, counts.length - 1);
+      for (int i = 0; i < n; i++) {
+        Ispace s = spaces.get(i);
+        for (int r = cellRow(top(s)); r <= cellRow(bottom(s)); r++) {
+          for (int c = cellCol(left(s)); c <= cellCol(right(s)); c++) {
+            cellSpaces[fill[r * gridCols + c]++] = i;
+          }
+        }
+      }
+    } else {
+      // Threads claim slots in a bucket in no particular order, so each bucket
+      // is sorted afterwards to put it back in id order.
+      AtomicIntegerArray counts = new AtomicIntegerArray(cells + 1);
+      run(pool, n, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          Ispace s = spaces.get(i);
+          for (int r = cellRow(top(s)); r <= cellRow(bottom(s)); r++) {
+            for (int c = cellCol(left(s)); c <= cellCol(right(s)); c++) {
+              counts.incrementAndGet(r * gridCols + c + 1);
+            }
+          }
+        }
+      });
+      int[] starts = new int[cells + 1];
+      for (int c = 1; c < starts.length; c++) {
+        starts[c] = starts[c - 1] + counts.get(c);
+      }
+      this.cellStart = starts;
+      this.cellSpaces = new int[starts[cells]];
+      AtomicIntegerArray fill = new AtomicIntegerArray(Arrays.copyOf(starts, cells));
+      run(pool, n, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          Ispace s = spaces.get(i);
+          for (int r = cellRow(top(s)); r <= cellRow(bottom(s)); r++) {
+            for (int c = cellCol(left(s)); c <= cellCol(right(s)); c++) {
+              cellSpaces[fill.getAndIncrement(r * gridCols + c)] = i;
+            }
+          }
+        }
+      });
+      run(pool, cells, (from, to) -> {
+        for (int c = from; c < to; c++) {
+          if (starts[c + 1] - starts[c] > 1) {
+            Arrays.sort(cellSpaces, starts[c], starts[c + 1]);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Finds the bounds and the total extent of some of the spaces.
+   */
+  private long[] measure(int from, int to) {
+    long[] part = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE,
+        Integer.MIN_VALUE, 0 };
+    for (int i = from; i < to; i++) {
+      Ispace s = spaces.get(i);
+      part[0] = Math.min(part[0], top(s));
+      part[1] = Math.min(part[1], left(s));
+      part[2] = Math.max(part[2], bottom(s));
+      part[3] = Math.max(part[3], right(s));
+      part[4] += Math.max(bottom(s) - top(s), right(s) - left(s)) + 1;
+    }
+    return part;
+  }
+
+  /**
+   * Runs work over the spaces or cells in pieces on a pool, or all at once on
+   * this thread if there is no pool.
+   */
+  private static void run(ForkJoinPool pool, int count, ParallelRange.Body body) {
+    try {
+      ParallelRange.forEach(pool, count, PIECE, body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // the grid's work never does I/O
+    }
+  }
+
+  /**
+   * Computes the neighbor ids of every space. Each row of the result is sorted
+   * by ascending space id, which is the same order the original pairwise scan
+   * produced.
+   *
+   * @return for each space, the ids of the spaces adjacent to it
+   */
+  int[][] adjacency() {
+    return adjacency(null);
+  }
+
+  /**
+   * Computes the neighbor ids of every space, splitting the spaces across a
+   * pool. The result is the same as {@link #adjacency()}.
+   *
+   * @param pool the pool to search on, or null to search on this thread
+   * @return for each space, the ids of the spaces adjacent to it
+   */
+  int[][] adjacency(ForkJoinPool pool) {
+    int[][] result = new int[spaces.size()][];
+    run(pool, spaces.size(), (from, to) -> findNeighbors(from, to, result));
+    return result;
+  }
+
+  private void findNeighbors(int from, int to, int[][] result) {
+    int[] found = new int[8];
+    for (int i = from; i < to; i++) {
+      Ispace s = spaces.get(i);
+      int count = 0;
+      // Anything adjacent must overlap this room's bounds grown by one cell.
+      int r0 = cellRow(top(s) - 1);
+      int r1 = cellRow(bottom(s) + 1);
+      int c0 = cellCol(left(s) - 1);
+      int c1 = cellCol(right(s) + 1);
+      for (int r = r0; r <= r1; r++) {
+        for (int c = c0; c <= c1; c++) {
+          int cell = r * gridCols + c;
+          for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+            int j = cellSpaces[k];
+            Ispace other = spaces.get(j);
+            // A room covering several cells is met once per cell; only look at
+            // it in the first cell of this window it covers.
+            if (j == i || r != Math.max(r0, cellRow(top(other)))
+                || c != Math.max(c0, cellCol(left(other)))) {
+              continue;
+            }
+            if (areAdjacent(s, other)) {
+              if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+              }
+              found[count++] = j;
+            }
+          }
+        }
+      }
+      int[] row = Arrays.copyOf(found, count);
+      Arrays.sort(row);
+      result[i] = row;
+    }
+  }
+
+  /**
+   * Finds the spaces whose bounds intersect a rectangle of grid cells.
+   *
+   * @param top    the first row of the rectangle
+   * @param left   the first column of the rectangle
+   * @param bottom the last row of the rectangle
+   * @param right  the last column of the rectangle
+   * @return the ids of the spaces, ascending
+   */
+  int[] query(int top, int left, int bottom, int right) {
+    if (spaces.isEmpty() || bottom < top || right < left) {
+      return new int[0];
+    }
+    int[] found = new int[16];
+    int count = 0;
+    int r1 = cellRow(bottom);
+    int c1 = cellCol(right);
+    for (int r = cellRow(top); r <= r1; r++) {
+      for (int c = cellCol(left); c <= c1; c++) {
+        int cell = r * gridCols + c;
+        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+          int id = cellSpaces[k];
+          Ispace s = spaces.get(id);
+          if (top(s) <= bottom && bottom(s) >= top && left(s) <= right && right(s) >= left) {
+            if (count == found.length) {
+              found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = id;
+          }
+        }
+      }
+    }
+    // A space that covers several cells was found once per cell.
+    Arrays.sort(found, 0, count);
+    int unique = 0;
+    for (int i = 0; i < count; i++) {
+      if (unique == 0 || found[unique - 1] != found[i]) {
+        found[unique++] = found[i];
+      }
+    }
+    return Arrays.copyOf(found, unique);
+  }
+
+  /**
+   * Finds the first space drawn over a grid cell. A space is drawn from its
+   * upper corner up to, but not including, its lower corner, so rooms written
+   * with their corners swapped or with no width cover nothing. Only the one
+   * grid cell under the point is scanned, and nothing is allocated.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the lowest id of a space covering the cell, or -1 if there is none
+   */
+  int spaceAt(int row, int col) {
+    if (spaces.isEmpty()) {
+      return -1;
+    }
+    // Buckets were filled in id order, so the first hit is the lowest id.
+    int cell = cellRow(row) * gridCols + cellCol(col);
+    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+      Ispace s = spaces.get(cellSpaces[k]);
+      if (s.getUpperRow() <= row && row < s.getLowerRow() && s.getUpperColumn() <= col
+          && col < s.getLowerColumn()) {
+        return cellSpaces[k];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Computes the same neighbor ids as {@link #adjacency()} by testing every
+   * pair of spaces. Kept as the reference the grid is checked against.
+   *
+   * @param spaces the spaces to compare, in world order
+   * @return for each space, the ids of the spaces adjacent to it
+   */
+  static int[][] pairwiseAdjacency(List<Ispace> spaces) {
+    int n = spaces.size();
+    int[][] found = new int[n][4];
+    int[] counts = new int[n];
+    for (int i = 0; i < n; i++) {
+      Ispace s1 = spaces.get(i);
+      for (int j = i + 1; j < n; j++) {
+        if (areAdjacent(s1, spaces.get(j))) {
+          found[i] = append(found[i], counts[i]++, j);
+          found[j] = append(found[j], counts[j]++, i);
+        }
+      }
+    }
+    int[][] result = new int[n][];
+    for (int i = 0; i < n; i++) {
+      result[i] = Arrays.copyOf(found[i], counts[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Two spaces are adjacent when an edge of one lies within one cell of the
+   * facing edge of the other and the spaces overlap along that edge.
+   *
+   * @param s1 the first space
+   * @param s2 the second space
+   * @return true if the spaces are neighbors
+   */
+  static boolean areAdjacent(Ispace s1, Ispace s2) {
+    boolean horizontallyAdjacent = (Math.abs(s1.getLowerRow() - s2.getUpperRow()) <= 1
+        || Math.abs(s2.getLowerRow() - s1.getUpperRow()) <= 1)
+        && overlap(s1.getUpperColumn(), s1.getLowerColumn(), s2.getUpperColumn(),
+            s2.getLowerColumn());
+    boolean verticallyAdjacent = (Math.abs(s1.getLowerColumn() - s2.getUpperColumn()) <= 1
+        || Math.abs(s2.getLowerColumn() - s1.getUpperColumn()) <= 1)
+        && overlap(s1.getUpperRow(), s1.getLowerRow(), s2.getUpperRow(), s2.getLowerRow());
+    return horizontallyAdjacent || verticallyAdjacent;
+  }
+
+  private static boolean overlap(int start1, int end1, int start2, int end2) {
+    return !(end1 < start2 || end2 < start1);
+  }
+
+  private static int[] append(int[] row, int at, int value) {
+    if (at == row.length) {
+      row = Arrays.copyOf(row, at * 2);
+    }
+    row[at] = value;
+    return row;
+  }
+
+  int getMinRow() {
+    return minRow;
+  }
+
+  int getMinColumn() {
+    return minCol;
+  }
+
+  int getCellSize() {
+    return cellSize;
+  }
+
+  int getGridRows() {
+    return gridRows;
+  }
+
+  int getGridColumns() {
+    return gridCols;
+  }
+
+  /**
+   * Gets the flattened buckets: cell c, counted row by row, holds the ids
+   * cellSpaces[cellStart[c] .. cellStart[c + 1]), ascending.
+   *
+   * @return the bucket offsets, one per cell plus one
+   */
+  int[] getCellStart() {
+    return cellStart;
+  }
+
+  int[] getCellSpaces() {
+    return cellSpaces;
+  }
+
+  private int cellRow(int row) {
+    return cellOf(row, minRow, cellSize, gridRows);
+  }
+
+  private int cellCol(int col) {
+    return cellOf(col, minCol, cellSize, gridCols);
+  }
+
+  /**
+   * Finds the row or column of cells a grid line falls in, clamped to the
+   * grid so that lines outside it land in the nearest edge cell.
+   *
+   * @param value    the row or column of the grid line
+   * @param min      the first line the grid covers
+   * @param cellSize the lines per cell
+   * @param cells    the cells across the grid
+   * @return the cell's row or column
+   */
+  static int cellOf(int value, int min, int cellSize, int cells) {
+    int cell = (int) (((long) value - min) / cellSize);
+    return cell < 0 ? 0 : Math.min(cell, cells - 1);
+  }
+
+  // Bounds are normalized so that rooms written with their corners swapped are
+  // still bucketed under every cell they touch.
+  private static int top(Ispace s) {
+    return Math.min(s.getUpperRow(), s.getLowerRow());
+  }
+
+  private static int bottom(Ispace s) {
+    return Math.max(s.getUpperRow(), s.getLowerRow());
+  }
+
+  private static int left(Ispace s) {
+    return Math.min(s.getUpperColumn(), s.getLowerColumn());
+  }
+
+  private static int right(Ispace s) {
+    return Math.max(s.getUpperColumn(), s.getLowerColumn());
+  }
+}
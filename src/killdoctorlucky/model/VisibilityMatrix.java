@@ -0,0 +1,76 @@
+package killdoctorlucky.model;
+
+/**
+ * Which spaces can be seen from which, as one bitset per space stored row by
+ * row in a single long array. A player can see into its own space and into
+ * every space on its space's neighbor list, and nothing else.
+ */
+final class VisibilityMatrix {
+  /** Largest world that gets a matrix (8 MB of bits). */
+  static final int LIMIT = 8192;
+
+  private final int words; // longs per row
+  private final long[] seenFrom; // row "to" has bit "from" set when from can see into to
+
+  /**
+   * Builds the matrix for a neighbor graph.
+   *
+   * @param offsets CSR offsets: the neighbors of i are targets[offsets[i] ..
+   *                offsets[i + 1])
+   * @param targets CSR neighbor ids
+   */
+  VisibilityMatrix(int[] offsets, int[] targets) {
+    int n = offsets.length - 1;
+    if (n > LIMIT) {
+      throw new IllegalArgumentException("Too many spaces for a visibility matrix: " + n);
+    }
+    this.words = Math.max(1, (n + 63) >>> 6);
+    this.seenFrom = new long[n * words];
+    for (int from = 0; from < n; from++) {
+      set(from, from);
+      for (int k = offsets[from]; k < offsets[from + 1]; k++) {
+        set(from, targets[k]);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a player in one space can see into another.
+   *
+   * @param from the id of the observer's space
+   * @param to   the id of the space being watched
+   * @return true if to is from itself or one of its neighbors
+   */
+  boolean canSee(int from, int to) {
+    return (seenFrom[to * words + (from >>> 6)] & (1L << from)) != 0;
+  }
+
+  /**
+   * Finds the next space, in id order, from which a space can be seen.
+   * Starting from 0 and passing the last result plus one walks all of them.
+   *
+   * @param to   the id of the space being watched
+   * @param from the lowest space id to consider
+   * @return the id of the next space that can see into to, or -1 if there are
+   *         no more
+   */
+  int nextObserver(int to, int from) {
+    int row = to * words;
+    int w = from >>> 6;
+    if (w >= words) {
+      return -1;
+    }
+    long word = seenFrom[row + w] & (-1L << from);
+    while (word == 0) {
+      if (++w == words) {
+        return -1;
+      }
+      word = seenFrom[row + w];
+    }
+    return (w << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  private void set(int from, int to) {
+    seenFrom[to * words + (from >>> 6)] |= 1L << from;
+  }
+}
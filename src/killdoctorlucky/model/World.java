@@ -4,20 +4,38 @@ import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Scanner;
-import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Contains the entire implementation of the game.
  */
 public class World implements Iworld {
+  private static final int MAP_SCALE = 20; // pixels per grid cell
+  private static final int MAP_MARGIN = 50; // extra room on the right for long labels
+  private static final Color ROOM_FILL = new Color(230, 230, 230);
+  // Text files at least this large are loaded on the common pool by default.
+  private static final long PARALLEL_LOAD_BYTES = 4L << 20;
+  // Compiled files larger than the heap divided by this are played paged: a
+  // room made into objects takes several times its bytes in the file.
+  private static final int PAGED_HEAP_SHARE = 8;
+  // Worlds opened with at least this many rooms keep them in compact storage.
+  static final int COMPACT_ROOMS = 100_000;
+  private static final int PIECE = 4096; // lines or spaces per piece of a parallel load
+
   protected int rows;
   protected int cols;
   protected ItargetCharacter targetCharacter;
@@ -30,26 +48,201 @@ public class World implements Iworld {
 
   // Private fields
   private List<Iitem> items;
-  private String winnerName = null;
-  private String lastAttacker = null;
+  // Adjacency in compressed sparse row form: the neighbors of space i are
+  // neighborTargets[neighborOffsets[i] .. neighborOffsets[i + 1]).
+  private int[] neighborOffsets = new int[1];
+  private int[] neighborTargets = new int[0];
+  // Case-folded and exact space names -> space id, for constant-time lookups.
+  // Null for a compiled world, which looks names up in its file, and for
+  // compact rooms, which have a name table of their own.
+  private Map<String, Integer> spaceIdsByName = new HashMap<>();
+  private DistanceOracle distances; // built on first use
+  private VisibilityMatrix visibility; // null above VisibilityMatrix.LIMIT spaces
+  private boolean uniqueNames; // no two spaces share a name, ignoring case
+  private BufferedImage mapImage; // built on first use, dropped when spaces are re-indexed
+  private SpaceGrid grid; // where the spaces are; built on first use after re-indexing
+  private OccupancyIndex occupancy; // built on first use, rebuilt when the roster changes
+  private List<Iplayer> occupancyRoster;
+  private int occupancyVersion;
+  private final GameRecord record = new GameRecord(); // winner, last attacker, quiet
+  private int targetHealth; // the target's starting health, for fresh copies
+  private CompiledWorld compiled; // the compiled file the spaces come from, if any
+  private CompactSpaces compact; // the spaces, when they are in compact storage
 
   /**
-   * Constructs a new World object using the given file path.
+   * Constructs a new World object using the given file path. The file is either
+   * a text mansion file or one written by {@link #writeCompiled(String)}. Large
+   * text files are loaded on the common fork-join pool when there is more than
+   * one processor.
    *
    * @param filePath the path to the mansion data file.
    * @throws IOException if the file cannot be read.
    */
   public World(String filePath) throws IOException {
+    this(filePath, defaultLoadPool(filePath));
+  }
+
+  /**
+   * Constructs a new World object from the given file, loading a text file on
+   * the given pool. The file is read into memory whole, its rooms and items are
+   * parsed in pieces, and the neighbors and name index are built in pieces; the
+   * world is the same, space for space, as one loaded on a single thread, and a
+   * bad file is reported with the same message.
+   *
+   * @param filePath the path to the mansion data file
+   * @param pool     the pool to load on, or null to load on this thread
+   * @throws IOException if the file cannot be read
+   */
+  public World(String filePath, ForkJoinPool pool) throws IOException {
     this.spaces = new ArrayList<>();
     this.items = new ArrayList<>();
-    this.players = new ArrayList<>();
-    loadWorld(filePath);
+    this.players = new Roster();
+    if (CompiledWorld.isCompiled(filePath)) {
+      loadCompiled(filePath);
+    } else {
+      loadWorld(filePath, pool);
+    }
+  }
+
+  /**
+   * Opens a world file for play, choosing how to hold it. A compiled file (see
+   * {@link #writeCompiled(String)}) too large for its rooms to fit comfortably
+   * on this heap is played straight from the file by a {@link PagedWorld};
+   * any other file is loaded into a World, whose rooms are moved into compact
+   * storage (see {@link #compactSpaces()}) if there are at least
+   * {@value #COMPACT_ROOMS} of them.
+   *
+   * @param filePath the path to the mansion data file
+   * @return the world
+   * @throws IOException if the file cannot be read
+   */
+  public static Iworld open(String filePath) throws IOException {
+    return open(filePath, Runtime.getRuntime().maxMemory());
+  }
+
+  static Iworld open(String filePath, long heapBytes) throws IOException {
+    if (CompiledWorld.isCompiled(filePath)
+        && new File(filePath).length() > heapBytes / PAGED_HEAP_SHARE) {
+      return new PagedWorld(filePath);
+    }
+    World world = new World(filePath);
+    if (world.getSpaceCount() >= COMPACT_ROOMS) {
+      world.compactSpaces();
+    }
+    return world;
+  }
+
+  private static ForkJoinPool defaultLoadPool(String filePath) {
+    long length = new File(filePath).length();
+    return Runtime.getRuntime().availableProcessors() > 1 && length >= PARALLEL_LOAD_BYTES
+        && length <= WorldFileReader.MAX_IN_MEMORY ? ForkJoinPool.commonPool() : null;
+  }
+
+  /**
+   * Creates a fresh game on the same mansion as the template: the rooms and
+   * their items are copied, the target and pet start over in the first space,
+   * and there are no players yet. The room graph, name index and pet path are
+   * shared with the template, and so are its distance tables if it has built
+   * them (see {@link #buildDistances()}), so this is much cheaper than loading
+   * the file again. The template should be a world that has not been played.
+   *
+   * @param template the loaded world to copy
+   */
+  public World(World template) {
+    this.rows = template.rows;
+    this.cols = template.cols;
+    if (template.compiled != null) {
+      // Fresh rooms straight from the file, made as the game reaches them.
+      this.spaces = template.compiled.spaces();
+    } else if (template.compact != null) {
+      this.compact = template.compact.fresh();
+      this.spaces = compact;
+    } else {
+      this.spaces = new ArrayList<>(template.spaces.size());
+      for (Ispace space : template.spaces) {
+        this.spaces.add(new Space((Space) space));
+      }
+    }
+    this.compiled = template.compiled;
+    this.items = template.items;
+    this.players = new Roster();
+    this.neighborOffsets = template.neighborOffsets;
+    this.neighborTargets = template.neighborTargets;
+    this.spaceIdsByName = template.spaceIdsByName;
+    this.distances = template.distances; // null unless built: the copy then builds its own
+    this.visibility = template.visibility;
+    this.mapImage = template.mapImage;
+    this.grid = template.grid;
+    this.uniqueNames = template.uniqueNames;
+
+    this.targetCharacter =
+        new TargetCharacter(template.targetCharacter.getTargetName(), template.targetHealth);
+    this.targetHealth = template.targetHealth;
+    setQuiet(template.record.isQuiet());
+
+    this.petPath = new PetPath(template.petPathIds());
+    this.petIndex = 0;
+    this.targetLocationIndex = 0;
+    this.pet = new Pet(template.pet.getName(), null);
+    if (!spaces.isEmpty()) {
+      Ispace targetSpace = spaces.get(0);
+      pet.moveTo(targetSpace);
+      targetSpace.setHasPet(true);
+    }
+  }
+
+  /**
+   * Opens a compiled world. Only the header is read and the adjacency and pet
+   * path copied out; rooms and their items are made when they are first
+   * needed, and names are looked up in the file.
+   */
+  private void loadCompiled(String filePath) throws IOException {
+    CompiledWorld file = CompiledWorld.open(filePath);
+    rows = file.getRows();
+    cols = file.getColumns();
+    targetHealth = file.getTargetHealth();
+    targetCharacter = new TargetCharacter(file.getTargetName(), targetHealth);
+    pet = new Pet(file.getPetName(), null);
+    compiled = file;
+    spaces = file.spaces();
+    items = file.items();
+    neighborOffsets = file.neighborOffsets();
+    neighborTargets = file.neighborTargets();
+    spaceIdsByName = null;
+    uniqueNames = file.hasUniqueNames();
+    visibility = spaces.size() <= VisibilityMatrix.LIMIT
+        ? new VisibilityMatrix(neighborOffsets, neighborTargets) : null;
+    petPath = new PetPath(file.petPath());
+    petIndex = 0;
+
+    targetLocationIndex = 0;
+    Ispace targetSpace = spaces.get(targetLocationIndex);
+    pet.moveTo(targetSpace);
+    targetSpace.setHasPet(true);
+  }
+
+  /**
+   * Writes this world to a binary file that {@link #World(String)} opens much
+   * faster than the text file: rooms, names, items, the neighbor lists and the
+   * pet path are stored as they are after loading. The world should not have
+   * been played, since the rooms' items are written as they are now.
+   *
+   * @param filePath where to write the compiled world
+   * @throws IOException if the file cannot be written
+   */
+  public void writeCompiled(String filePath) throws IOException {
+    if (!indexIsCurrent()) {
+      indexSpaces(); // a subclass replaced or rewired the spaces
+      petPath = computePetPath();
+    }
+    CompiledWorld.write(this, filePath);
   }
 
-  private void loadWorld(String filePath) throws IOException {
-    try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+  private void loadWorld(String filePath, ForkJoinPool pool) throws IOException {
+    try (WorldFileReader in = pool == null ? new WorldFileReader(filePath)
+        : WorldFileReader.readWhole(filePath)) {
       // Parse world details.
-      String line = br.readLine();
+      String line = in.readLine();
       if (line == null || line.trim().isEmpty()) {
         throw new IOException("World details line is missing or empty in " + filePath);
       }
@@ -63,7 +256,7 @@ public class World implements Iworld {
       // The third token is the mansion name (unused)
 
       // Read target character details.
-      line = br.readLine();
+      line = in.readLine();
       if (line == null || line.trim().isEmpty()) {
         throw new IOException("Target character details missing in " + filePath);
       }
@@ -73,11 +266,11 @@ public class World implements Iworld {
       }
       int health = Integer.parseInt(targetDetails[0]);
       String targetName = targetDetails[1];
-      TargetCharacter.setInstance(targetName, health);
-      this.targetCharacter = TargetCharacter.getInstance();
+      this.targetCharacter = new TargetCharacter(targetName, health);
+      this.targetHealth = health;
 
       // Read the pet's name (third line).
-      line = br.readLine();
+      line = in.readLine();
       if (line == null || line.trim().isEmpty()) {
         throw new IOException("Target character pet details missing in " + filePath);
       }
@@ -85,66 +278,35 @@ public class World implements Iworld {
       this.pet = new Pet(petName, null);
 
       // Read number of spaces.
-      line = br.readLine();
+      line = in.readLine();
       if (line == null || line.trim().isEmpty()) {
         throw new IOException("Missing space count in " + filePath);
       }
       int numSpaces = Integer.parseInt(line.trim());
 
-      // Read each space.
-      for (int i = 0; i < numSpaces; i++) {
-        line = br.readLine();
-        if (line == null || line.trim().isEmpty()) {
-          throw new IOException("Missing space details for space " + i);
-        }
-        Scanner lineScanner = new Scanner(line);
-        try {
-          int x1 = lineScanner.nextInt();
-          int y1 = lineScanner.nextInt();
-          int x2 = lineScanner.nextInt();
-          int y2 = lineScanner.nextInt();
-          String spaceName = "";
-          while (lineScanner.hasNext()) {
-            spaceName += lineScanner.next() + " ";
-          }
-          spaceName = spaceName.trim();
-          spaces.add(new Space(x1, y1, x2, y2, spaceName));
-        } catch (NumberFormatException | NoSuchElementException e) {
-          throw new IOException("Error parsing space details at line " + (i + 4), e);
-        } finally {
-          lineScanner.close();
-        }
-      }
+      // Read each space. Plain lines are picked apart in place; anything else
+      // goes through a Scanner, which also reports malformed lines.
+      Space[] loadedSpaces = new Space[Math.max(numSpaces, 0)];
+      readLines(in, pool, loadedSpaces, (lines, i) -> {
+        Space space = lines.isPlain() ? readSpace(lines) : null;
+        return space != null ? space : scanSpace(lines.line(), i + 4);
+      }, "Missing space details for space ");
+      spaces.addAll(Arrays.asList(loadedSpaces));
 
       // Read number of items.
-      line = br.readLine();
+      line = in.readLine();
       if (line == null || line.trim().isEmpty()) {
         throw new IOException("Missing item count in " + filePath);
       }
       int numItems = Integer.parseInt(line.trim());
 
       // Read each item.
-      for (int i = 0; i < numItems; i++) {
-        line = br.readLine();
-        if (line == null || line.trim().isEmpty()) {
-          throw new IOException("Missing item details for item " + i);
-        }
-        Scanner lineScanner = new Scanner(line);
-        try {
-          int spaceIndex = lineScanner.nextInt();
-          int damage = lineScanner.nextInt();
-          String itemName = "";
-          while (lineScanner.hasNext()) {
-            itemName += lineScanner.next() + " ";
-          }
-          itemName = itemName.trim();
-          items.add(new Item(spaceIndex, damage, itemName));
-        } catch (NumberFormatException | NoSuchElementException e) {
-          throw new IOException("Error parsing item details at line " + (i + numSpaces + 4), e);
-        } finally {
-          lineScanner.close();
-        }
-      }
+      Item[] loadedItems = new Item[Math.max(numItems, 0)];
+      readLines(in, pool, loadedItems, (lines, i) -> {
+        Item item = lines.isPlain() ? readItem(lines) : null;
+        return item != null ? item : scanItem(lines.line(), i + numSpaces + 4);
+      }, "Missing item details for item ");
+      items.addAll(Arrays.asList(loadedItems));
 
       // Assign items to spaces.
       for (Iitem item : items) {
@@ -152,11 +314,19 @@ public class World implements Iworld {
         if (spaceIndex >= 0 && spaceIndex < spaces.size()) {
           ((Space) spaces.get(spaceIndex)).addItem(item);
         } else {
-          System.out.println(
+          announce(
               "Warning: item " + item.getItemName() + " has an invalid space index: " + spaceIndex);
         }
       }
-      establishNeighbors();
+      SpaceGrid layout = new SpaceGrid(spaces, pool);
+      int[][] adjacency = layout.adjacency(pool);
+      establishNeighbors(adjacency, pool);
+      if (pool == null) {
+        indexSpaces();
+      } else {
+        indexSpaces(adjacency, pool);
+      }
+      grid = layout;
 
       // Compute the DFS path for the wandering pet.
       petPath = computePetPath();
@@ -172,32 +342,498 @@ public class World implements Iworld {
     }
   }
 
-  private void establishNeighbors() {
+  /**
+   * Parses the current line of a reader.
+   */
+  private interface LineParser<T> {
+    T parse(WorldFileReader in, int index) throws IOException;
+  }
+
+  /**
+   * Reads one line per element of an array. With a pool, the lines are found
+   * on this thread and then parsed in pieces on the pool, each piece with its
+   * own reader over the file's bytes. A bad line is reported as it is when the
+   * lines are read in order: the first line that cannot be parsed, or else the
+   * first one that is missing.
+   *
+   * @param in      the reader, before the first line
+   * @param pool    the pool to parse on, or null to parse on this thread
+   * @param into    where to put what each line holds
+   * @param parser  parses one line
+   * @param missing the message for a missing line, less the line's index
+   * @throws IOException if a line is missing or cannot be parsed
+   */
+  private static <T> void readLines(WorldFileReader in, ForkJoinPool pool, T[] into,
+      LineParser<T> parser, String missing) throws IOException {
+    if (pool == null) {
+      for (int i = 0; i < into.length; i++) {
+        if (!in.nextLine() || in.isBlank()) {
+          throw new IOException(missing + i);
+        }
+        into[i] = parser.parse(in, i);
+      }
+      return;
+    }
+    int[] starts = new int[ParallelRange.pieces(into.length, PIECE)];
+    int available = 0;
+    while (available < into.length) {
+      if (available % PIECE == 0) {
+        starts[available / PIECE] = in.position();
+      }
+      if (!in.nextLine() || in.isBlank()) {
+        break;
+      }
+      available++;
+    }
+    byte[] bytes = in.bytes();
+    int end = in.position();
+    ParallelRange.forEach(pool, available, PIECE, (from, to) -> {
+      WorldFileReader piece = new WorldFileReader(bytes, starts[from / PIECE], end);
+      for (int i = from; i < to; i++) {
+        piece.nextLine();
+        into[i] = parser.parse(piece, i);
+      }
+    });
+    if (available < into.length) {
+      throw new IOException(missing + available);
+    }
+  }
+
+  /**
+   * Reads a plain space line in place.
+   *
+   * @param in the reader, on the line
+   * @return the space, or null if the line does not start with four numbers
+   */
+  private static Space readSpace(WorldFileReader in) {
+    if (!in.nextInt()) {
+      return null;
+    }
+    int x1 = in.intValue();
+    if (!in.nextInt()) {
+      return null;
+    }
+    int y1 = in.intValue();
+    if (!in.nextInt()) {
+      return null;
+    }
+    int x2 = in.intValue();
+    if (!in.nextInt()) {
+      return null;
+    }
+    return new Space(x1, y1, x2, in.intValue(), in.rest());
+  }
+
+  /**
+   * Reads a plain item line in place.
+   *
+   * @param in the reader, on the line
+   * @return the item, or null if the line does not start with two numbers
+   */
+  private static Item readItem(WorldFileReader in) {
+    if (!in.nextInt()) {
+      return null;
+    }
+    int spaceIndex = in.intValue();
+    if (!in.nextInt()) {
+      return null;
+    }
+    return new Item(spaceIndex, in.intValue(), in.rest());
+  }
+
+  /**
+   * Reads a space line that is not plain ASCII, or is malformed, with a Scanner.
+   *
+   * @param line   the line
+   * @param lineNo the line number to report if it cannot be read
+   * @return the space
+   * @throws IOException if the line does not hold four numbers
+   */
+  private static Space scanSpace(String line, int lineNo) throws IOException {
+    try (Scanner lineScanner = new Scanner(line)) {
+      int x1 = lineScanner.nextInt();
+      int y1 = lineScanner.nextInt();
+      int x2 = lineScanner.nextInt();
+      int y2 = lineScanner.nextInt();
+      return new Space(x1, y1, x2, y2, scanName(lineScanner));
+    } catch (NumberFormatException | NoSuchElementException e) {
+      throw new IOException("Error parsing space details at line " + lineNo, e);
+    }
+  }
+
+  /**
+   * Reads an item line that is not plain ASCII, or is malformed, with a Scanner.
+   *
+   * @param line   the line
+   * @param lineNo the line number to report if it cannot be read
+   * @return the item
+   * @throws IOException if the line does not hold two numbers
+   */
+  private static Item scanItem(String line, int lineNo) throws IOException {
+    try (Scanner lineScanner = new Scanner(line)) {
+      int spaceIndex = lineScanner.nextInt();
+      int damage = lineScanner.nextInt();
+      return new Item(spaceIndex, damage, scanName(lineScanner));
+    } catch (NumberFormatException | NoSuchElementException e) {
+      throw new IOException("Error parsing item details at line " + lineNo, e);
+    }
+  }
+
+  private static String scanName(Scanner lineScanner) {
+    StringJoiner name = new StringJoiner(" ");
+    while (lineScanner.hasNext()) {
+      name.add(lineScanner.next());
+    }
+    return name.toString().trim();
+  }
+
+  /**
+   * Links every pair of adjacent spaces. Candidate pairs come from a uniform
+   * grid over the room bounds, so only rooms that are close to each other are
+   * compared. Each neighbor list ends up in ascending space order.
+   *
+   * @param adjacency the neighbor ids of every space, from the grid
+   * @param pool      the pool to link on, or null to link on this thread
+   */
+  private void establishNeighbors(int[][] adjacency, ForkJoinPool pool) throws IOException {
+    ParallelRange.forEach(pool, adjacency.length, PIECE, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        Space space = (Space) spaces.get(i);
+        for (int j : adjacency[i]) {
+          space.addNeighbor(spaces.get(j).getSpaceName());
+        }
+      }
+    });
+  }
+
+  /**
+   * Gives every space its id (its position in {@code spaces}) and rebuilds the
+   * compressed adjacency from the spaces' neighbor names. Subclasses that
+   * replace or rewire {@code spaces} call this to bring the index back in sync.
+   */
+  protected void indexSpaces() {
+    Map<String, Integer> ids = new HashMap<>(spaces.size() * 2);
+    boolean unique = true;
     for (int i = 0; i < spaces.size(); i++) {
-      Space s1 = (Space) spaces.get(i);
-      for (int j = i + 1; j < spaces.size(); j++) {
-        Space s2 = (Space) spaces.get(j);
-        if (areAdjacent(s1, s2)) {
-          s1.addNeighbor(s2.getSpaceName());
-          s2.addNeighbor(s1.getSpaceName());
+      Ispace space = spaces.get(i);
+      if (space instanceof Space) {
+        ((Space) space).setSpaceId(i);
+      }
+      // The first space wins on duplicate names, as with the old linear scan.
+      unique &= ids.putIfAbsent(foldCase(space.getSpaceName()), i) == null;
+    }
+    // Names are usually passed back exactly as spelled, so also key each exact
+    // spelling to the same id and skip folding on the common path.
+    for (Ispace space : spaces) {
+      ids.putIfAbsent(space.getSpaceName(), ids.get(foldCase(space.getSpaceName())));
+    }
+    int[] offsets = new int[spaces.size() + 1];
+    for (int i = 0; i < spaces.size(); i++) {
+      offsets[i + 1] = offsets[i] + spaces.get(i).getNeighbors().size();
+    }
+    int[] targets = new int[offsets[spaces.size()]];
+    int edges = 0;
+    for (int i = 0; i < spaces.size(); i++) {
+      offsets[i] = edges;
+      for (String neighborName : spaces.get(i).getNeighbors()) {
+        Integer id = ids.get(foldCase(neighborName));
+        if (id != null) {
+          targets[edges++] = id;
         }
       }
     }
+    offsets[spaces.size()] = edges;
+    useIndex(offsets, edges == targets.length ? targets : Arrays.copyOf(targets, edges), ids,
+        unique);
   }
 
-  private boolean areAdjacent(Space s1, Space s2) {
-    boolean horizontallyAdjacent = (Math.abs(s1.getLowerRow() - s2.getUpperRow()) <= 1
-        || Math.abs(s2.getLowerRow() - s1.getUpperRow()) <= 1)
-        && overlap(s1.getUpperColumn(), s1.getLowerColumn(), s2.getUpperColumn(),
-            s2.getLowerColumn());
-    boolean verticallyAdjacent = (Math.abs(s1.getLowerColumn() - s2.getUpperColumn()) <= 1
-        || Math.abs(s2.getLowerColumn() - s1.getUpperColumn()) <= 1)
-        && overlap(s1.getUpperRow(), s1.getLowerRow(), s2.getUpperRow(), s2.getLowerRow());
-    return horizontallyAdjacent || verticallyAdjacent;
+  /**
+   * Indexes freshly loaded spaces on a pool. The neighbors of each space are
+   * the spaces in its row of the adjacency, so their ids are known without
+   * looking their names up. The index is the one {@link #indexSpaces()} builds.
+   */
+  private void indexSpaces(int[][] adjacency, ForkJoinPool pool) throws IOException {
+    int n = spaces.size();
+    Map<String, Integer> ids = new ConcurrentHashMap<>(n * 2);
+    String[] folded = new String[n];
+    ParallelRange.forEach(pool, n, PIECE, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        ((Space) spaces.get(i)).setSpaceId(i);
+        folded[i] = foldCase(spaces.get(i).getSpaceName());
+        // The first space wins on duplicate names, whichever thread gets there first.
+        ids.merge(folded[i], i, Math::min);
+      }
+    });
+    int[] first = new int[n];
+    int[] offsets = new int[n + 1];
+    ParallelRange.forEach(pool, n, PIECE, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        first[i] = ids.get(folded[i]);
+        // Every space with this spelling has the same first space, so it does
+        // not matter which one adds it.
+        ids.putIfAbsent(spaces.get(i).getSpaceName(), first[i]);
+        offsets[i + 1] = adjacency[i].length;
+      }
+    });
+    boolean unique = true;
+    for (int i = 0; i < n; i++) {
+      unique &= first[i] == i;
+      offsets[i + 1] += offsets[i];
+    }
+    int[] targets = new int[offsets[n]];
+    ParallelRange.forEach(pool, n, PIECE, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        for (int k = 0; k < adjacency[i].length; k++) {
+          targets[offsets[i] + k] = first[adjacency[i][k]];
+        }
+      }
+    });
+    useIndex(offsets, targets, ids, unique);
   }
 
-  private boolean overlap(int start1, int end1, int start2, int end2) {
-    return !(end1 < start2 || end2 < start1);
+  /**
+   * Starts using a new index, dropping everything built from the old one.
+   */
+  private void useIndex(int[] offsets, int[] targets, Map<String, Integer> ids,
+      boolean unique) {
+    this.neighborOffsets = offsets;
+    this.neighborTargets = targets;
+    this.spaceIdsByName = ids;
+    this.uniqueNames = unique;
+    this.distances = null;
+    this.visibility = spaces.size() <= VisibilityMatrix.LIMIT
+        ? new VisibilityMatrix(neighborOffsets, neighborTargets) : null;
+    this.occupancy = null;
+    this.mapImage = null;
+    this.grid = null;
+    this.compiled = null;
+    this.compact = null;
+  }
+
+  /**
+   * Moves the rooms into compact storage. Their bounds go into parallel int
+   * arrays, their names into a table of distinct strings, their items and
+   * neighbor names into flat arrays of indexes, and the name index into an
+   * int hash table; a room is then a small view over those arrays, made the
+   * first time the game asks for it. On a large mansion this takes a fraction
+   * of the heap of one {@link Space} object, two lists and two map entries per
+   * room. Fresh copies made with {@link #World(World)} share the arrays.
+   *
+   * <p>Call this after loading and before adding players. Rooms held from
+   * before are no longer the world's rooms. A compiled world already makes
+   * its rooms on demand and is left as it is. {@link #open(String)} calls
+   * this for large worlds.
+   *
+   * @throws IllegalStateException if players have been added
+   */
+  public void compactSpaces() {
+    if (!players.isEmpty()) {
+      throw new IllegalStateException("Rooms can only be compacted before players are added.");
+    }
+    if (compiled != null || spaces == compact) {
+      return;
+    }
+    if (!indexIsCurrent()) {
+      indexSpaces(); // a subclass replaced or rewired the spaces
+      petPath = computePetPath();
+    }
+    petPath = new PetPath(petPathIds()); // follows the spaces into compact storage
+    Ispace petSpace = pet == null ? null : pet.getCurrentSpace();
+    CompactSpaces rooms = new CompactSpaces(spaces, neighborOffsets, neighborTargets);
+    this.spaces = rooms;
+    this.compact = rooms;
+    this.spaceIdsByName = null;
+    this.grid = null;
+    this.occupancy = null;
+    if (petSpace != null && petSpace.getSpaceId() >= 0) {
+      pet.moveTo(spaces.get(petSpace.getSpaceId()));
+    }
+  }
+
+  /**
+   * Gets the target's starting health.
+   */
+  int getStartingHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Folds a name so that two names map to the same key exactly when
+   * {@link String#equalsIgnoreCase} considers them equal.
+   */
+  static String foldCase(String name) {
+    int i = 0;
+    while (i < name.length()) {
+      char c = name.charAt(i);
+      if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+        break;
+      }
+      i++;
+    }
+    if (i == name.length()) {
+      return name;
+    }
+    char[] folded = name.toCharArray();
+    for (; i < folded.length; i++) {
+      char c = folded[i];
+      if (c < 0x80) {
+        folded[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+      } else {
+        folded[i] = Character.toLowerCase(Character.toUpperCase(c));
+      }
+    }
+    return new String(folded);
+  }
+
+  /**
+   * Checks that a space is the one this world indexed under its id, so the
+   * compressed adjacency can be used for it.
+   */
+  private boolean isIndexed(Ispace space) {
+    int id = space.getSpaceId();
+    return id >= 0 && id < spaces.size() && id < neighborOffsets.length - 1
+        && spaces.get(id) == space;
+  }
+
+  @Override
+  public int getSpaceCount() {
+    return spaces.size();
+  }
+
+  @Override
+  public Ispace getSpace(int spaceId) {
+    return spaces.get(spaceId);
+  }
+
+  @Override
+  public int getRowCount() {
+    return rows;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return cols;
+  }
+
+  @Override
+  public List<Ispace> findSpacesIn(int top, int left, int bottom, int right) {
+    if (!indexIsCurrent()) {
+      return Iworld.super.findSpacesIn(top, left, bottom, right);
+    }
+    int[] ids = compiled != null ? compiled.roomsIn(top, left, bottom, right)
+        : spaceGrid().query(top, left, bottom, right);
+    List<Ispace> found = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      found.add(spaces.get(id));
+    }
+    return found;
+  }
+
+  @Override
+  public int findSpaceIdAt(int row, int col) {
+    if (!indexIsCurrent()) {
+      return Iworld.super.findSpaceIdAt(row, col);
+    }
+    return compiled != null ? compiled.roomAt(row, col) : spaceGrid().spaceAt(row, col);
+  }
+
+  /**
+   * Gets the grid over the spaces, building it if it is not built yet.
+   *
+   * @return the grid
+   */
+  SpaceGrid spaceGrid() {
+    if (grid == null) {
+      grid = new SpaceGrid(spaces);
+    }
+    return grid;
+  }
+
+  @Override
+  public int getNeighborCount(int spaceId) {
+    return neighborOffsets[spaceId + 1] - neighborOffsets[spaceId];
+  }
+
+  @Override
+  public int getNeighborId(int spaceId, int index) {
+    if (index < 0 || index >= getNeighborCount(spaceId)) {
+      throw new IndexOutOfBoundsException(
+          "Space " + spaceId + " has no neighbor at position " + index);
+    }
+    return neighborTargets[neighborOffsets[spaceId] + index];
+  }
+
+  @Override
+  public boolean areNeighbors(Ispace from, Ispace to) {
+    if (!isIndexed(from) || !isIndexed(to)) {
+      return Iworld.super.areNeighbors(from, to);
+    }
+    int id = from.getSpaceId();
+    int target = to.getSpaceId();
+    for (int k = neighborOffsets[id]; k < neighborOffsets[id + 1]; k++) {
+      if (neighborTargets[k] == target) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int getDistance(Ispace from, Ispace to) {
+    if (!isIndexed(from) || !isIndexed(to)) {
+      return -1;
+    }
+    return getDistanceOracle().distance(from.getSpaceId(), to.getSpaceId());
+  }
+
+  @Override
+  public int getNextStep(Ispace from, Ispace to) {
+    if (!isIndexed(from) || !isIndexed(to)) {
+      return -1;
+    }
+    return getDistanceOracle().nextStep(from.getSpaceId(), to.getSpaceId());
+  }
+
+  /**
+   * Builds the tables that {@link #getDistance(Ispace, Ispace)} and
+   * {@link #getNextStep(Ispace, Ispace)} answer from, if they are not built
+   * yet. Copies made afterwards with {@link #World(World)} share them; a world
+   * that will be copied from several threads should build them first, so that
+   * the copies do not each build their own.
+   */
+  public void buildDistances() {
+    getDistanceOracle();
+  }
+
+  /**
+   * Gets the distance tables if they have been built, for tests of sharing.
+   *
+   * @return the tables, or null
+   */
+  DistanceOracle builtDistances() {
+    return distances;
+  }
+
+  private DistanceOracle getDistanceOracle() {
+    if (distances == null) {
+      distances = DistanceOracle.forGraph(neighborOffsets, neighborTargets);
+    }
+    return distances;
+  }
+
+  /**
+   * Turns console output from this world and its players on or off. Headless
+   * simulations run quietly so that printing does not dominate their cost.
+   *
+   * @param quiet true to suppress all game messages
+   */
+  public void setQuiet(boolean quiet) {
+    record.setQuiet(quiet, targetCharacter);
+  }
+
+  @Override
+  public void announce(String message) {
+    record.announce(message);
   }
 
   @Override
@@ -212,21 +848,42 @@ public class World implements Iworld {
           "Invalid space index " + spaceIndex + " for player start location.");
     }
     players.add(new Player(name, spaces.get(spaceIndex), this));
-    System.out
-        .println("Player " + name + " added at space " + spaces.get(spaceIndex).getSpaceName());
+    announce("Player " + name + " added at space " + spaces.get(spaceIndex).getSpaceName());
   }
 
   /**
    * Generates a visual representation of the game world as a BufferedImage. Each
    * room is drawn as a light‐gray filled rectangle with a black border and its
    * name centered inside. A 50px right margin ensures no labels ever get clipped.
+   * Only the rooms are drawn, and they never move, so the image is drawn once
+   * and the same image is returned until the spaces are re-indexed. Callers
+   * must not draw on it.
    */
   @Override
   public BufferedImage generateWorldMap() {
-    final int scale = 20;
-    final int margin = 50; // extra room on the right for long labels
-    final int imgW = cols * scale + margin;
-    final int imgH = rows * scale;
+    BufferedImage image = mapImage;
+    if (image == null || image.getWidth() != cols * MAP_SCALE + MAP_MARGIN
+        || image.getHeight() != rows * MAP_SCALE || !indexIsCurrent()) {
+      image = renderWorldMap();
+      // A subclass that replaced the spaces without re-indexing gets a fresh map each time.
+      mapImage = indexIsCurrent() ? image : null;
+    }
+    return image;
+  }
+
+  /**
+   * Draws the rooms into a new image.
+   */
+  BufferedImage renderWorldMap() {
+    return renderWorldMap(rows, cols, spaces);
+  }
+
+  /**
+   * Draws rooms into a new image of a grid of the given size.
+   */
+  static BufferedImage renderWorldMap(int rows, int cols, Iterable<Ispace> spaces) {
+    final int imgW = cols * MAP_SCALE + MAP_MARGIN;
+    final int imgH = rows * MAP_SCALE;
 
     BufferedImage image = new BufferedImage(imgW, imgH, BufferedImage.TYPE_INT_RGB);
     Graphics2D g2 = image.createGraphics();
@@ -236,14 +893,16 @@ public class World implements Iworld {
     g2.fillRect(0, 0, imgW, imgH);
 
     // 2) Draw each room
+    FontMetrics fm = g2.getFontMetrics();
+    int textH = fm.getHeight();
     for (Ispace space : spaces) {
-      int x = space.getUpperColumn() * scale;
-      int y = space.getUpperRow() * scale;
-      int w = (space.getLowerColumn() - space.getUpperColumn()) * scale;
-      int h = (space.getLowerRow() - space.getUpperRow()) * scale;
+      int x = space.getUpperColumn() * MAP_SCALE;
+      int y = space.getUpperRow() * MAP_SCALE;
+      int w = (space.getLowerColumn() - space.getUpperColumn()) * MAP_SCALE;
+      int h = (space.getLowerRow() - space.getUpperRow()) * MAP_SCALE;
 
       // a) fill interior
-      g2.setColor(new Color(230, 230, 230));
+      g2.setColor(ROOM_FILL);
       g2.fillRect(x, y, w, h);
 
       // b) outline
@@ -251,10 +910,8 @@ public class World implements Iworld {
       g2.drawRect(x, y, w, h);
 
       // c) room name, centered
-      FontMetrics fm = g2.getFontMetrics();
       String name = space.getSpaceName();
       int textW = fm.stringWidth(name);
-      int textH = fm.getHeight();
       int tx = x + (w - textW) / 2;
       int ty = y + (h - textH) / 2 + fm.getAscent();
       g2.drawString(name, tx, ty);
@@ -266,22 +923,12 @@ public class World implements Iworld {
 
   @Override
   public List<String> getPlayerItems() {
-    List<String> result = new ArrayList<>();
-    for (Iplayer p : players) {
-      result.addAll(p.getPlayerItems());
-    }
-    return result;
+    return GameRecord.playerItems(players);
   }
 
   @Override
   public List<String> getSpaceItems() {
-    List<String> result = new ArrayList<>();
-    for (Ispace s : spaces) {
-      for (String item : s.getItems()) {
-        result.add(item + " in " + s.getSpaceName());
-      }
-    }
-    return result;
+    return GameRecord.spaceItems(spaces);
   }
 
   @Override
@@ -291,12 +938,7 @@ public class World implements Iworld {
 
   @Override
   public int findPlayerIndex(String name) {
-    for (int i = 0; i < players.size(); i++) {
-      if (players.get(i).getPlayerName().equalsIgnoreCase(name)) {
-        return i;
-      }
-    }
-    return -1;
+    return GameRecord.findPlayerIndex(players, name);
   }
 
   @Override
@@ -304,10 +946,7 @@ public class World implements Iworld {
     if (index < 0 || index >= spaces.size()) {
       return "Invalid space index";
     }
-    Ispace space = spaces.get(index);
-    return space.getSpaceName() + ": (Row " + space.getUpperRow() + ", Col "
-        + space.getUpperColumn() + ") - (Row " + space.getLowerRow() + ", Col "
-        + space.getLowerColumn() + ")";
+    return GameRecord.describeBounds(spaces.get(index));
   }
 
   /**
@@ -315,60 +954,100 @@ public class World implements Iworld {
    */
   @Override
   public String getSpaceInfo(String spaceName) {
-    Ispace s = getSpaceByName(spaceName);
+    Ispace s = findSpaceByName(spaceName).orElse(null);
     if (s == null) {
       return "Space not found: " + spaceName;
     }
-    StringBuilder sb = new StringBuilder();
-    sb.append("Space: ").append(s.getSpaceName()).append("\n").append("Items: ")
-        .append(s.getItems()).append("\n").append("Players Present: ");
     List<String> playersInSpace = new ArrayList<>();
-    for (Iplayer player : getPlayers()) {
-      if (player.getPlayerLocation().getSpaceName().equalsIgnoreCase(s.getSpaceName())) {
+    OccupancyIndex index = isIndexed(s) ? occupancy() : null;
+    if (index != null) {
+      List<Iplayer> here = new ArrayList<>();
+      index.collectOccupants(s, s.getSpaceId(), here);
+      for (Iplayer player : here) {
         playersInSpace.add(player.getPlayerName());
       }
+    } else {
+      for (Iplayer player : getPlayers()) {
+        if (player.getPlayerLocation().getSpaceName().equalsIgnoreCase(s.getSpaceName())) {
+          playersInSpace.add(player.getPlayerName());
+        }
+      }
     }
-    sb.append(playersInSpace).append("\n");
-    // If the current space contains the pet, list it explicitly.
-    if (s.getHasPet() && pet != null) {
-      sb.append("Also present: ").append(pet.getName()).append("\n");
-    }
-    sb.append("Coordinates: [").append(s.getUpperRow()).append(", ").append(s.getUpperColumn())
-        .append("] to [").append(s.getLowerRow()).append(", ").append(s.getLowerColumn())
-        .append("]\n").append("--- Visible Neighboring Spaces ---\n");
-    for (String neighborName : s.getNeighbors()) {
-      Ispace neighbor = getSpaceByName(neighborName);
-      if (neighbor != null) {
-        if (((Space) neighbor).getHasPet()) {
-          sb.append(neighbor.getSpaceName()).append(" (Not visible)\n");
-        } else {
-          sb.append(neighbor.getSpaceName()).append(" (Items: ").append(neighbor.getItems())
-              .append(")\n");
+    List<Ispace> neighbors = new ArrayList<>();
+    if (isIndexed(s)) {
+      int id = s.getSpaceId();
+      for (int k = neighborOffsets[id]; k < neighborOffsets[id + 1]; k++) {
+        neighbors.add(spaces.get(neighborTargets[k]));
+      }
+    } else {
+      for (String neighborName : s.getNeighbors()) {
+        Ispace neighbor = getSpaceByName(neighborName);
+        if (neighbor != null) {
+          neighbors.add(neighbor);
         }
       }
     }
-    return sb.toString();
+    return GameRecord.describeSpace(s, playersInSpace, pet, neighbors);
   }
 
   /**
-   * Corrected getSpaceByName: now returns the actual instance so that updates
-   * (e.g., pet flags) are visible.
+   * Looks a space up by name, ignoring case. Returns the actual instance so that
+   * updates (e.g., pet flags) are visible. Unknown names print a warning and
+   * fall back to the first space; use {@link #findSpaceByName(String)} to get
+   * an empty result instead.
    */
   @Override
   public Ispace getSpaceByName(String name) {
+    Optional<Ispace> found = findSpaceByName(name);
+    if (found.isPresent()) {
+      return found.get();
+    }
+    announce("Warning: Space '" + name + "' not found.");
+    return spaces.isEmpty() ? null : spaces.get(0);
+  }
+
+  @Override
+  public Optional<Ispace> findSpaceByName(String name) {
+    Integer id;
+    if (spaceIdsByName == null) {
+      int found = compact != null ? compact.findRoom(name) : compiled.findRoom(name);
+      id = found < 0 ? null : found;
+    } else {
+      id = spaceIdsByName.get(name);
+      if (id == null) {
+        id = spaceIdsByName.get(foldCase(name));
+      }
+    }
+    if (id != null && id < spaces.size()) {
+      Ispace space = spaces.get(id);
+      String spaceName = space.getSpaceName();
+      if (spaceName.equals(name) || spaceName.equalsIgnoreCase(name)) {
+        return Optional.of(space);
+      }
+    }
+    if (id == null && indexIsCurrent()) {
+      return Optional.empty();
+    }
+    // The index is out of date (a subclass replaced the spaces), so scan.
     for (Ispace space : spaces) {
       if (space.getSpaceName().equalsIgnoreCase(name)) {
-        return space;
+        return Optional.of(space);
       }
     }
-    System.out.println("Warning: Space '" + name + "' not found.");
-    return spaces.isEmpty() ? null : spaces.get(0);
+    return Optional.empty();
+  }
+
+  /**
+   * Cheaply checks that the name index still describes the given space list.
+   */
+  private boolean indexIsCurrent() {
+    return spaces.size() == neighborOffsets.length - 1 && (spaces.isEmpty()
+        || isIndexed(spaces.get(0)) && isIndexed(spaces.get(spaces.size() - 1)));
   }
 
   @Override
   public String viewTargetCharacter() {
-    return targetCharacter.getTargetName() + " (" + targetCharacter.getTargetHealth() + " HP) at "
-        + getTargetLocation().getSpaceName();
+    return GameRecord.describeTarget(targetCharacter, getTargetLocation());
   }
 
   @Override
@@ -376,6 +1055,11 @@ public class World implements Iworld {
     return spaces.get(targetLocationIndex);
   }
 
+  @Override
+  public ItargetCharacter getTargetCharacter() {
+    return targetCharacter;
+  }
+
   @Override
   public void moveTargetCharacter() {
     targetLocationIndex = (targetLocationIndex + 1) % spaces.size();
@@ -383,74 +1067,133 @@ public class World implements Iworld {
 
   /**
    * Computes a depth-first search (DFS) traversal path for the pet through all
-   * spaces.
+   * spaces reachable from the first one, visiting neighbors in the order they
+   * are listed.
    *
    * @return a list of spaces representing the DFS traversal order.
    */
   protected List<Ispace> computePetPath() {
-    List<Ispace> path = new ArrayList<>();
-    Set<String> visited = new HashSet<>();
-    if (!spaces.isEmpty()) {
-      dfs(spaces.get(0), visited, path);
-    }
-    return path;
+    return new PetPath(computePetPathIds());
   }
 
   /**
-   * Helper method for DFS traversal.
+   * Computes the pet's path as space ids. The traversal keeps its own stack of
+   * space ids, so long, corridor-shaped mansions cannot overflow the call
+   * stack.
    *
-   * @param space   the current space.
-   * @param visited the set of visited space names.
-   * @param path    the DFS path list being built.
+   * @return the ids of the spaces in DFS traversal order
    */
-  private void dfs(Ispace space, Set<String> visited, List<Ispace> path) {
-    if (visited.contains(space.getSpaceName())) {
-      return;
+  int[] computePetPathIds() {
+    if (spaces.isEmpty()) {
+      return new int[0];
     }
-    visited.add(space.getSpaceName());
-    path.add(space);
-    for (String neighborName : space.getNeighbors()) {
-      Ispace neighbor = getSpaceByName(neighborName);
-      if (neighbor != null && !visited.contains(neighbor.getSpaceName())) {
-        dfs(neighbor, visited, path);
+    if (!indexIsCurrent()) {
+      indexSpaces(); // a subclass replaced or rewired the spaces
+    }
+    int n = spaces.size();
+    int[] path = new int[n];
+    // For each space on the current branch, the position in neighborTargets of
+    // its next neighbor to try. Ids are not stacked: the root is space 0, and
+    // any other space is the neighbor its parent tried last.
+    int[] stack = new int[n];
+    BitSet visited = new BitSet(n);
+    int length = 0;
+    int depth = 0;
+    stack[depth++] = neighborOffsets[0];
+    visited.set(0);
+    path[length++] = 0;
+    while (depth > 0) {
+      int id = depth == 1 ? 0 : neighborTargets[stack[depth - 2] - 1];
+      if (stack[depth - 1] == neighborOffsets[id + 1]) {
+        depth--;
+        continue;
+      }
+      int neighbor = neighborTargets[stack[depth - 1]++];
+      if (!visited.get(neighbor)) {
+        visited.set(neighbor);
+        path[length++] = neighbor;
+        stack[depth++] = neighborOffsets[neighbor];
       }
     }
+    return length == n ? path : Arrays.copyOf(path, length);
+  }
+
+  /**
+   * Gets the pet's path as space ids, whether it is the path this world
+   * computed or a list a subclass set.
+   *
+   * @return the ids of the spaces along the path; empty if there is no path
+   */
+  int[] petPathIds() {
+    if (petPath instanceof PetPath) {
+      return ((PetPath) petPath).ids;
+    }
+    if (petPath == null) {
+      return new int[0];
+    }
+    int[] ids = new int[petPath.size()];
+    for (int i = 0; i < ids.length; i++) {
+      Ispace space = petPath.get(i);
+      ids[i] = isIndexed(space) ? space.getSpaceId() : spaces.indexOf(space);
+    }
+    return ids;
+  }
+
+  /**
+   * The pet's path as a list over space ids, so that it takes four bytes a
+   * space and reads whatever spaces this world holds now.
+   */
+  private final class PetPath extends AbstractList<Ispace> {
+    private final int[] ids;
+
+    PetPath(int[] ids) {
+      this.ids = ids;
+    }
+
+    @Override
+    public Ispace get(int index) {
+      return spaces.get(ids[index]);
+    }
+
+    @Override
+    public int size() {
+      return ids.length;
+    }
   }
 
   /**
    * Moves the pet automatically along the precomputed DFS path. This implements
    * the extra credit wandering pet.
    */
+  @Override
   public void movePetAutomatically() {
     if (petPath == null || petPath.isEmpty() || pet == null) {
       return;
     }
     // Remove pet flag from current space.
     Ispace current = pet.getCurrentSpace();
-    if (current != null && current instanceof Space) {
-      ((Space) current).setHasPet(false);
+    if (current != null) {
+      current.setHasPet(false);
     }
     petIndex = (petIndex + 1) % petPath.size();
     Ispace nextSpace = petPath.get(petIndex);
     pet.moveTo(nextSpace);
-    if (nextSpace instanceof Space) {
-      ((Space) nextSpace).setHasPet(true);
-    }
+    nextSpace.setHasPet(true);
   }
 
   @Override
   public void setLastAttacker(String name) {
-    this.lastAttacker = name;
+    record.setLastAttacker(name);
   }
 
   @Override
   public String getWinner() {
-    return (winnerName != null) ? winnerName : "No one";
+    return record.getWinner();
   }
 
   @Override
   public void setWinner(String name) {
-    this.winnerName = (name != null) ? name : lastAttacker;
+    record.setWinner(name);
   }
 
   @Override
@@ -458,22 +1201,137 @@ public class World implements Iworld {
     return pet;
   }
 
-  /**
-   * Exposed so GUI can iterate all spaces to hit‑test clicks.
-   *
-   * @return the list of all spaces in the world
-   */
+  @Override
   public List<Ispace> getSpaces() {
     return spaces;
   }
 
   @Override
   public boolean canPlayerSee(Iplayer a, Iplayer b) {
-    Ispace first = a.getPlayerLocation();
-    Ispace second = b.getPlayerLocation();
-    if (first.getSpaceName().equalsIgnoreCase(second.getSpaceName())) {
+    return canSeeInto(a.getPlayerLocation(), b.getPlayerLocation());
+  }
+
+  @Override
+  public boolean canSee(int fromSpaceId, int toSpaceId) {
+    if (visibility != null) {
+      return visibility.canSee(fromSpaceId, toSpaceId);
+    }
+    return fromSpaceId == toSpaceId || areNeighbors(spaces.get(fromSpaceId), spaces.get(toSpaceId));
+  }
+
+  /**
+   * Checks whether a player standing in one space can see into another: the
+   * same space, a space with the same name, or one of its neighbors.
+   */
+  private boolean canSeeInto(Ispace from, Ispace to) {
+    if (from == to) {
       return true;
     }
-    return first.getNeighbors().contains(second.getSpaceName());
+    if (uniqueNames && isIndexed(from) && isIndexed(to)) {
+      return canSee(from.getSpaceId(), to.getSpaceId());
+    }
+    return from.getSpaceName().equalsIgnoreCase(to.getSpaceName()) || areNeighbors(from, to);
+  }
+
+  @Override
+  public Optional<Iplayer> findObserver(Iplayer player) {
+    OccupancyIndex index = occupancy();
+    if (index == null || !uniqueNames || !index.isTracked(player)) {
+      return Iworld.super.findObserver(player);
+    }
+    addObserverSpaces(index, index.spaceOf(player));
+    return Optional.ofNullable(index.firstSeen(player));
+  }
+
+  @Override
+  public List<Iplayer> getObservers(Ispace space) {
+    OccupancyIndex index = occupancy();
+    if (index == null || !uniqueNames || !isIndexed(space)) {
+      return Iworld.super.getObservers(space);
+    }
+    addObserverSpaces(index, space.getSpaceId());
+    List<Iplayer> observers = new ArrayList<>();
+    index.collectSeen(space, observers);
+    return observers;
+  }
+
+  /**
+   * Starts an observer query on the occupancy index with every space from which
+   * the given space can be seen. Without a visibility matrix, neighbors are
+   * taken to be mutual, as they are in every world read from a file.
+   */
+  private void addObserverSpaces(OccupancyIndex index, int spaceId) {
+    index.clearSeen();
+    if (visibility != null) {
+      for (int from = visibility.nextObserver(spaceId, 0); from >= 0;
+          from = visibility.nextObserver(spaceId, from + 1)) {
+        index.addSeen(from);
+      }
+    } else {
+      index.addSeen(spaceId);
+      for (int k = neighborOffsets[spaceId]; k < neighborOffsets[spaceId + 1]; k++) {
+        index.addSeen(neighborTargets[k]);
+      }
+    }
+  }
+
+  @Override
+  public void playerMoved(Iplayer player) {
+    if (occupancy == null) {
+      return;
+    }
+    Ispace location = player.getPlayerLocation();
+    if (isIndexed(location)) {
+      occupancy.move(player, location.getSpaceId());
+    } else {
+      occupancy = null; // the player left the indexed spaces; start over
+    }
+  }
+
+  /**
+   * Gets the occupancy index for the current players, building it if the roster
+   * has changed since it was last built.
+   *
+   * @return the index, or null if the players or spaces cannot be indexed
+   */
+  private OccupancyIndex occupancy() {
+    List<Iplayer> roster = getPlayers();
+    if (!(roster instanceof Roster) || !indexIsCurrent()) {
+      return null;
+    }
+    int version = ((Roster) roster).version();
+    if (occupancy == null || occupancyRoster != roster || occupancyVersion != version) {
+      int[] spaceIds = new int[roster.size()];
+      for (int i = 0; i < spaceIds.length; i++) {
+        Iplayer player = roster.get(i);
+        Ispace location = player.getPlayerLocation();
+        // Only players of this world report their moves here.
+        boolean tracked = player instanceof Player && ((Player) player).world == this
+            && isIndexed(location);
+        spaceIds[i] = tracked ? location.getSpaceId() : -1;
+      }
+      occupancy = new OccupancyIndex(roster, spaces.size(), spaceIds, this::canSeeInto);
+      occupancyRoster = roster;
+      occupancyVersion = version;
+    }
+    return occupancy;
+  }
+
+  /**
+   * The player list. It counts its changes, so the occupancy index can tell when
+   * players have been added, removed or replaced.
+   */
+  private static final class Roster extends ArrayList<Iplayer> {
+    private static final long serialVersionUID = 1L;
+
+    int version() {
+      return modCount;
+    }
+
+    @Override
+    public Iplayer set(int index, Iplayer player) {
+      modCount++;
+      return super.set(index, player);
+    }
   }
 }
@@ -0,0 +1,326 @@
+package killdoctorlucky.model;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a world file a line at a time straight from its bytes. A line can be
+ * taken as a string, like {@link java.io.BufferedReader#readLine()} would give
+ * it, or picked apart in place: whitespace-separated decimal numbers are read
+ * without making any strings, and the rest of the line becomes one string for
+ * the name. Lines end at "\n", "\r" or "\r\n".
+ *
+ * <p>Only lines of printable ASCII, spaces and tabs are picked apart here;
+ * {@link #isPlain()} tells the caller when to fall back to a general parser.
+ *
+ * <p>A reader can also work on a file read whole into memory, or on a range of
+ * one, so that different parts of a file can be read on different threads.
+ */
+final class WorldFileReader implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+  // The largest file that can be read into memory: the largest array most VMs allow.
+  static final long MAX_IN_MEMORY = Integer.MAX_VALUE - 8;
+
+  private final FileChannel channel; // null when reading bytes in memory
+  private byte[] buf;
+  private ByteBuffer window; // wraps buf for reading from the channel
+  private int pos; // where the next line starts
+  private int limit; // end of the bytes read so far
+  private boolean skipLf; // the last line ended with '\r'; a following '\n' belongs to it
+  private int start; // the current line is buf[start .. end)
+  private int end;
+  private int cursor; // how far the current line has been picked apart
+  private int value; // the number found by the last successful nextInt
+  private byte[] scratch = new byte[64];
+
+  /**
+   * Opens a world file.
+   *
+   * @param filePath the file to read
+   * @throws IOException if the file cannot be opened
+   */
+  WorldFileReader(String filePath) throws IOException {
+    // FileInputStream fails with the same message as the FileReader this replaced.
+    this.channel = new FileInputStream(filePath).getChannel();
+    this.buf = new byte[BUFFER_SIZE];
+    this.window = ByteBuffer.wrap(buf);
+  }
+
+  /**
+   * Reads a range of bytes in memory. The bytes are never changed, so several
+   * readers may share them.
+   *
+   * @param bytes the bytes, such as a whole file
+   * @param from  where the first line starts
+   * @param to    where the last line ends
+   */
+  WorldFileReader(byte[] bytes, int from, int to) {
+    this.channel = null;
+    this.buf = bytes;
+    this.pos = from;
+    this.limit = to;
+  }
+
+  /**
+   * Reads a whole file into memory.
+   *
+   * @param filePath the file to read
+   * @return a reader over all of its bytes
+   * @throws IOException if the file cannot be read, or is too large to hold
+   */
+  static WorldFileReader readWhole(String filePath) throws IOException {
+    try (FileInputStream in = new FileInputStream(filePath)) {
+      if (in.getChannel().size() > MAX_IN_MEMORY) {
+        throw new IOException(filePath + " is too large to read into memory");
+      }
+      byte[] bytes = in.readAllBytes();
+      return new WorldFileReader(bytes, 0, bytes.length);
+    }
+  }
+
+  /**
+   * Gets the bytes a reader in memory works on.
+   *
+   * @return the bytes, shared with this reader
+   */
+  byte[] bytes() {
+    return buf;
+  }
+
+  /**
+   * Gets where the next line starts in the bytes of a reader in memory.
+   *
+   * @return the position of the next line
+   */
+  int position() {
+    return pos;
+  }
+
+  /**
+   * Moves to the next line.
+   *
+   * @return false if there are no more lines
+   * @throws IOException if the file cannot be read
+   */
+  boolean nextLine() throws IOException {
+    if (skipLf) {
+      skipLf = false;
+      if (pos == limit && !fill()) {
+        return false;
+      }
+      if (buf[pos] == '\n') {
+        pos++;
+      }
+    }
+    int scanned = 0;
+    while (true) {
+      for (int i = pos + scanned; i < limit; i++) {
+        byte b = buf[i];
+        if (b == '\n' || b == '\r') {
+          start = pos;
+          end = i;
+          cursor = start;
+          pos = i + 1;
+          if (b == '\r') {
+            if (pos < limit) {
+              if (buf[pos] == '\n') {
+                pos++;
+              }
+            } else {
+              skipLf = true;
+            }
+          }
+          return true;
+        }
+      }
+      scanned = limit - pos;
+      if (!fill()) {
+        if (scanned == 0) {
+          return false;
+        }
+        start = pos;
+        end = limit;
+        cursor = start;
+        pos = limit;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Reads the next line as a string.
+   *
+   * @return the line without its terminator, or null if there are no more
+   * @throws IOException if the file cannot be read
+   */
+  String readLine() throws IOException {
+    return nextLine() ? line() : null;
+  }
+
+  /**
+   * Gets the current line as a string, decoded with the platform charset as a
+   * FileReader would.
+   *
+   * @return the line without its terminator
+   */
+  String line() {
+    return new String(buf, start, end - start, Charset.defaultCharset());
+  }
+
+  /**
+   * Tells whether the current line is empty once trimmed.
+   *
+   * @return true if the line holds nothing but spaces and control characters
+   */
+  boolean isBlank() {
+    for (int i = start; i < end; i++) {
+      if ((buf[i] & 0xff) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tells whether the current line is printable ASCII, spaces and tabs only,
+   * so that {@link #nextInt()} and {@link #rest()} split it exactly as a
+   * Scanner would.
+   *
+   * @return true if the line can be picked apart here
+   */
+  boolean isPlain() {
+    for (int i = start; i < end; i++) {
+      byte b = buf[i];
+      if ((b < ' ' && b != '\t') || b > '~') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the next token of the current line as a decimal int: an optional
+   * minus sign and digits. Leading spaces and tabs are skipped. If the token is
+   * anything else, or too large, it is not consumed.
+   *
+   * @return true if a number was read; it is then {@link #intValue()}
+   */
+  boolean nextInt() {
+    int i = cursor;
+    while (i < end && isSpace(buf[i])) {
+      i++;
+    }
+    boolean negative = i < end && buf[i] == '-';
+    int digits = negative ? i + 1 : i;
+    long n = 0;
+    int j = digits;
+    while (j < end && buf[j] >= '0' && buf[j] <= '9') {
+      n = n * 10 + (buf[j] - '0');
+      if (n > 1L + Integer.MAX_VALUE) {
+        return false;
+      }
+      j++;
+    }
+    if (j == digits || (j < end && !isSpace(buf[j]))) {
+      return false;
+    }
+    n = negative ? -n : n;
+    if (n > Integer.MAX_VALUE) {
+      return false;
+    }
+    value = (int) n;
+    cursor = j;
+    return true;
+  }
+
+  /**
+   * Gets the number read by the last successful {@link #nextInt()}.
+   *
+   * @return the number
+   */
+  int intValue() {
+    return value;
+  }
+
+  /**
+   * Gets the rest of the current line as its tokens joined by single spaces,
+   * which is how names are read. Only for lines that are {@link #isPlain()}.
+   *
+   * @return the remaining tokens, or "" if there are none
+   */
+  String rest() {
+    int from = cursor;
+    int to = end;
+    while (from < to && isSpace(buf[from])) {
+      from++;
+    }
+    while (to > from && isSpace(buf[to - 1])) {
+      to--;
+    }
+    cursor = end;
+    // Most names are already separated by single spaces and need no copying.
+    boolean single = true;
+    for (int i = from; i < to && single; i++) {
+      single = buf[i] != '\t' && !(buf[i] == ' ' && buf[i + 1] == ' ');
+    }
+    if (single) {
+      return new String(buf, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+    if (scratch.length < to - from) {
+      scratch = new byte[to - from];
+    }
+    int n = 0;
+    for (int i = from; i < to; i++) {
+      if (!isSpace(buf[i])) {
+        scratch[n++] = buf[i];
+      } else if (!isSpace(buf[i - 1])) {
+        scratch[n++] = ' ';
+      }
+    }
+    return new String(scratch, 0, n, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  /**
+   * Reads more of the file, first moving the unread bytes to the front of the
+   * buffer, and growing it if a single line fills it.
+   */
+  private boolean fill() throws IOException {
+    if (channel == null) {
+      return false; // everything is already in memory
+    }
+    if (pos > 0) {
+      System.arraycopy(buf, pos, buf, 0, limit - pos);
+      limit -= pos;
+      pos = 0;
+    }
+    if (limit == buf.length) {
+      byte[] bigger = new byte[buf.length * 2];
+      System.arraycopy(buf, 0, bigger, 0, limit);
+      buf = bigger;
+      window = ByteBuffer.wrap(buf);
+    }
+    window.limit(buf.length).position(limit);
+    int n = channel.read(window);
+    if (n <= 0) {
+      return false;
+    }
+    limit += n;
+    return true;
+  }
+}
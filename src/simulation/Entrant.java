@@ -0,0 +1,97 @@
+package simulation;
+
+import killdoctorlucky.model.ComputerPlayer;
+import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.Iworld;
+import util.RandomGenerator;
+
+/**
+ * A computer player taking part in simulated games: a name, the space it
+ * starts in, and the strategy that creates its player for each game.
+ */
+public final class Entrant {
+
+  /**
+   * Creates the computer player for one game. Strategies are usually a
+   * constructor reference to ComputerPlayer or one of its subclasses.
+   */
+  @FunctionalInterface
+  public interface PlayerFactory {
+    /**
+     * Creates a player for a new game.
+     *
+     * @param name          the player's name
+     * @param startLocation the space the player starts in
+     * @param world         the world of the game
+     * @param random        the player's own random number stream
+     * @return the new player
+     */
+    ComputerPlayer create(String name, Ispace startLocation, Iworld world, RandomGenerator random);
+  }
+
+  private final String name;
+  private final int startSpace;
+  private final PlayerFactory factory;
+
+  /**
+   * Constructs an Entrant.
+   *
+   * @param name       the name the entrant plays under; must be unique in a game
+   * @param startSpace the index of the space the entrant starts in
+   * @param factory    the strategy that creates the entrant's player
+   * @throws IllegalArgumentException if the name or factory is missing or the
+   *                                  start space is negative
+   */
+  public Entrant(String name, int startSpace, PlayerFactory factory) {
+    if (name == null || name.trim().isEmpty()) {
+      throw new IllegalArgumentException("Entrant name cannot be empty.");
+    }
+    if (startSpace < 0) {
+      throw new IllegalArgumentException("Start space cannot be negative.");
+    }
+    if (factory == null) {
+      throw new IllegalArgumentException("Entrant needs a player factory.");
+    }
+    this.name = name;
+    this.startSpace = startSpace;
+    this.factory = factory;
+  }
+
+  /**
+   * Creates an entrant that plays the standard ComputerPlayer strategy.
+   *
+   * @param name       the name the entrant plays under
+   * @param startSpace the index of the space the entrant starts in
+   * @return the entrant
+   */
+  public static Entrant computer(String name, int startSpace) {
+    return new Entrant(name, startSpace, ComputerPlayer::new);
+  }
+
+  /**
+   * Gets the entrant's name.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the index of the space the entrant starts in.
+   *
+   * @return the start space index
+   */
+  public int getStartSpace() {
+    return startSpace;
+  }
+
+  /**
+   * Gets the strategy that creates the entrant's player.
+   *
+   * @return the player factory
+   */
+  public PlayerFactory getFactory() {
+    return factory;
+  }
+}
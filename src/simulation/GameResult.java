@@ -0,0 +1,96 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of one headless game: who won, how many turns it took, and how
+ * much damage each player dealt to the target.
+ */
+public final class GameResult {
+  private final String winner;
+  private final int turns;
+  private final List<String> playerNames;
+  private final int[] damage;
+
+  /**
+   * Constructs a GameResult.
+   *
+   * @param winner      the name of the player who killed the target, or null
+   *                    if the game ended in a draw
+   * @param turns       the number of turns played
+   * @param playerNames the players, in turn order
+   * @param damage      the damage dealt by each player, in the same order
+   */
+  public GameResult(String winner, int turns, List<String> playerNames, int[] damage) {
+    if (playerNames.size() != damage.length) {
+      throw new IllegalArgumentException("Need one damage total per player.");
+    }
+    this.winner = winner;
+    this.turns = turns;
+    this.playerNames = Collections.unmodifiableList(playerNames);
+    this.damage = damage.clone();
+  }
+
+  /**
+   * Gets the name of the winner.
+   *
+   * @return the winner's name, or null if the game was a draw
+   */
+  public String getWinner() {
+    return winner;
+  }
+
+  /**
+   * Gets the turn order position of the winner.
+   *
+   * @return the winner's seat, or -1 if the game was a draw
+   */
+  public int getWinnerSeat() {
+    return winner == null ? -1 : playerNames.indexOf(winner);
+  }
+
+  /**
+   * Checks whether the game ended without a kill.
+   *
+   * @return true if the maximum number of turns was reached
+   */
+  public boolean isDraw() {
+    return winner == null;
+  }
+
+  /**
+   * Gets the number of turns played.
+   *
+   * @return the turn count
+   */
+  public int getTurns() {
+    return turns;
+  }
+
+  /**
+   * Gets the player names in turn order.
+   *
+   * @return an unmodifiable list of player names
+   */
+  public List<String> getPlayerNames() {
+    return playerNames;
+  }
+
+  /**
+   * Gets the damage a player dealt to the target.
+   *
+   * @param seat the player's position in turn order
+   * @return the total damage dealt by that player
+   */
+  public int getDamage(int seat) {
+    return damage[seat];
+  }
+
+  @Override
+  public String toString() {
+    return (winner == null ? "Draw" : winner + " wins") + " after " + turns + " turns, damage "
+        + playerNames + " = " + Arrays.toString(damage);
+  }
+}
@@ -0,0 +1,108 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import killdoctorlucky.model.ComputerPlayer;
+import killdoctorlucky.model.ItargetCharacter;
+import killdoctorlucky.model.World;
+import util.RandomGenerator;
+
+/**
+ * Plays complete computer-only games without a controller, console output or
+ * Swing, for balancing mansion files over large numbers of games. The world
+ * file is parsed once; every game then starts from a fresh copy of it.
+ */
+public class Simulator {
+  private final World template;
+
+  /**
+   * Loads the mansion that every simulated game will be played on.
+   *
+   * @param worldFile the path to the mansion data file
+   * @throws IOException if the file cannot be read
+   */
+  public Simulator(String worldFile) throws IOException {
+    this.template = new World(worldFile);
+    template.setQuiet(true);
+    // Games are copied from the template on many threads at once; they all
+    // share these tables instead of each building its own.
+    template.buildDistances();
+  }
+
+  /**
+   * Plays one game between computer players, all starting in the first space,
+   * following the same turn order as the text controller: each player takes a
+   * turn, then the target and the pet move.
+   *
+   * @param playerCount the number of computer players
+   * @param maxTurns    the number of turns after which the game is a draw
+   * @param seed        the seed that makes the game reproducible
+   * @return the outcome of the game
+   */
+  public GameResult play(int playerCount, int maxTurns, long seed) {
+    if (playerCount < 1) {
+      throw new IllegalArgumentException("A game needs at least one player.");
+    }
+    List<Entrant> lineup = new ArrayList<>(playerCount);
+    for (int i = 0; i < playerCount; i++) {
+      lineup.add(Entrant.computer("CPU" + (i + 1), 0));
+    }
+    return play(lineup, maxTurns, seed);
+  }
+
+  /**
+   * Plays one game between the given entrants, who take their turns in the
+   * order listed.
+   *
+   * @param lineup   the entrants, in turn order
+   * @param maxTurns the number of turns after which the game is a draw
+   * @param seed     the seed that makes the game reproducible
+   * @return the outcome of the game
+   * @throws IllegalArgumentException if the lineup is empty, two entrants share
+   *                                  a name, or a start space does not exist
+   */
+  public GameResult play(List<Entrant> lineup, int maxTurns, long seed) {
+    if (lineup.isEmpty()) {
+      throw new IllegalArgumentException("A game needs at least one player.");
+    }
+    if (maxTurns < 0) {
+      throw new IllegalArgumentException("Max turns cannot be negative.");
+    }
+    World world = new World(template);
+    RandomGenerator seeds = RandomGenerator.seeded(seed);
+    int playerCount = lineup.size();
+    List<String> names = new ArrayList<>(playerCount);
+    ComputerPlayer[] players = new ComputerPlayer[playerCount];
+    for (int i = 0; i < playerCount; i++) {
+      Entrant entrant = lineup.get(i);
+      if (names.contains(entrant.getName())) {
+        throw new IllegalArgumentException("Duplicate entrant name: " + entrant.getName());
+      }
+      if (entrant.getStartSpace() >= world.getSpaceCount()) {
+        throw new IllegalArgumentException(
+            "Invalid start space " + entrant.getStartSpace() + " for " + entrant.getName());
+      }
+      names.add(entrant.getName());
+      players[i] = entrant.getFactory().create(entrant.getName(),
+          world.getSpace(entrant.getStartSpace()), world, seeds.split());
+      world.getPlayers().add(players[i]);
+    }
+
+    ItargetCharacter target = world.getTargetCharacter();
+    int[] damage = new int[playerCount];
+    int turn = 0;
+    int current = 0;
+    while (world.isGameNotOver() && turn < maxTurns) {
+      int before = target.getTargetHealth();
+      players[current].takeTurn();
+      damage[current] += before - target.getTargetHealth();
+      world.moveTargetCharacter();
+      world.movePetAutomatically();
+      turn++;
+      current = (current + 1) % playerCount;
+    }
+    String winner = world.isGameNotOver() ? null : world.getWinner();
+    return new GameResult(winner, turn, names, damage);
+  }
+}
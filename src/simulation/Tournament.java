@@ -0,0 +1,178 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs many independent games between a fixed set of entrants in parallel and
+ * tallies how often each one wins. Each game gets its own World and a seed
+ * derived from the master seed and the game number, so the totals are the same
+ * however many threads play them. The seating order rotates from game to game
+ * so that no entrant always moves first.
+ */
+public class Tournament {
+  // Small enough to balance well across threads, big enough that forking is
+  // cheap next to the games themselves.
+  private static final int GAMES_PER_TASK = 32;
+
+  private final Simulator simulator;
+  private final List<Entrant> entrants;
+  private final int maxTurns;
+
+  /**
+   * Constructs a Tournament.
+   *
+   * @param simulator the simulator holding the mansion to play on
+   * @param entrants  the entrants; every game seats all of them
+   * @param maxTurns  the number of turns after which a game is a draw
+   * @throws IllegalArgumentException if there are no entrants, two share a
+   *                                  name, or maxTurns is negative
+   */
+  public Tournament(Simulator simulator, List<Entrant> entrants, int maxTurns) {
+    if (simulator == null) {
+      throw new IllegalArgumentException("Simulator cannot be null.");
+    }
+    if (entrants == null || entrants.isEmpty()) {
+      throw new IllegalArgumentException("A tournament needs at least one entrant.");
+    }
+    HashSet<String> names = new HashSet<>();
+    for (Entrant entrant : entrants) {
+      if (!names.add(entrant.getName())) {
+        throw new IllegalArgumentException("Duplicate entrant name: " + entrant.getName());
+      }
+    }
+    if (maxTurns < 0) {
+      throw new IllegalArgumentException("Max turns cannot be negative.");
+    }
+    this.simulator = simulator;
+    this.entrants = Collections.unmodifiableList(new ArrayList<>(entrants));
+    this.maxTurns = maxTurns;
+  }
+
+  /**
+   * Plays the games on the common fork-join pool.
+   *
+   * @param games the number of games to play
+   * @param seed  the master seed
+   * @return the tallied results
+   */
+  public TournamentResult run(int games, long seed) {
+    return run(games, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Plays the games on the given fork-join pool.
+   *
+   * @param games the number of games to play
+   * @param seed  the master seed
+   * @param pool  the pool whose threads play the games
+   * @return the tallied results
+   */
+  public TournamentResult run(int games, long seed, ForkJoinPool pool) {
+    if (games < 0) {
+      throw new IllegalArgumentException("Game count cannot be negative.");
+    }
+    long start = System.nanoTime();
+    Tally tally = pool.invoke(new Batch(0, games, seed));
+    long elapsed = System.nanoTime() - start;
+    List<String> names = new ArrayList<>(entrants.size());
+    for (Entrant entrant : entrants) {
+      names.add(entrant.getName());
+    }
+    return new TournamentResult(names, tally.wins, games, tally.draws, tally.turns, elapsed,
+        pool.getParallelism());
+  }
+
+  /**
+   * Derives the seed of one game from the master seed (the SplitMix64
+   * finalizer), so neighbouring games get unrelated random streams.
+   */
+  static long gameSeed(long seed, int game) {
+    long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Plays one game and records it in the tally.
+   */
+  private void playGame(int game, long seed, List<Entrant> lineup, Tally tally) {
+    int n = entrants.size();
+    int rotation = game % n;
+    lineup.clear();
+    for (int seat = 0; seat < n; seat++) {
+      lineup.add(entrants.get((seat + rotation) % n));
+    }
+    GameResult result = simulator.play(lineup, maxTurns, gameSeed(seed, game));
+    tally.turns += result.getTurns();
+    int seat = result.getWinnerSeat();
+    if (seat < 0) {
+      tally.draws++;
+    } else {
+      tally.wins[(seat + rotation) % n]++;
+    }
+  }
+
+  /**
+   * Counts kept by one task. Every task fills its own tally and the tallies
+   * are added up as the tasks join, so no counter is ever shared between
+   * threads.
+   */
+  private static final class Tally {
+    private final long[] wins;
+    private long draws;
+    private long turns;
+
+    Tally(int entrants) {
+      this.wins = new long[entrants];
+    }
+
+    Tally merge(Tally other) {
+      for (int i = 0; i < wins.length; i++) {
+        wins[i] += other.wins[i];
+      }
+      draws += other.draws;
+      turns += other.turns;
+      return this;
+    }
+  }
+
+  /**
+   * Plays the games numbered [from, to), splitting the range in half until it
+   * is small enough to play on one thread.
+   */
+  private final class Batch extends RecursiveTask<Tally> {
+    private static final long serialVersionUID = 1L;
+    private final int from;
+    private final int to;
+    private final long seed;
+
+    Batch(int from, int to, long seed) {
+      this.from = from;
+      this.to = to;
+      this.seed = seed;
+    }
+
+    @Override
+    protected Tally compute() {
+      if (to - from <= GAMES_PER_TASK) {
+        Tally tally = new Tally(entrants.size());
+        List<Entrant> lineup = new ArrayList<>(entrants.size());
+        for (int game = from; game < to; game++) {
+          playGame(game, seed, lineup, tally);
+        }
+        return tally;
+      }
+      int mid = (from + to) >>> 1;
+      Batch left = new Batch(from, mid, seed);
+      left.fork();
+      Tally right = new Batch(mid, to, seed).compute();
+      return left.join().merge(right);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tallied outcome of a tournament: wins per entrant, draws, and how fast
+ * the games were played. Win rates come with 95% Wilson score intervals, which
+ * stay sensible for rates near 0 or 1 and for small numbers of games.
+ */
+public final class TournamentResult {
+  private static final double Z_95 = 1.959963984540054;
+
+  private final List<String> entrantNames;
+  private final long[] wins;
+  private final long games;
+  private final long draws;
+  private final long turns;
+  private final long elapsedNanos;
+  private final int threads;
+
+  /**
+   * Constructs a TournamentResult.
+   *
+   * @param entrantNames the entrants' names
+   * @param wins         the number of games each entrant won, in the same order
+   * @param games        the number of games played
+   * @param draws        the number of games nobody won
+   * @param turns        the total number of turns over all games
+   * @param elapsedNanos the wall-clock time the games took
+   * @param threads      the number of threads that played them
+   */
+  public TournamentResult(List<String> entrantNames, long[] wins, long games, long draws,
+      long turns, long elapsedNanos, int threads) {
+    if (entrantNames.size() != wins.length) {
+      throw new IllegalArgumentException("Need one win count per entrant.");
+    }
+    this.entrantNames = Collections.unmodifiableList(entrantNames);
+    this.wins = wins.clone();
+    this.games = games;
+    this.draws = draws;
+    this.turns = turns;
+    this.elapsedNanos = elapsedNanos;
+    this.threads = threads;
+  }
+
+  /**
+   * Gets the entrants' names in the order they were entered.
+   *
+   * @return an unmodifiable list of names
+   */
+  public List<String> getEntrantNames() {
+    return entrantNames;
+  }
+
+  /**
+   * Gets the number of games played.
+   *
+   * @return the game count
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the number of games that reached the turn limit.
+   *
+   * @return the draw count
+   */
+  public long getDraws() {
+    return draws;
+  }
+
+  /**
+   * Gets the number of games an entrant won.
+   *
+   * @param entrant the entrant's index
+   * @return the win count
+   */
+  public long getWins(int entrant) {
+    return wins[entrant];
+  }
+
+  /**
+   * Gets the fraction of games an entrant won.
+   *
+   * @param entrant the entrant's index
+   * @return the win rate, or 0 if no games were played
+   */
+  public double getWinRate(int entrant) {
+    return games == 0 ? 0 : wins[entrant] / (double) games;
+  }
+
+  /**
+   * Gets the 95% confidence interval of an entrant's win rate.
+   *
+   * @param entrant the entrant's index
+   * @return the lower and upper bounds
+   */
+  public double[] getConfidenceInterval(int entrant) {
+    if (games == 0) {
+      return new double[] {0, 1};
+    }
+    double p = getWinRate(entrant);
+    double z2n = Z_95 * Z_95 / games;
+    double center = (p + z2n / 2) / (1 + z2n);
+    double half = Z_95 * Math.sqrt(p * (1 - p) / games + z2n / (4.0 * games)) / (1 + z2n);
+    return new double[] {Math.max(0, center - half), Math.min(1, center + half)};
+  }
+
+  /**
+   * Gets the average length of a game.
+   *
+   * @return the mean number of turns per game
+   */
+  public double getAverageTurns() {
+    return games == 0 ? 0 : turns / (double) games;
+  }
+
+  /**
+   * Gets the throughput of the run.
+   *
+   * @return games played per second of wall-clock time
+   */
+  public double getGamesPerSecond() {
+    return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Gets the number of threads that played the games.
+   *
+   * @return the pool's parallelism
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%d games on %d threads, %.0f games/s, %.1f turns/game, %d draws%n",
+        games, threads, getGamesPerSecond(), getAverageTurns(), draws));
+    for (int i = 0; i < wins.length; i++) {
+      double[] ci = getConfidenceInterval(i);
+      sb.append(String.format("  %-20s %7.3f%%  [%.3f%%, %.3f%%]%n", entrantNames.get(i),
+          100 * getWinRate(i), 100 * ci[0], 100 * ci[1]));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,193 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Writes procedurally generated mansion files in the format World reads, for
+ * scaling tests and load generation. Rooms sit in 4x4-cell slots laid out row
+ * by row, so no two rooms overlap. Within a component, every room touches the
+ * next room in its row and the first room of each row touches the one below,
+ * which keeps the component connected; corridor density is the chance that a
+ * room also opens onto the room below it. Components are separated by an
+ * empty row of slots so that nothing connects them.
+ *
+ * <p>Rooms and items are written as they are generated, so memory use does not
+ * depend on the size of the mansion.
+ */
+public final class MansionGenerator {
+  private static final int SLOT = 4; // cells per slot side; rooms span 1 to SLOT - 1 cells
+
+  private final long seed;
+  private final int rooms;
+  private final int columns;
+  private final double corridorDensity;
+  private final double itemDensity;
+  private final int components;
+
+  /**
+   * Constructs a MansionGenerator.
+   *
+   * @param seed            the seed; the same parameters and seed always give the
+   *                        same file
+   * @param rooms           the number of rooms
+   * @param columns         the number of rooms per row of the grid
+   * @param corridorDensity the chance, from 0 to 1, that a room connects to the
+   *                        room below it
+   * @param itemDensity     the average number of items per room
+   * @param components      the number of disconnected parts to split the rooms
+   *                        into
+   * @throws IllegalArgumentException if a parameter is out of range
+   */
+  public MansionGenerator(long seed, int rooms, int columns, double corridorDensity,
+      double itemDensity, int components) {
+    if (rooms < 1) {
+      throw new IllegalArgumentException("A mansion needs at least one room.");
+    }
+    if (columns < 1) {
+      throw new IllegalArgumentException("The grid needs at least one column.");
+    }
+    if (corridorDensity < 0 || corridorDensity > 1) {
+      throw new IllegalArgumentException("Corridor density must be between 0 and 1.");
+    }
+    if (itemDensity < 0) {
+      throw new IllegalArgumentException("Item density cannot be negative.");
+    }
+    if (components < 1 || components > rooms) {
+      throw new IllegalArgumentException("Components must be between 1 and the room count.");
+    }
+    this.seed = seed;
+    this.rooms = rooms;
+    this.columns = columns;
+    this.corridorDensity = corridorDensity;
+    this.itemDensity = itemDensity;
+    this.components = components;
+  }
+
+  /**
+   * Constructs a MansionGenerator for a single connected, roughly square
+   * mansion with half of the corridors open and one item for every four rooms.
+   *
+   * @param seed  the seed
+   * @param rooms the number of rooms
+   */
+  public MansionGenerator(long seed, int rooms) {
+    this(seed, rooms, (int) Math.ceil(Math.sqrt(rooms)), 0.5, 0.25, 1);
+  }
+
+  /**
+   * Gets the number of items the generated mansion will hold.
+   *
+   * @return the item count
+   */
+  public int getItemCount() {
+    return (int) Math.min(Integer.MAX_VALUE, Math.round(rooms * itemDensity));
+  }
+
+  /**
+   * Writes the mansion to a file.
+   *
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file) throws IOException {
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      write(out);
+    }
+  }
+
+  /**
+   * Writes the mansion to a writer. The writer is not closed.
+   *
+   * @param out where to write
+   * @throws IOException if writing fails
+   */
+  public void write(Writer out) throws IOException {
+    long slotRows = 0;
+    for (int k = 0; k < components; k++) {
+      slotRows += (componentSize(k) + columns - 1) / columns;
+    }
+    slotRows += components - 1; // an empty row between components
+    long height = slotRows * SLOT;
+    long width = (long) Math.min(columns, rooms) * SLOT;
+    out.write(height + " " + width + " Generated Mansion " + seed + "\n");
+    out.write("50 Doctor Lucky\n");
+    out.write("Fortune the Cat\n");
+    out.write(rooms + "\n");
+
+    SplittableRandom random = new SplittableRandom(seed);
+    StringBuilder line = new StringBuilder(64);
+    int room = 0;
+    long firstSlotRow = 0;
+    for (int k = 0; k < components; k++) {
+      int size = componentSize(k);
+      for (int j = 0; j < size; j++) {
+        int col = j % columns;
+        long slotRow = firstSlotRow + j / columns;
+        boolean lastInRow = col == columns - 1 || j == size - 1;
+        boolean lastRow = j + columns >= size;
+        boolean east = !lastInRow;
+        boolean south = !lastRow && (col == 0 || random.nextDouble() < corridorDensity);
+        // A room reaching the edge of its slot touches the room in the next slot.
+        int w = east ? SLOT - 1 : 1 + random.nextInt(SLOT - 2);
+        int h = south ? SLOT - 1 : 1 + random.nextInt(SLOT - 2);
+        long top = slotRow * SLOT;
+        long left = (long) col * SLOT;
+        line.setLength(0);
+        line.append(top).append(' ').append(left).append(' ').append(top + h).append(' ')
+            .append(left + w).append(" Room ").append(room).append('\n');
+        out.append(line);
+        room++;
+      }
+      firstSlotRow += (size + columns - 1) / columns + 1;
+    }
+
+    int items = getItemCount();
+    out.write(items + "\n");
+    for (int i = 0; i < items; i++) {
+      line.setLength(0);
+      line.append(random.nextInt(rooms)).append(' ').append(1 + random.nextInt(5))
+          .append(" Item ").append(i).append('\n');
+      out.append(line);
+    }
+    out.flush();
+  }
+
+  /**
+   * Splits the rooms as evenly as possible, with the earlier components taking
+   * one extra room when the count does not divide.
+   */
+  private int componentSize(int k) {
+    return rooms / components + (k < rooms % components ? 1 : 0);
+  }
+
+  /**
+   * Writes a generated mansion from the command line. Usage: java
+   * util.MansionGenerator file rooms [seed] [columns] [corridorDensity]
+   * [itemDensity] [components].
+   *
+   * @param args the output file, room count and optional parameters
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: java util.MansionGenerator file rooms [seed] [columns]"
+          + " [corridorDensity] [itemDensity] [components]");
+      return;
+    }
+    int rooms = Integer.parseInt(args[1]);
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+    int columns = args.length > 3 ? Integer.parseInt(args[3]) : (int) Math.ceil(Math.sqrt(rooms));
+    double corridors = args.length > 4 ? Double.parseDouble(args[4]) : 0.5;
+    double items = args.length > 5 ? Double.parseDouble(args[5]) : 0.25;
+    int components = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+    new MansionGenerator(seed, rooms, columns, corridors, items, components)
+        .write(Paths.get(args[0]));
+  }
+}
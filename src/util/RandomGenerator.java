@@ -1,13 +1,17 @@
 package util;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Provides random number generation with the option to use a fixed sequence for
- * predictable results in testing.
+ * predictable results in testing. A generator can also be seeded with
+ * {@link #seeded(long)} and then split into independent streams, one per game
+ * or player, so that parallel runs are reproducible from a single master seed.
  */
 public class RandomGenerator {
   private Random random;
+  private SplittableRandom splittable;
   private int[] fixedNumbers;
   private int index;
 
@@ -19,6 +23,35 @@ public class RandomGenerator {
     this.random = new Random();
   }
 
+  /**
+   * Constructs a RandomGenerator that draws from the given Random, for example
+   * one created with a seed so that a run can be reproduced.
+   *
+   * @param random the source of random numbers
+   * @throws IllegalArgumentException if random is null
+   */
+  public RandomGenerator(Random random) {
+    if (random == null) {
+      throw new IllegalArgumentException("Random source cannot be null.");
+    }
+    this.random = random;
+  }
+
+  /**
+   * Constructs a RandomGenerator that draws from the given SplittableRandom.
+   * Unlike a shared Random, it is not synchronized, so each thread should work
+   * on its own generator obtained with {@link #split()}.
+   *
+   * @param splittable the source of random numbers
+   * @throws IllegalArgumentException if splittable is null
+   */
+  public RandomGenerator(SplittableRandom splittable) {
+    if (splittable == null) {
+      throw new IllegalArgumentException("Random source cannot be null.");
+    }
+    this.splittable = splittable;
+  }
+
   /**
    * Constructs a RandomGenerator with a fixed sequence of numbers. This
    * constructor is useful for testing to produce predictable results.
@@ -34,6 +67,36 @@ public class RandomGenerator {
     this.index = 0;
   }
 
+  /**
+   * Creates a splittable generator whose whole output, including that of every
+   * generator split from it, is determined by the seed.
+   *
+   * @param seed the master seed
+   * @return the new generator
+   */
+  public static RandomGenerator seeded(long seed) {
+    return new RandomGenerator(new SplittableRandom(seed));
+  }
+
+  /**
+   * Creates a new generator whose numbers are independent of this one's. The
+   * split depends only on this generator's state, so splitting in the same
+   * order always gives the same streams. A fixed-sequence generator splits
+   * into a copy that starts the sequence over, and a Random-backed generator
+   * into one seeded from its next number.
+   *
+   * @return the new generator
+   */
+  public RandomGenerator split() {
+    if (splittable != null) {
+      return new RandomGenerator(splittable.split());
+    }
+    if (fixedNumbers != null) {
+      return new RandomGenerator(fixedNumbers);
+    }
+    return new RandomGenerator(new Random(random.nextLong()));
+  }
+
   /**
    * Returns a random integer in the range [0, bound). If a fixed sequence was
    * provided, numbers will be returned from that sequence in order.
@@ -42,9 +105,14 @@ public class RandomGenerator {
    * @return a random integer between 0 (inclusive) and bound (exclusive)
    */
   public int nextInt(int bound) {
+    if (splittable != null) {
+      return splittable.nextInt(bound);
+    }
     if (fixedNumbers != null) {
-      int num = fixedNumbers[index % fixedNumbers.length];
-      index++;
+      int num = fixedNumbers[index];
+      if (++index == fixedNumbers.length) {
+        index = 0;
+      }
       return num % bound;
     }
     return random.nextInt(bound);
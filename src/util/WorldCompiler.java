@@ -0,0 +1,30 @@
+package util;
+
+import java.io.IOException;
+import killdoctorlucky.model.World;
+
+/**
+ * Compiles a mansion file to the binary form that {@link World} opens without
+ * parsing, so that very large worlds start quickly. The compiled file can be
+ * given anywhere a mansion file is expected.
+ */
+public final class WorldCompiler {
+  private WorldCompiler() {
+  }
+
+  /**
+   * Compiles a mansion file from the command line. Usage: java
+   * util.WorldCompiler mansionFile compiledFile.
+   *
+   * @param args the mansion file to read and the compiled file to write
+   * @throws IOException if either file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: java util.WorldCompiler mansionFile compiledFile");
+      return;
+    }
+    World world = new World(args[0]);
+    world.writeCompiled(args[1]);
+  }
+}
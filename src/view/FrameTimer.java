@@ -0,0 +1,75 @@
+package view;
+
+import java.util.Locale;
+
+/**
+ * Counts how long the map takes to paint and how much of it each paint
+ * covers, so that a repaint after a move can be checked to cost about the
+ * same however large the map is.
+ */
+final class FrameTimer {
+  private long frames;
+  private long totalNanos;
+  private long totalPixels;
+  private long lastNanos;
+  private long lastPixels;
+  private long worstNanos;
+
+  /**
+   * Records one paint.
+   *
+   * @param nanos  how long it took
+   * @param pixels the area that was painted
+   */
+  void record(long nanos, long pixels) {
+    frames++;
+    totalNanos += nanos;
+    totalPixels += pixels;
+    lastNanos = nanos;
+    lastPixels = pixels;
+    worstNanos = Math.max(worstNanos, nanos);
+  }
+
+  /**
+   * Forgets all recorded paints.
+   */
+  void reset() {
+    frames = 0;
+    totalNanos = 0;
+    totalPixels = 0;
+    lastNanos = 0;
+    lastPixels = 0;
+    worstNanos = 0;
+  }
+
+  long getFrameCount() {
+    return frames;
+  }
+
+  double getAverageMillis() {
+    return frames == 0 ? 0 : totalNanos / 1e6 / frames;
+  }
+
+  double getLastMillis() {
+    return lastNanos / 1e6;
+  }
+
+  double getWorstMillis() {
+    return worstNanos / 1e6;
+  }
+
+  long getAveragePixels() {
+    return frames == 0 ? 0 : totalPixels / frames;
+  }
+
+  long getLastPixels() {
+    return lastPixels;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT,
+        "%d frames: last %.2f ms over %d px, average %.2f ms over %d px, worst %.2f ms", frames,
+        getLastMillis(), lastPixels, getAverageMillis(), getAveragePixels(), getWorstMillis());
+  }
+}
@@ -5,14 +5,22 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.GridLayout;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.imageio.ImageIO;
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -28,11 +36,14 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.JViewport;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.Iworld;
 
 /**
  * The main GUI for the Kill Doctor Lucky game. Draws a full-window spooky
@@ -53,8 +64,9 @@ public class GameView extends JFrame implements Iview {
   // Controller callback interface
   private IviewFeatures features;
 
-  // Background image
+  // Background image, and the copy stretched to the window
   private BufferedImage background;
+  private ScaledBackground scaledBackground;
 
   /**
    * Constructs the GameView GUI and initializes all components.
@@ -80,6 +92,8 @@ public class GameView extends JFrame implements Iview {
       background = tryLoadImage(backgroundFile);
     }
 
+    scaledBackground = background == null ? null : new ScaledBackground(background);
+
     // Make a content panel that paints the background
     JPanel content = new JPanel() {
       private static final long serialVersionUID = 1L;
@@ -87,20 +101,10 @@ public class GameView extends JFrame implements Iview {
       @Override
       protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (background != null && getWidth() > 0 && getHeight() > 0) {
-          // Log the panel's size to ensure it's valid
-          System.out.println("Drawing background image at size: " + getWidth() + "x" + getHeight());
-          // Draw the image, scaling it to the panel's size
-          g.drawImage(background, 0, 0, getWidth(), getHeight(), this);
+        if (scaledBackground != null && getWidth() > 0 && getHeight() > 0) {
+          scaledBackground.paint(g, getWidth(), getHeight(), getGraphicsConfiguration());
         } else {
-          // Fallback to a default color (e.g., dark gray) if image is null or panel size
-          // is invalid
-          if (background == null) {
-            System.out.println("Background image is null, using fallback color.");
-          } else {
-            System.out.println("Panel size invalid (" + getWidth() + "x" + getHeight()
-                + "), using fallback color.");
-          }
+          // Fallback to a default color if there is no image or the panel has no size yet
           g.setColor(Color.DARK_GRAY);
           g.fillRect(0, 0, getWidth(), getHeight());
         }
@@ -178,16 +182,36 @@ public class GameView extends JFrame implements Iview {
     fileMenu.addSeparator();
     fileMenu.add(quit);
 
+    final JMenu viewMenu = new JMenu("View");
+    JMenuItem zoomIn = new JMenuItem("Zoom In");
+    JMenuItem zoomOut = new JMenuItem("Zoom Out");
+    zoomIn.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, InputEvent.CTRL_DOWN_MASK));
+    zoomOut.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, InputEvent.CTRL_DOWN_MASK));
+    zoomIn.addActionListener(e -> zoomAroundCenter(-1));
+    zoomOut.addActionListener(e -> zoomAroundCenter(1));
+    JMenuItem frameTimes = new JMenuItem("Frame Times");
+    frameTimes.addActionListener(e -> appendToLog("Map paints: " + takeFrameStats()));
+    viewMenu.add(zoomIn);
+    viewMenu.add(zoomOut);
+    viewMenu.addSeparator();
+    viewMenu.add(frameTimes);
+
     final JMenu helpMenu = new JMenu("Help");
     JMenuItem about = new JMenuItem("About");
     about.addActionListener(e -> new AboutDialog(this).setVisible(true));
     helpMenu.add(about);
 
     menuBar.add(fileMenu);
+    menuBar.add(viewMenu);
     menuBar.add(helpMenu);
     setJMenuBar(menuBar);
   }
 
+  private void zoomAroundCenter(int steps) {
+    Rectangle view = mapScroll.getViewport().getViewRect();
+    mapPanel.zoom(steps, new Point((int) view.getCenterX(), (int) view.getCenterY()));
+  }
+
   private void initUserInterface(JPanel content) {
     // Make the status label non-opaque
     statusLabel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
@@ -249,9 +273,18 @@ public class GameView extends JFrame implements Iview {
     mapPanel.addMouseListener(new MouseAdapter() {
       @Override
       public void mouseClicked(MouseEvent e) {
+        // In pixels of the map as drawn; getMapScale() tells the zoom.
         features.handleMapClick(e.getX(), e.getY());
       }
     });
+    mapPanel.addMouseWheelListener(e -> {
+      if (e.isControlDown()) {
+        mapPanel.zoom(e.getWheelRotation(), e.getPoint());
+      } else {
+        // Listening here takes wheel events from the scroll pane, so pass them on.
+        mapScroll.dispatchEvent(SwingUtilities.convertMouseEvent(mapPanel, e, mapScroll));
+      }
+    });
   }
 
   private void initKeyBindings() {
@@ -297,10 +330,57 @@ public class GameView extends JFrame implements Iview {
 
   @Override
   public void redrawMap(BufferedImage map) {
-    mapPanel.setImage(map);
+    if (mapPanel.setImage(map)) {
+      mapPanel.repaint();
+    } else {
+      mapPanel.repaintEntities();
+    }
+  }
+
+  /**
+   * Draws the given world's map in tiles, only where it is on screen, instead
+   * of as one image. This works for mansions far too large for a single image,
+   * and lets the map be zoomed with Ctrl and the mouse wheel or from the View
+   * menu.
+   *
+   * @param world the world whose map to show
+   */
+  public void setMapWorld(Iworld world) {
+    mapPanel.setWorld(world);
     mapPanel.repaint();
   }
 
+  /**
+   * Gets how many pixels one grid cell of the map takes at the current zoom.
+   * Map clicks are reported in these pixels.
+   *
+   * @return pixels per grid cell
+   */
+  public int getMapScale() {
+    return mapPanel.scale();
+  }
+
+  /**
+   * Repaints the map after the players, target or pet have moved. Only the
+   * places they left and the places they moved to are repainted.
+   */
+  public void repaintMap() {
+    mapPanel.repaintEntities();
+  }
+
+  /**
+   * Describes how long the map has taken to paint and how much of it each
+   * paint covered, since the last call.
+   *
+   * @return the frame count, last, average and worst paint times and areas
+   */
+  public String takeFrameStats() {
+    FrameTimer frames = mapPanel.getFrameTimer();
+    String stats = frames.toString();
+    frames.reset();
+    return stats;
+  }
+
   @Override
   public void appendToLog(String text) {
     logArea.append(text + "\n");
@@ -341,22 +421,108 @@ public class GameView extends JFrame implements Iview {
   }
 
   /**
-   * Inner panel that draws the map image plus all entities.
+   * Inner panel that draws the map image plus all entities. The map only shows
+   * the rooms, so it is copied into an image compatible with the screen once per
+   * world and reused for every repaint; the entities are drawn on top each time.
    */
   private class MapPanel extends JPanel {
     private static final long serialVersionUID = 1L;
-    private BufferedImage img;
+    private static final int BASE_SCALE = 20; // pixels per cell in the full-map image
+    private static final int TILE_CACHE = 128; // about 32 MB of tiles
+    private BufferedImage source; // the image last passed to setImage
+    private Image img; // what is drawn: source, or a copy suited to the screen
+    private MapTileRenderer tiles; // used instead of img once a world is set
+    private int zoom = MapTileRenderer.DEFAULT_ZOOM;
+    private final Object targetKey = new Object(); // key for the target's icon
     private List<Iplayer> players = Collections.emptyList();
     private Ispace target;
     private Ipet pet;
-    private final int scale = 20;
-
-    void setImage(BufferedImage m) {
-      this.img = m;
+    private final Map<Object, Rectangle> painted = new IdentityHashMap<>(); // icons on screen
+    private final FrameTimer frames = new FrameTimer();
+
+    /**
+     * Sets the full-map image.
+     *
+     * @return false if it is the same image as before, so that only the
+     *         entities need repainting
+     */
+    boolean setImage(BufferedImage m) {
+      if (m == source && m != null && tiles == null) {
+        return false;
+      }
+      this.tiles = null;
+      this.source = m;
+      this.img = m == null ? null : toCompatibleImage(m);
       if (m != null) {
         setPreferredSize(new Dimension(m.getWidth(), m.getHeight()));
         revalidate();
       }
+      return true;
+    }
+
+    /**
+     * Copies an image into the pixel layout of the screen the panel is on, so
+     * that drawing it needs no conversion. Falls back to the image itself before
+     * the panel is shown.
+     */
+    private Image toCompatibleImage(BufferedImage m) {
+      GraphicsConfiguration gc = getGraphicsConfiguration();
+      if (gc == null || m.getColorModel().equals(gc.getColorModel())) {
+        return m;
+      }
+      BufferedImage copy = gc.createCompatibleImage(m.getWidth(), m.getHeight());
+      Graphics2D g2 = copy.createGraphics();
+      g2.drawImage(m, 0, 0, null);
+      g2.dispose();
+      return copy;
+    }
+
+    void setWorld(Iworld world) {
+      if (tiles != null && tiles.getWorld() == world) {
+        return; // a new game on the same mansion keeps its tiles
+      }
+      this.tiles = new MapTileRenderer(world, TILE_CACHE);
+      this.source = null;
+      this.img = null;
+      Dimension size = tiles.getMapSize(zoom);
+      setPreferredSize(size);
+      revalidate();
+    }
+
+    /**
+     * Pixels per grid cell at the current zoom.
+     */
+    int scale() {
+      return tiles == null ? BASE_SCALE : MapTileRenderer.SCALES[zoom];
+    }
+
+    /**
+     * Zooms the tiled map in (negative steps) or out (positive steps), keeping
+     * the map point under the anchor where it is on screen.
+     */
+    void zoom(int steps, Point anchor) {
+      if (tiles == null) {
+        return;
+      }
+      int next = Math.max(0, Math.min(MapTileRenderer.SCALES.length - 1, zoom + steps));
+      if (next == zoom) {
+        return;
+      }
+      JViewport viewport = mapScroll.getViewport();
+      Point view = viewport.getViewPosition();
+      double ratio = (double) MapTileRenderer.SCALES[next] / MapTileRenderer.SCALES[zoom];
+      zoom = next;
+      Dimension size = tiles.getMapSize(zoom);
+      setPreferredSize(size);
+      setSize(size);
+      revalidate();
+      Dimension extent = viewport.getExtentSize();
+      int x = (int) Math.round(anchor.x * ratio) - (anchor.x - view.x);
+      int y = (int) Math.round(anchor.y * ratio) - (anchor.y - view.y);
+      x = Math.max(0, Math.min(x, size.width - extent.width));
+      y = Math.max(0, Math.min(y, size.height - extent.height));
+      viewport.setViewPosition(new Point(x, y));
+      repaint();
     }
 
     void setEntities(List<Iplayer> players, Ispace target) {
@@ -368,17 +534,81 @@ public class GameView extends JFrame implements Iview {
       this.pet = pet;
     }
 
+    /**
+     * Repaints only where an entity was last drawn and where it is now, for
+     * every entity that has moved, appeared or gone since the last paint.
+     */
+    void repaintEntities() {
+      Map<Object, Rectangle> now = entityBounds();
+      for (Map.Entry<Object, Rectangle> entry : painted.entrySet()) {
+        if (!entry.getValue().equals(now.get(entry.getKey()))) {
+          repaint(entry.getValue());
+        }
+      }
+      for (Map.Entry<Object, Rectangle> entry : now.entrySet()) {
+        if (!entry.getValue().equals(painted.get(entry.getKey()))) {
+          repaint(entry.getValue());
+        }
+      }
+    }
+
+    /**
+     * Where each entity is drawn at the current zoom: the target, each player
+     * and the pet.
+     */
+    private Map<Object, Rectangle> entityBounds() {
+      Map<Object, Rectangle> bounds = new IdentityHashMap<>();
+      int scale = scale();
+      if (target != null) {
+        bounds.put(targetKey, iconBounds(target, scale, 6));
+      }
+      for (Iplayer p : players) {
+        bounds.put(p, iconBounds(p.getPlayerLocation(), scale, 5));
+      }
+      if (pet != null) {
+        bounds.put(pet, iconBounds(pet.getCurrentSpace(), scale, 6));
+      }
+      return bounds;
+    }
+
+    private Rectangle iconBounds(Ispace space, int scale, int half) {
+      int cx = ((space.getUpperColumn() + space.getLowerColumn()) / 2) * scale;
+      int cy = ((space.getUpperRow() + space.getLowerRow()) / 2) * scale;
+      return new Rectangle(cx - half, cy - half, 2 * half + 1, 2 * half + 1);
+    }
+
+    /**
+     * Gets the paint timings of this panel.
+     */
+    FrameTimer getFrameTimer() {
+      return frames;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
+      long start = System.nanoTime();
       super.paintComponent(g);
-      if (img == null) {
+      Graphics2D g2 = (Graphics2D) g;
+      Rectangle clip = g.getClipBounds();
+      if (clip == null) {
+        clip = new Rectangle(0, 0, getWidth(), getHeight());
+      }
+      if (tiles != null) {
+        Rectangle area = mapScroll.getViewport().getViewRect();
+        tiles.paint(g2, area.intersection(clip), zoom);
+      } else if (img != null) {
+        if (img == source) {
+          img = toCompatibleImage(source); // the panel was not on screen when the map arrived
+        }
+        g.drawImage(img, 0, 0, null);
+      } else {
         return;
       }
-      g.drawImage(img, 0, 0, null);
-      Graphics2D g2 = (Graphics2D) g;
+      Map<Object, Rectangle> now = entityBounds();
+      int scale = scale();
 
       // draw Dr. Lucky (red square)
-      if (target != null) {
+      if (target != null && clip.intersects(now.get(targetKey))) {
         int cx = ((target.getUpperColumn() + target.getLowerColumn()) / 2) * scale;
         int cy = ((target.getUpperRow() + target.getLowerRow()) / 2) * scale;
         g2.setColor(Color.RED);
@@ -388,6 +618,9 @@ public class GameView extends JFrame implements Iview {
       // draw players (blue circles)
       g2.setColor(Color.BLUE);
       for (Iplayer p : players) {
+        if (!clip.intersects(now.get(p))) {
+          continue;
+        }
         Ispace s = p.getPlayerLocation();
         int cx = ((s.getUpperColumn() + s.getLowerColumn()) / 2) * scale;
         int cy = ((s.getUpperRow() + s.getLowerRow()) / 2) * scale;
@@ -395,7 +628,7 @@ public class GameView extends JFrame implements Iview {
       }
 
       // draw pet (green triangle)
-      if (pet != null) {
+      if (pet != null && clip.intersects(now.get(pet))) {
         Ispace ps = pet.getCurrentSpace();
         int cx = ((ps.getUpperColumn() + ps.getLowerColumn()) / 2) * scale;
         int cy = ((ps.getUpperRow() + ps.getLowerRow()) / 2) * scale;
@@ -404,6 +637,24 @@ public class GameView extends JFrame implements Iview {
         int[] ys = { cy - 6, cy + 6, cy + 6 };
         g2.fillPolygon(xs, ys, 3);
       }
+
+      // Anything that moved without a call to repaintEntities is fixed up here:
+      // stale or new icons outside this paint's clip get a paint of their own.
+      for (Map.Entry<Object, Rectangle> entry : painted.entrySet()) {
+        Rectangle old = entry.getValue();
+        if (!old.equals(now.get(entry.getKey())) && !clip.contains(old)) {
+          repaint(old);
+        }
+      }
+      for (Map.Entry<Object, Rectangle> entry : now.entrySet()) {
+        Rectangle current = entry.getValue();
+        if (!current.equals(painted.get(entry.getKey())) && !clip.contains(current)) {
+          repaint(current);
+        }
+      }
+      painted.clear();
+      painted.putAll(now);
+      frames.record(System.nanoTime() - start, (long) clip.width * clip.height);
     }
   }
-}
\ No newline at end of file
+}
@@ -52,7 +52,8 @@ public interface IviewFeatures {
   void handleMovePet();
 
   /**
-   * Handle clicking on the map at the given coordinates.
+   * Handle clicking on the map at the given coordinates, in pixels of the map
+   * as drawn at its current zoom.
    *
    * @param x the x-coordinate of the click
    * @param y the y-coordinate of the click
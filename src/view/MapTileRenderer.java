@@ -0,0 +1,166 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.Iworld;
+
+/**
+ * Draws a world's map in square tiles, so that only the part on screen is ever
+ * drawn and no image ever has to hold the whole mansion. Tiles are drawn on
+ * demand at one of several zoom levels and the most recently used ones are
+ * kept. At the default zoom the tiles put together look exactly like
+ * {@link Iworld#generateWorldMap()}.
+ */
+final class MapTileRenderer {
+  /** Pixels per grid cell at each zoom level, most zoomed-in first. */
+  static final int[] SCALES = { 40, 20, 10, 5, 2, 1 };
+  /** The zoom level that matches the full-map image. */
+  static final int DEFAULT_ZOOM = 1;
+  /** Width and height of a tile, in pixels. */
+  static final int TILE_SIZE = 256;
+
+  private static final int LABEL_SCALE = 20; // smallest scale with room names
+  private static final int LABEL_MARGIN = 50; // extra room on the right for long labels
+  private static final int LABEL_REACH = 300; // how far a name can spill out of its room
+  private static final Color ROOM_FILL = new Color(230, 230, 230);
+
+  private final Iworld world;
+  private final Map<Long, BufferedImage> tiles;
+
+  /**
+   * Creates a renderer for a world.
+   *
+   * @param world    the world to draw; it must index its spaces
+   * @param capacity how many tiles to keep
+   */
+  MapTileRenderer(Iworld world, int capacity) {
+    this.world = world;
+    this.tiles = new LinkedHashMap<Long, BufferedImage>(capacity * 2, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Gets the world this renderer draws.
+   *
+   * @return the world
+   */
+  Iworld getWorld() {
+    return world;
+  }
+
+  /**
+   * Gets the size of the whole map at a zoom level.
+   *
+   * @param zoom the zoom level
+   * @return the map's size in pixels
+   */
+  Dimension getMapSize(int zoom) {
+    int scale = SCALES[zoom];
+    int margin = scale >= LABEL_SCALE ? LABEL_MARGIN : 0;
+    return new Dimension(world.getColumnCount() * scale + margin, world.getRowCount() * scale);
+  }
+
+  /**
+   * Draws the tiles that intersect an area of the map.
+   *
+   * @param g    the graphics to draw on, in map pixels
+   * @param area the part of the map to draw
+   * @param zoom the zoom level
+   */
+  void paint(Graphics2D g, Rectangle area, int zoom) {
+    if (area.isEmpty()) {
+      return;
+    }
+    Dimension size = getMapSize(zoom);
+    int col0 = Math.max(0, area.x / TILE_SIZE);
+    int row0 = Math.max(0, area.y / TILE_SIZE);
+    int col1 = Math.min((size.width - 1) / TILE_SIZE, (area.x + area.width - 1) / TILE_SIZE);
+    int row1 = Math.min((size.height - 1) / TILE_SIZE, (area.y + area.height - 1) / TILE_SIZE);
+    Graphics2D g2 = (Graphics2D) g.create();
+    g2.clipRect(0, 0, size.width, size.height); // the last tiles stick out past the map
+    for (int row = row0; row <= row1; row++) {
+      for (int col = col0; col <= col1; col++) {
+        g2.drawImage(getTile(zoom, col, row), col * TILE_SIZE, row * TILE_SIZE, null);
+      }
+    }
+    g2.dispose();
+  }
+
+  /**
+   * Gets one tile, drawing it if it is not cached.
+   *
+   * @param zoom the zoom level
+   * @param col  the tile column
+   * @param row  the tile row
+   * @return the tile image
+   */
+  BufferedImage getTile(int zoom, int col, int row) {
+    Long key = ((long) zoom << 56) | ((long) row << 28) | col;
+    BufferedImage tile = tiles.get(key);
+    if (tile == null) {
+      tile = drawTile(SCALES[zoom], col * TILE_SIZE, row * TILE_SIZE);
+      tiles.put(key, tile);
+    }
+    return tile;
+  }
+
+  /**
+   * Gets the number of tiles currently cached.
+   *
+   * @return the number of cached tiles
+   */
+  int getCachedTileCount() {
+    return tiles.size();
+  }
+
+  private BufferedImage drawTile(int scale, int x0, int y0) {
+    BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2 = tile.createGraphics();
+    g2.setColor(Color.WHITE);
+    g2.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+    g2.translate(-x0, -y0);
+
+    // Outlines reach one pixel past a room, and names can spill well past it.
+    boolean labels = scale >= LABEL_SCALE;
+    int reach = labels ? (LABEL_REACH + scale - 1) / scale : 0;
+    List<Ispace> rooms = world.findSpacesIn(y0 / scale - 1, x0 / scale - 1 - reach,
+        (y0 + TILE_SIZE) / scale + 1, (x0 + TILE_SIZE) / scale + 1 + reach);
+
+    FontMetrics fm = g2.getFontMetrics();
+    int textH = fm.getHeight();
+    for (Ispace space : rooms) {
+      int x = space.getUpperColumn() * scale;
+      int y = space.getUpperRow() * scale;
+      int w = (space.getLowerColumn() - space.getUpperColumn()) * scale;
+      int h = (space.getLowerRow() - space.getUpperRow()) * scale;
+
+      g2.setColor(ROOM_FILL);
+      g2.fillRect(x, y, w, h);
+      g2.setColor(Color.BLACK);
+      g2.drawRect(x, y, w, h);
+
+      if (labels) {
+        String name = space.getSpaceName();
+        int tx = x + (w - fm.stringWidth(name)) / 2;
+        int ty = y + (h - textH) / 2 + fm.getAscent();
+        g2.drawString(name, tx, ty);
+      }
+    }
+    g2.dispose();
+    return tile;
+  }
+}
@@ -0,0 +1,58 @@
+package view;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * A background image stretched to fill a panel. The stretched copy is made
+ * once per panel size, in a pixel layout compatible with the screen, so each
+ * repaint is a plain copy instead of a rescale of the full-size image.
+ */
+final class ScaledBackground {
+  private final BufferedImage source;
+  private BufferedImage scaled;
+  private GraphicsConfiguration scaledFor;
+
+  /**
+   * Wraps a full-size background image.
+   *
+   * @param source the image to stretch
+   */
+  ScaledBackground(BufferedImage source) {
+    this.source = source;
+  }
+
+  /**
+   * Draws the background stretched to the given size, rescaling only if the
+   * size or the screen has changed since the last call.
+   *
+   * @param g      the graphics to draw on
+   * @param width  the width to fill
+   * @param height the height to fill
+   * @param gc     the configuration of the screen being drawn to, or null
+   */
+  void paint(Graphics g, int width, int height, GraphicsConfiguration gc) {
+    if (scaled == null || scaled.getWidth() != width || scaled.getHeight() != height
+        || scaledFor != gc) {
+      scaled = scale(width, height, gc);
+      scaledFor = gc;
+    }
+    g.drawImage(scaled, 0, 0, null);
+  }
+
+  private BufferedImage scale(int width, int height, GraphicsConfiguration gc) {
+    BufferedImage image = gc != null
+        ? gc.createCompatibleImage(width, height, source.getTransparency())
+        : new BufferedImage(width, height, source.getType());
+    Graphics2D g2 = image.createGraphics();
+    // Done once per resize, so it can afford a smoother filter than painting did.
+    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g2.drawImage(source, 0, 0, width, height, null);
+    g2.dispose();
+    return image;
+  }
+}
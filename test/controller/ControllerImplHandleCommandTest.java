@@ -7,10 +7,12 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.ItargetCharacter;
 import killdoctorlucky.model.Iworld;
 import killdoctorlucky.model.TargetCharacter;
 import util.RandomGenerator;
@@ -30,7 +32,6 @@ public class ControllerImplHandleCommandTest {
     in = new StringReader("");
     out = new StringBuilder();
     ctrl = new ControllerImpl(world, in, out, 3, new RandomGenerator(0));
-    TargetCharacter.resetInstance();
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -58,6 +59,7 @@ public class ControllerImplHandleCommandTest {
 
   private static class DummyWorld implements Iworld {
     List<Iplayer> players = new ArrayList<>();
+    ItargetCharacter target = new TargetCharacter("Doctor Lucky", 50);
 
     @Override
     public List<Iplayer> getPlayers() {
@@ -141,6 +143,16 @@ public class ControllerImplHandleCommandTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return target;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
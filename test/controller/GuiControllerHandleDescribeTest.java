@@ -11,6 +11,7 @@ import java.util.List;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.ItargetCharacter;
 import killdoctorlucky.model.Iworld;
 import org.junit.Before;
 import org.junit.Test;
@@ -86,6 +87,16 @@ public class GuiControllerHandleDescribeTest {
       return "";
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean isGameNotOver() {
       return true;
@@ -139,7 +150,7 @@ public class GuiControllerHandleDescribeTest {
 
     @Override
     public Ipet getPet() {
-      throw new UnsupportedOperationException();
+      return null;
     }
 
     @Override
@@ -8,6 +8,7 @@ import java.util.List;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.ItargetCharacter;
 import killdoctorlucky.model.Iworld;
 import org.junit.Before;
 import org.junit.Test;
@@ -101,6 +102,16 @@ public class GuiControllerHandleInventoryClickTest {
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public Ispace getSpaceByName(String n) {
       throw new UnsupportedOperationException();
@@ -133,7 +144,7 @@ public class GuiControllerHandleInventoryClickTest {
 
     @Override
     public Ipet getPet() {
-      throw new UnsupportedOperationException();
+      return null;
     }
 
     @Override
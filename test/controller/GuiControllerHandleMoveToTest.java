@@ -9,6 +9,7 @@ import java.util.List;
 import killdoctorlucky.model.Ipet;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.ItargetCharacter;
 import killdoctorlucky.model.Iworld;
 import org.junit.Before;
 import org.junit.Test;
@@ -92,6 +93,16 @@ public class GuiControllerHandleMoveToTest {
       return "";
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public List<String> getPlayerItems() {
       throw new UnsupportedOperationException();
@@ -134,7 +145,7 @@ public class GuiControllerHandleMoveToTest {
 
     @Override
     public Ipet getPet() {
-      throw new UnsupportedOperationException();
+      return null;
     }
 
     @Override
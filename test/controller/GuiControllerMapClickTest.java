@@ -0,0 +1,61 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import killdoctorlucky.model.World;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that map clicks find player icons where they are drawn, at every zoom.
+ */
+public class GuiControllerMapClickTest {
+
+  private World world;
+
+  /**
+   * Loads the mansion with Alice in the Armory, whose icon is centred on cell
+   * (22, 22), and Bob in the Dining Hall, centred on cell (16, 15).
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = new World("res/mansion.txt");
+    world.setQuiet(true);
+    world.addPlayer("Alice", world.getSpaceByName("Armory").getSpaceId());
+    world.addPlayer("Bob", world.getSpaceByName("Dining Hall").getSpaceId());
+  }
+
+  @Test
+  public void testIconAtDefaultZoom() {
+    assertEquals("Alice", GuiController.findPlayerAt(world, 440, 440, 20).getPlayerName());
+    assertEquals("Alice", GuiController.findPlayerAt(world, 435, 444, 20).getPlayerName());
+    assertNull(GuiController.findPlayerAt(world, 445, 440, 20));
+    assertNull(GuiController.findPlayerAt(world, 450, 450, 20));
+  }
+
+  @Test
+  public void testIconIsTenPixelsWhenZoomedIn() {
+    // The icon covers 875..884 on both axes at 40 pixels a cell.
+    assertEquals("Alice", GuiController.findPlayerAt(world, 884, 875, 40).getPlayerName());
+    assertNull(GuiController.findPlayerAt(world, 885, 880, 40));
+    assertNull(GuiController.findPlayerAt(world, 888, 880, 40));
+    assertNull(GuiController.findPlayerAt(world, 880, 870, 40));
+  }
+
+  @Test
+  public void testIconIsTenPixelsWhenZoomedOut() {
+    // The icon covers 105..114 on both axes at 5 pixels a cell.
+    assertEquals("Alice", GuiController.findPlayerAt(world, 106, 113, 5).getPlayerName());
+    assertEquals("Bob", GuiController.findPlayerAt(world, 75, 80, 5).getPlayerName());
+    assertNull(GuiController.findPlayerAt(world, 115, 110, 5));
+  }
+
+  @Test
+  public void testOverlappingIconsGoToTheFirstPlayer() {
+    // At one pixel a cell the icons overlap; Alice comes first.
+    assertEquals("Alice", GuiController.findPlayerAt(world, 19, 19, 1).getPlayerName());
+    assertEquals("Bob", GuiController.findPlayerAt(world, 11, 12, 1).getPlayerName());
+  }
+}
@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.List;
 import killdoctorlucky.model.Iplayer;
 import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.ItargetCharacter;
 import killdoctorlucky.model.Iworld;
 import org.junit.Before;
 import org.junit.Test;
@@ -103,6 +104,16 @@ public class GuiControllerNextTurnTest {
       return "Doctor Lucky at " + targetLocation.getSpaceName();
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     // other methods unused...
     @Override
     public int findPlayerIndex(String n) {
@@ -0,0 +1,72 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.PagedWorld;
+import killdoctorlucky.model.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that map clicks work on a world paged in from a compiled file, without
+ * reading every room or drawing the whole map.
+ */
+public class GuiControllerPagedWorldTest {
+
+  private Path compiled;
+  private PagedWorld world;
+
+  /**
+   * Compiles the mansion and opens it paged, with Alice in the Armory. The
+   * world fails the test if anything asks for every room or the whole map.
+   */
+  @Before
+  public void setUp() throws IOException {
+    compiled = Files.createTempFile("gui", ".kdlw");
+    new World("res/mansion.txt").writeCompiled(compiled.toString());
+    world = new PagedWorld(compiled.toString(), 4) {
+      @Override
+      public List<Ispace> getSpaces() {
+        throw new AssertionError("every room was read");
+      }
+
+      @Override
+      public BufferedImage generateWorldMap() {
+        throw new AssertionError("the whole map was drawn");
+      }
+    };
+    world.setQuiet(true);
+    world.addPlayer("Alice", world.getSpaceByName("Armory").getSpaceId());
+  }
+
+  /**
+   * Removes the compiled file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(compiled);
+  }
+
+  @Test
+  public void testRoomClicksFindTheRoomAtEveryZoom() {
+    // The Armory is drawn over the cells of row 22, columns 19 to 25.
+    assertEquals("Armory", GuiController.findSpaceAt(world, 405, 445, 20).getSpaceName());
+    assertEquals("Armory", GuiController.findSpaceAt(world, 101, 111, 5).getSpaceName());
+    assertEquals("Armory", GuiController.findSpaceAt(world, 1039, 919, 40).getSpaceName());
+    assertNull(GuiController.findSpaceAt(world, 1, 1, 20));
+  }
+
+  @Test
+  public void testPlayerClicksFindThePlayer() {
+    assertEquals("Alice", GuiController.findPlayerAt(world, 884, 875, 40).getPlayerName());
+    assertNull(GuiController.findPlayerAt(world, 885, 880, 40));
+  }
+}
@@ -24,8 +24,6 @@ public class AttackCommandTest {
   @Before
   public void setUp() {
     mockWorld = new MockWorld();
-    // Reset Doctor Lucky
-    TargetCharacter.setInstance("Doctor Lucky", 50);
   }
 
   @Test
@@ -35,7 +33,7 @@ public class AttackCommandTest {
     attackCommand.execute(mockWorld);
 
     // Check if Doctor Lucky's HP decreased from 50 -> 40
-    assertEquals(40, TargetCharacter.getInstance().getTargetHealth());
+    assertEquals(40, mockWorld.getTargetCharacter().getTargetHealth());
   }
 
   @Test
@@ -45,7 +43,7 @@ public class AttackCommandTest {
     attackCommand.execute(mockWorld);
 
     // Confirm HP is still 50
-    assertEquals(50, TargetCharacter.getInstance().getTargetHealth());
+    assertEquals(50, mockWorld.getTargetCharacter().getTargetHealth());
   }
 
   /**
@@ -53,6 +51,7 @@ public class AttackCommandTest {
    */
   private class MockWorld implements Iworld {
     private Iplayer mockPlayer;
+    private final ItargetCharacter doctorLucky = new TargetCharacter("Doctor Lucky", 50);
 
     public MockWorld() {
       mockPlayer = new MockPlayer("MockPlayer");
@@ -143,6 +142,16 @@ public class AttackCommandTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return doctorLucky;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
@@ -195,7 +204,7 @@ public class AttackCommandTest {
         return;
       }
       removeItem(weapon);
-      TargetCharacter.getInstance().decreaseHealth(10);
+      mockWorld.getTargetCharacter().decreaseHealth(10);
       System.out.println(name + " attacked Doctor Lucky with " + weapon + "!");
     }
 
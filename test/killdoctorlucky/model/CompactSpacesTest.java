@@ -0,0 +1,157 @@
+package killdoctorlucky.model;
+
+import static killdoctorlucky.model.TestWorlds.assertSameWorld;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests that a world whose rooms were moved into compact storage answers and
+ * plays like the world of {@link Space} objects it was made from.
+ */
+public class CompactSpacesTest {
+
+  private static World compacted(String filePath) throws IOException {
+    World world = new World(filePath);
+    world.compactSpaces();
+    return world;
+  }
+
+  @Test
+  public void testStandardMansionAnswersTheSame() throws IOException {
+    World world = compacted("res/mansion.txt");
+    assertSameWorld(new World("res/mansion.txt"), world);
+    assertSame(world.getSpace(3), world.getSpace(3));
+    assertSame(world.getSpace(0), world.getPet().getCurrentSpace());
+  }
+
+  @Test
+  public void testGeneratedMansionAnswersTheSame() throws IOException {
+    Path text = Files.createTempFile("compact", ".txt");
+    try {
+      new MansionGenerator(23L, 3000, 40, 0.5, 1.5, 3).write(text);
+      assertSameWorld(new World(text.toString()), compacted(text.toString()));
+    } finally {
+      Files.delete(text);
+    }
+  }
+
+  @Test
+  public void testPlaysTheSame() throws IOException {
+    World world = new World("res/mansion.txt");
+    World compact = compacted("res/mansion.txt");
+    for (World w : Arrays.asList(world, compact)) {
+      w.setQuiet(true);
+      w.addPlayer("Alice", 8);
+      w.addPlayer("Bob", 5);
+    }
+    String item = world.getSpace(8).getItems().get(0);
+    world.getPlayers().get(0).pickUpItem(item);
+    compact.getPlayers().get(0).pickUpItem(item);
+    compact.getSpace(8).addItem(new Item(8, 1, "Spoon"));
+    world.getSpace(8).addItem(new Item(8, 1, "Spoon"));
+    for (int turn = 0; turn < 30; turn++) {
+      world.moveTargetCharacter();
+      compact.moveTargetCharacter();
+      world.movePetAutomatically();
+      compact.movePetAutomatically();
+      assertEquals(world.getTargetLocation().getSpaceId(),
+          compact.getTargetLocation().getSpaceId());
+      Ispace petSpace = compact.getPet().getCurrentSpace();
+      assertEquals(world.getPet().getCurrentSpace().getSpaceId(), petSpace.getSpaceId());
+      assertTrue(petSpace.getHasPet());
+      assertEquals(world.canPlayerSee(world.getPlayers().get(0), world.getPlayers().get(1)),
+          compact.canPlayerSee(compact.getPlayers().get(0), compact.getPlayers().get(1)));
+    }
+    assertSameWorld(world, compact);
+    assertEquals(world.getPlayerItems(), compact.getPlayerItems());
+  }
+
+  @Test
+  public void testCopiesGetFreshRooms() throws IOException {
+    World compact = compacted("res/mansion.txt");
+    World copy = new World(compact);
+    compact.setQuiet(true);
+    compact.addPlayer("Alice", 8);
+    String item = compact.getSpace(8).getItems().get(0);
+    compact.getPlayers().get(0).pickUpItem(item);
+
+    assertNotSame(compact.getSpace(8), copy.getSpace(8));
+    assertFalse(compact.getSpace(8).getItems().contains(item));
+    assertTrue(copy.getSpace(8).getItems().contains(item));
+    assertSame(copy.getSpace(8), copy.getSpaceByName(compact.getSpace(8).getSpaceName()));
+    assertTrue(copy.getSpace(0).getHasPet());
+  }
+
+  @Test
+  public void testDuplicateAndRewiredNamesSurvive() throws IOException {
+    Path text = Files.createTempFile("duplicates", ".txt");
+    try {
+      Files.write(text, Arrays.asList("10 10 Mansion", "5 Doctor", "Cat", "3",
+          "0 0 1 1 Hall", "2 0 3 1 hall", "0 2 1 3 Den", "1", "0 4 Knife"),
+          StandardCharsets.UTF_8);
+      World world = new World(text.toString());
+      ((Space) world.getSpace(2)).addNeighbor("Nowhere");
+      List<String> neighbors = new ArrayList<>(world.getSpace(2).getNeighbors());
+      world.compactSpaces();
+
+      assertEquals(neighbors, world.getSpace(2).getNeighbors());
+      assertSame(world.getSpace(0), world.getSpaceByName("HALL"));
+      assertSame(world.getSpace(0), world.getSpaceByName("hall"));
+      assertEquals(Arrays.asList("Knife"), world.getSpace(0).getItems());
+    } finally {
+      Files.delete(text);
+    }
+  }
+
+  @Test
+  public void testCompactWorldsCompile() throws IOException {
+    Path compiled = Files.createTempFile("compact", ".kdlw");
+    try {
+      World compact = compacted("res/mansion.txt");
+      compact.writeCompiled(compiled.toString());
+      assertSameWorld(new World("res/mansion.txt"), new World(compiled.toString()));
+    } finally {
+      Files.delete(compiled);
+    }
+  }
+
+  @Test
+  public void testOpenCompactsLargeWorlds() throws IOException {
+    Path text = Files.createTempFile("large", ".txt");
+    try {
+      new MansionGenerator(37L, World.COMPACT_ROOMS).write(text);
+      Iworld world = World.open(text.toString());
+      assertTrue(world.getSpace(5) instanceof CompactSpaces.Room);
+      assertFalse(World.open("res/mansion.txt").getSpace(5) instanceof CompactSpaces.Room);
+    } finally {
+      Files.delete(text);
+    }
+  }
+
+  @Test
+  public void testPlayersMustComeAfter() throws IOException {
+    World world = new World("res/mansion.txt");
+    world.setQuiet(true);
+    world.addPlayer("Alice", 0);
+    try {
+      world.compactSpaces();
+      fail("Expected an IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("players"));
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package killdoctorlucky.model;
+
+import static killdoctorlucky.model.TestWorlds.assertSameWorld;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests that a world compiled to a binary file opens as the same world it was
+ * compiled from.
+ */
+public class CompiledWorldTest {
+
+  private Path compiled;
+
+  /**
+   * Makes a file to compile worlds into.
+   */
+  @Before
+  public void setUp() throws IOException {
+    compiled = Files.createTempFile("world", ".kdlw");
+  }
+
+  /**
+   * Removes the compiled file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(compiled);
+  }
+
+  private World roundTrip(World world) throws IOException {
+    world.writeCompiled(compiled.toString());
+    return new World(compiled.toString());
+  }
+
+  @Test
+  public void testStandardMansionRoundTrips() throws IOException {
+    World world = new World("res/mansion.txt");
+    World opened = roundTrip(world);
+    assertTrue(CompiledWorld.isCompiled(compiled.toString()));
+    assertFalse(CompiledWorld.isCompiled("res/mansion.txt"));
+    assertSameWorld(world, opened);
+  }
+
+  @Test
+  public void testGeneratedMansionRoundTrips() throws IOException {
+    World world = TestWorlds.generated(new MansionGenerator(7L, 3000, 40, 0.5, 1.5, 3));
+    assertSameWorld(world, roundTrip(world));
+  }
+
+  @Test
+  public void testCompiledWorldPlaysLikeTheOriginal() throws IOException {
+    World world = new World("res/mansion.txt");
+    World opened = roundTrip(world);
+    for (World w : Arrays.asList(world, opened)) {
+      w.addPlayer("Alice", 0);
+      w.addPlayer("Bob", 5);
+    }
+    for (int turn = 0; turn < 30; turn++) {
+      world.moveTargetCharacter();
+      opened.moveTargetCharacter();
+      world.movePetAutomatically();
+      opened.movePetAutomatically();
+      assertEquals(world.getTargetLocation().getSpaceId(),
+          opened.getTargetLocation().getSpaceId());
+      assertEquals(world.getPet().getCurrentSpace().getSpaceId(),
+          opened.getPet().getCurrentSpace().getSpaceId());
+      assertEquals(world.canPlayerSee(world.getPlayers().get(0), world.getPlayers().get(1)),
+          opened.canPlayerSee(opened.getPlayers().get(0), opened.getPlayers().get(1)));
+    }
+  }
+
+  @Test
+  public void testCopiesGetFreshRooms() throws IOException {
+    World opened = roundTrip(new World("res/mansion.txt"));
+    Ispace room = opened.getSpace(8);
+    String item = room.getItems().get(0);
+    ((Space) room).getItemObjects().remove(0);
+
+    World copy = new World(opened);
+    assertNotSame(room, copy.getSpace(8));
+    assertTrue(copy.getSpace(8).getItems().contains(item));
+    assertFalse(opened.getSpace(8).getItems().contains(item));
+    assertSame(copy.getSpace(8), copy.getSpaceByName(room.getSpaceName()));
+  }
+
+  @Test
+  public void testDuplicateAndRewiredNamesSurvive() throws IOException {
+    Path text = Files.createTempFile("duplicates", ".txt");
+    try {
+      Files.write(text, Arrays.asList("10 10 Mansion", "5 Doctor", "Cat", "3",
+          "0 0 1 1 Hall", "2 0 3 1 hall", "0 2 1 3 Den", "1", "0 4 Knife"),
+          StandardCharsets.UTF_8);
+      World world = new World(text.toString());
+      ((Space) world.getSpace(2)).addNeighbor("Nowhere");
+      World opened = roundTrip(world);
+
+      assertEquals(world.getSpace(2).getNeighbors(), opened.getSpace(2).getNeighbors());
+      assertEquals(world.getNeighborCount(2), opened.getNeighborCount(2));
+      // The first room wins on names that differ only in case, as when loaded from text.
+      assertSame(opened.getSpace(0), opened.getSpaceByName("HALL"));
+      assertSame(opened.getSpace(0), opened.getSpaceByName("hall"));
+      assertEquals(0, world.getSpaceByName("hall").getSpaceId());
+      assertEquals(Arrays.asList("Knife"), opened.getSpace(0).getItems());
+    } finally {
+      Files.delete(text);
+    }
+  }
+
+  @Test
+  public void testOtherVersionsAreRejected() throws IOException {
+    new World("res/mansion.txt").writeCompiled(compiled.toString());
+    try (RandomAccessFile file = new RandomAccessFile(compiled.toFile(), "rw")) {
+      file.seek(4);
+      file.writeInt(CompiledWorld.VERSION + 1);
+    }
+    try {
+      new World(compiled.toString());
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("version"));
+    }
+  }
+
+  @Test
+  public void testTruncatedFilesAreRejected() throws IOException {
+    new World("res/mansion.txt").writeCompiled(compiled.toString());
+    try (RandomAccessFile file = new RandomAccessFile(compiled.toFile(), "rw")) {
+      file.setLength(file.length() - 1);
+    }
+    try {
+      new World(compiled.toString());
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("truncated"));
+    }
+  }
+
+  @Test
+  public void testRoomsAreMadeOnlyWhenAsked() throws IOException {
+    CompiledWorld file = CompiledWorld.open(compiledMansion());
+    List<Ispace> rooms = file.spaces();
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < file.getRoomCount(); i++) {
+      names.add(file.roomName(i));
+    }
+    assertEquals(new World("res/mansion.txt").getSpaces().size(), names.size());
+    assertSame(rooms.get(4), rooms.get(4));
+    assertEquals(names.get(4), rooms.get(4).getSpaceName());
+    assertNotSame(rooms.get(4), file.spaces().get(4));
+  }
+
+  @Test
+  public void testPositionsComeFromTheFilesGrid() throws IOException {
+    TestWorlds.generated(new MansionGenerator(11L, 2000, 30, 0.5, 1.5, 1))
+        .writeCompiled(compiled.toString());
+    World world = new World(compiled.toString());
+    CompiledWorld file = CompiledWorld.open(compiled.toString());
+    List<Ispace> rooms = new ArrayList<>();
+    for (int i = 0; i < file.getRoomCount(); i++) {
+      rooms.add(file.room(i));
+    }
+    SpaceGrid grid = new SpaceGrid(rooms);
+    for (int row = -2; row < file.getRows() + 2; row += 3) {
+      for (int col = -2; col < file.getColumns() + 2; col++) {
+        assertEquals(grid.spaceAt(row, col), file.roomAt(row, col));
+      }
+      assertArrayEquals(grid.query(row, 5, row + 7, 40), file.roomsIn(row, 5, row + 7, 40));
+    }
+    assertArrayEquals(new int[0], file.roomsIn(10, 10, 9, 20));
+    assertEquals(grid.spaceAt(4, 4), world.findSpaceIdAt(4, 4));
+    assertEquals(grid.query(3, 3, 12, 12).length, world.findSpacesIn(3, 3, 12, 12).size());
+  }
+
+  @Test
+  public void testDamagedGridsAreRejected() throws IOException {
+    new World("res/mansion.txt").writeCompiled(compiled.toString());
+    try (RandomAccessFile file = new RandomAccessFile(compiled.toFile(), "rw")) {
+      file.seek(76); // grid rows
+      file.writeInt(0);
+    }
+    try {
+      new World(compiled.toString());
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("damaged"));
+    }
+  }
+
+  private String compiledMansion() throws IOException {
+    new World("res/mansion.txt").writeCompiled(compiled.toString());
+    return compiled.toString();
+  }
+}
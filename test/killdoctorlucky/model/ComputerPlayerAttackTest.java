@@ -29,7 +29,6 @@ public class ComputerPlayerAttackTest {
     room = new Space(0, 0, 1, 1, "BattleRoom");
     world = new DummyWorld(Arrays.asList(room));
     world.setTargetLocation(room);
-    TargetCharacter.setInstance("Doctor Lucky", 50);
     // Set up a fixed random generator that returns 2 (attack action)
     cpu = new ComputerPlayerTestHelper("CPU", room, world, new RandomGenerator(2));
     world.getPlayers().add(cpu);
@@ -42,7 +41,7 @@ public class ComputerPlayerAttackTest {
     cpu.pickUpItemForTest(new Item(0, 10, "Strong Sword"));
     cpu.takeTurn();
     // Expect Doctor Lucky's health to drop by 10.
-    assertEquals(40, TargetCharacter.getInstance().getTargetHealth());
+    assertEquals(40, world.getTargetCharacter().getTargetHealth());
   }
 
   private static class DummyWorld extends World {
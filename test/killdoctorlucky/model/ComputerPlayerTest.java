@@ -34,9 +34,6 @@ public class ComputerPlayerTest {
 
     // Optionally add a human player for reference
     world.addPlayer("Alice", 0);
-
-    // Reset Doctor Lucky's health
-    TargetCharacter.setInstance("Doctor Lucky", 50);
   }
 
   @Test
@@ -75,7 +72,6 @@ public class ComputerPlayerTest {
     // We place CPU & Doctor Lucky in same room, give CPU a weapon
     Ispace kitchen = world.getSpaceByName("Kitchen");
     cpu.moveTo(kitchen);
-    TargetCharacter.setInstance("Doctor Lucky", 50); // reset
     // Force the target location to Kitchen as well
     // In your actual code, the target might not be forced easily,
     // but we do so here for testing
@@ -87,7 +83,7 @@ public class ComputerPlayerTest {
     cpu.takeTurn(); // nextInt(4) => 2 => Attack
     // If CPU had "Test Weapon," it should have used it
     assertEquals("Doctor Lucky's health should be 40 after a 10 damage weapon", 40,
-        TargetCharacter.getInstance().getTargetHealth());
+        world.getTargetCharacter().getTargetHealth());
   }
 
   @Test
@@ -0,0 +1,181 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import util.MansionGenerator;
+import util.RandomGenerator;
+
+/**
+ * Tests the walking-distance oracles and the computer player's use of them.
+ */
+public class DistanceOracleTest {
+
+  // A path 0 - 1 - 2 - 3 plus a separate pair 4 - 5.
+  private static final int[] OFFSETS = { 0, 1, 3, 5, 6, 7, 8 };
+  private static final int[] TARGETS = { 1, 0, 2, 1, 3, 2, 5, 4 };
+
+  @Test
+  public void testMatrixDistances() {
+    DistanceOracle oracle = new MatrixDistanceOracle(OFFSETS, TARGETS);
+    assertEquals(0, oracle.distance(2, 2));
+    assertEquals(3, oracle.distance(0, 3));
+    assertEquals(3, oracle.distance(3, 0));
+    assertEquals(1, oracle.distance(5, 4));
+    assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(0, 5));
+  }
+
+  @Test
+  public void testLandmarkBoundsNeverExceedTrueDistance() {
+    DistanceOracle exact = new MatrixDistanceOracle(OFFSETS, TARGETS);
+    DistanceOracle landmarks = new LandmarkDistanceOracle(OFFSETS, TARGETS, 3);
+    for (int a = 0; a < 6; a++) {
+      for (int b = 0; b < 6; b++) {
+        int bound = landmarks.distance(a, b);
+        assertTrue(bound <= exact.distance(a, b));
+        if (exact.distance(a, b) == DistanceOracle.UNREACHABLE) {
+          assertEquals(DistanceOracle.UNREACHABLE, bound);
+        }
+      }
+    }
+    // The ends of the path are landmarks, so distances along it are exact.
+    assertEquals(3, landmarks.distance(0, 3));
+    assertEquals(2, landmarks.distance(1, 3));
+  }
+
+  @Test
+  public void testNextStepsFollowShortestWalks() {
+    for (DistanceOracle oracle : Arrays.asList(new MatrixDistanceOracle(OFFSETS, TARGETS),
+        new LandmarkDistanceOracle(OFFSETS, TARGETS, 1))) {
+      assertEquals(1, oracle.nextStep(0, 3));
+      assertEquals(2, oracle.nextStep(3, 0));
+      assertEquals(-1, oracle.nextStep(1, 1));
+      assertEquals(-1, oracle.nextStep(0, 5));
+      assertEquals(4, oracle.nextStep(5, 4));
+    }
+  }
+
+  /**
+   * Generates a mansion and gets its adjacency as CSR offsets and targets.
+   */
+  private static int[][] generatedGraph() throws IOException {
+    World world = TestWorlds.generated(new MansionGenerator(29L, 1500, 40, 0.3, 1, 1));
+    int n = world.getSpaceCount();
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] = offsets[i] + world.getNeighborCount(i);
+    }
+    int[] targets = new int[offsets[n]];
+    for (int i = 0; i < n; i++) {
+      for (int k = 0; k < world.getNeighborCount(i); k++) {
+        targets[offsets[i] + k] = world.getNeighborId(i, k);
+      }
+    }
+    return new int[][] { offsets, targets };
+  }
+
+  @Test
+  public void testLandmarkStepsMatchTheTable() throws IOException {
+    // Landmark bounds are loose here, so the smallest bound is often the wrong
+    // way; the search must still find the same first moves as the table.
+    int[][] graph = generatedGraph();
+    int n = graph[0].length - 1;
+    DistanceOracle exact = new MatrixDistanceOracle(graph[0], graph[1]);
+    DistanceOracle landmarks = new LandmarkDistanceOracle(graph[0], graph[1], 2);
+    // The second round asks again for the same pairs, mostly answered from
+    // the cache of first moves, with some pairs pushed out by others.
+    for (int round = 0; round < 2; round++) {
+      Random random = new Random(31L);
+      for (int pair = 0; pair < 6000; pair++) {
+        int from = random.nextInt(n);
+        int to = random.nextInt(n);
+        int step = exact.nextStep(from, to);
+        assertEquals(step, landmarks.nextStep(from, to));
+        if (step >= 0) {
+          assertEquals(exact.distance(from, to) - 1, exact.distance(step, to));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLandmarkStepsFromManyThreads() throws IOException {
+    int[][] graph = generatedGraph();
+    int n = graph[0].length - 1;
+    DistanceOracle exact = new MatrixDistanceOracle(graph[0], graph[1]);
+    DistanceOracle landmarks = new LandmarkDistanceOracle(graph[0], graph[1], 2);
+    long wrong = IntStream.range(0, 20_000).parallel().filter(pair -> {
+      int from = (int) ((pair * 2654435761L) % n);
+      int to = (int) ((pair * 40503L + 7) % n);
+      return exact.nextStep(from, to) != landmarks.nextStep(from, to);
+    }).count();
+    assertEquals(0, wrong);
+  }
+
+  @Test
+  public void testWorldDistancesOnMansion() throws IOException {
+    World world = new World("res/mansion.txt");
+    Ispace armory = world.getSpaceByName("Armory");
+    assertEquals(0, world.getDistance(armory, armory));
+    assertEquals(1, world.getDistance(armory, world.getSpaceByName("Dining Hall")));
+    assertEquals(-1, world.getDistance(armory, new Space(0, 0, 1, 1, "Elsewhere")));
+  }
+
+  @Test
+  public void testComputerPlayerWalksAroundDeadEnd() throws IOException {
+    // The dead end sits between the start and the target as the crow flies,
+    // but the only way through is down, along the bottom, and back up.
+    Path file = Files.createTempFile("maze", ".txt");
+    Files.write(file, Arrays.asList("8 8 Maze", "50 Doctor Lucky", "Mi Meow", "6",
+        "2 6 3 7 Target", "2 0 3 1 Start", "2 2 3 3 Dead End", "4 0 5 1 West Hall",
+        "6 0 7 7 South Hall", "4 6 5 7 East Hall", "0"));
+    World world = new World(file.toString());
+    Files.delete(file);
+
+    ComputerPlayer cpu = new ComputerPlayer("CPU", world.getSpaceByName("Start"), world,
+        new RandomGenerator(0));
+    world.getPlayers().add(cpu);
+    for (int turn = 0; turn < 4; turn++) {
+      cpu.takeTurn();
+    }
+    assertEquals("Target", cpu.getPlayerLocation().getSpaceName());
+  }
+
+  @Test
+  public void testComputerPlayerSeenWithTargetStepsOutToNearestNeighbor() throws IOException {
+    // Both neighbors are one move from the target; Near is closer as the crow
+    // flies, though Far comes first in adjacency order.
+    Path file = Files.createTempFile("seen", ".txt");
+    Files.write(file, Arrays.asList("8 8 Corner", "50 Doctor Lucky", "Mi Meow", "3",
+        "0 0 1 1 Hall", "2 0 7 1 Far", "0 2 1 3 Near", "0"));
+    World world = new World(file.toString());
+    Files.delete(file);
+
+    Ispace hall = world.getSpaceByName("Hall");
+    assertEquals(hall, world.getTargetLocation());
+    ComputerPlayer cpu = new ComputerPlayer("CPU", hall, world, new RandomGenerator(0));
+    world.getPlayers().add(cpu);
+    world.getPlayers().add(new Player("Watcher", hall, world));
+
+    assertEquals("moved to Near", cpu.takeTurn());
+  }
+
+  @Test
+  public void testComputerPlayerLeavesSpaceTheWorldHasNotIndexed() throws IOException {
+    World world = new World("res/mansion.txt");
+    Space annex = new Space(36, 0, 37, 1, "Annex");
+    annex.addNeighbor("Nowhere");
+    annex.addNeighbor("Kitchen");
+    ComputerPlayer cpu = new ComputerPlayer("CPU", annex, world, new RandomGenerator(0));
+    world.getPlayers().add(cpu);
+
+    assertEquals("moved to Kitchen", cpu.takeTurn());
+  }
+}
@@ -28,8 +28,6 @@ public class GameEndConditionsTest {
     room = new Space(0, 0, 1, 1, "Parlor");
     world = new DummyWorld(java.util.Collections.singletonList(room));
     world.setTargetLocation(room);
-    // Reset Doctor Lucky's health.
-    TargetCharacter.setInstance("Doctor Lucky", 50);
     player = new PlayerTestHelper("Tester", room, world);
   }
 
@@ -38,7 +36,7 @@ public class GameEndConditionsTest {
     // Player picks up a weapon that does 50 damage.
     player.pickUpItemForTest(new Item(0, 50, "Mega Sword"));
     player.attackDoctorLucky("Mega Sword");
-    assertEquals(0, TargetCharacter.getInstance().getTargetHealth());
+    assertEquals(0, world.getTargetCharacter().getTargetHealth());
     assertFalse(world.isGameNotOver());
   }
 
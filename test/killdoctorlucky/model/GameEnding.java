@@ -13,7 +13,7 @@ import org.junit.Test;
  */
 public class GameEnding {
   private World world;
-  private TargetCharacter doctorLucky;
+  private ItargetCharacter doctorLucky;
 
   /**
    * Setup for testing game over conditions.
@@ -22,9 +22,7 @@ public class GameEnding {
   public void setUp() throws IOException {
     world = new World("res/mansion.txt");
     world.addPlayer("Alice", 0);
-    // Reset Doctor Lucky's health for consistency
-    TargetCharacter.setInstance("Doctor Lucky", 50);
-    doctorLucky = TargetCharacter.getInstance();
+    doctorLucky = world.getTargetCharacter();
   }
 
   @Test
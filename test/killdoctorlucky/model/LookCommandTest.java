@@ -127,6 +127,16 @@ public class LookCommandTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
@@ -149,6 +149,16 @@ public class MoveCommandTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
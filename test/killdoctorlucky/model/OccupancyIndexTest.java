@@ -0,0 +1,166 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests that the occupancy index in World answers "who can see this player?"
+ * and "who is here?" exactly as asking every player in turn does.
+ */
+public class OccupancyIndexTest {
+
+  private World world;
+
+  /**
+   * Loads the standard mansion.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = new World("res/mansion.txt");
+    world.setQuiet(true);
+  }
+
+  /**
+   * The check every player used to make before attacking.
+   */
+  private static Iplayer scanForObserver(Iworld world, Iplayer player) {
+    for (Iplayer other : world.getPlayers()) {
+      if (!other.getPlayerName().equalsIgnoreCase(player.getPlayerName())
+          && world.canPlayerSee(other, player)) {
+        return other;
+      }
+    }
+    return null;
+  }
+
+  private static String playersPresent(String spaceInfo) {
+    return spaceInfo.split("\n")[2];
+  }
+
+  private static String scanForPlayersPresent(Iworld world, Ispace space) {
+    StringBuilder sb = new StringBuilder("Players Present: [");
+    String separator = "";
+    for (Iplayer player : world.getPlayers()) {
+      if (player.getPlayerLocation().getSpaceName().equalsIgnoreCase(space.getSpaceName())) {
+        sb.append(separator).append(player.getPlayerName());
+        separator = ", ";
+      }
+    }
+    return sb.append("]").toString();
+  }
+
+  @Test
+  public void testObserverInNeighboringRoom() {
+    Ispace armory = world.getSpaceByName("Armory");
+    Ispace nextDoor = world.getSpace(world.getNeighborId(armory.getSpaceId(), 0));
+    world.addPlayer("Alice", armory.getSpaceId());
+    world.addPlayer("Bob", nextDoor.getSpaceId());
+    Iplayer alice = world.getPlayers().get(0);
+    assertEquals("Bob", world.findObserver(alice).get().getPlayerName());
+  }
+
+  @Test
+  public void testObserverFollowsMoves() {
+    Ispace armory = world.getSpaceByName("Armory");
+    Ispace nextDoor = world.getSpace(world.getNeighborId(armory.getSpaceId(), 0));
+    world.addPlayer("Alice", armory.getSpaceId());
+    world.addPlayer("Bob", armory.getSpaceId());
+    Iplayer alice = world.getPlayers().get(0);
+    Iplayer bob = world.getPlayers().get(1);
+    assertTrue(world.findObserver(alice).isPresent());
+
+    // Walk Bob away until Alice is out of sight.
+    bob.moveTo(nextDoor);
+    assertTrue(world.findObserver(alice).isPresent());
+    Ispace further = nextDoor;
+    for (int k = 0; k < world.getNeighborCount(nextDoor.getSpaceId()); k++) {
+      Ispace candidate = world.getSpace(world.getNeighborId(nextDoor.getSpaceId(), k));
+      if (candidate != armory && !world.areNeighbors(candidate, armory)) {
+        further = candidate;
+      }
+    }
+    bob.moveTo(further);
+    assertEquals(scanForObserver(world, alice), world.findObserver(alice).orElse(null));
+  }
+
+  @Test
+  public void testPlayersWithTheSameNameDoNotCount() {
+    world.addPlayer("Alice", 0);
+    world.addPlayer("ALICE", 0);
+    assertFalse(world.findObserver(world.getPlayers().get(0)).isPresent());
+  }
+
+  @Test
+  public void testRosterChangesRebuildTheIndex() {
+    world.addPlayer("Alice", 0);
+    world.addPlayer("Bob", 0);
+    Iplayer alice = world.getPlayers().get(0);
+    assertTrue(world.findObserver(alice).isPresent());
+
+    world.getPlayers().remove(1);
+    assertFalse(world.findObserver(alice).isPresent());
+
+    Player carol = new Player("Carol", world.getSpace(0), world);
+    world.getPlayers().add(carol);
+    assertEquals(carol, world.findObserver(alice).get());
+
+    Player dave = new Player("Dave", world.getSpace(0), world);
+    world.getPlayers().set(1, dave);
+    assertEquals(dave, world.findObserver(alice).get());
+  }
+
+  @Test
+  public void testPlayersFromAnotherWorldAreStillSeen() throws IOException {
+    World other = new World("res/mansion.txt");
+    world.addPlayer("Alice", 0);
+    Iplayer alice = world.getPlayers().get(0);
+    world.getPlayers().add(0, new Player("Stranger", world.getSpace(0), other));
+    assertEquals("Stranger", world.findObserver(alice).get().getPlayerName());
+  }
+
+  @Test
+  public void testManyPlayersMatchScanningEveryone() throws IOException {
+    World big = TestWorlds.generated(new MansionGenerator(4L, 300, 15, 0.5, 0, 1));
+    big.setQuiet(true);
+    World elsewhere = new World("res/mansion.txt");
+    Random random = new Random(42);
+    List<Iplayer> players = big.getPlayers();
+    for (int i = 0; i < 200; i++) {
+      Ispace start = big.getSpace(random.nextInt(big.getSpaceCount()));
+      // Every tenth player reports its moves to another world, and a few
+      // share a name.
+      Iworld home = i % 10 == 9 ? elsewhere : big;
+      String name = i % 17 == 16 ? "player " + (i - 1) : "Player " + i;
+      players.add(new Player(name, start, home));
+    }
+
+    for (int step = 0; step < 5000; step++) {
+      Iplayer mover = players.get(random.nextInt(players.size()));
+      int here = mover.getPlayerLocation().getSpaceId();
+      if (big.getNeighborCount(here) > 0) {
+        int k = random.nextInt(big.getNeighborCount(here));
+        mover.moveTo(big.getSpace(big.getNeighborId(here, k)));
+      }
+      if (step % 500 == 0) {
+        players.remove(random.nextInt(players.size()));
+      }
+
+      Iplayer watched = players.get(random.nextInt(players.size()));
+      Optional<Iplayer> observer = big.findObserver(watched);
+      assertEquals("step " + step, scanForObserver(big, watched), observer.orElse(null));
+
+      Ispace room = watched.getPlayerLocation();
+      assertEquals("step " + step, scanForPlayersPresent(big, room),
+          playersPresent(big.getSpaceInfo(room.getSpaceName())));
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import controller.ControllerImpl;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.MansionGenerator;
+import util.RandomGenerator;
+
+/**
+ * Tests the world that pages its rooms in from a compiled file: that it
+ * answers like the World it was compiled from, keeps the state of rooms it
+ * drops from its cache, and plays a whole game on a world many times larger
+ * than the heap.
+ */
+public class PagedWorldTest {
+
+  private Path compiled;
+
+  /**
+   * Makes a file to compile worlds into.
+   */
+  @Before
+  public void setUp() throws IOException {
+    compiled = Files.createTempFile("paged", ".kdlw");
+  }
+
+  /**
+   * Removes the compiled file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(compiled);
+  }
+
+  private World compile(MansionGenerator generator) throws IOException {
+    World world = TestWorlds.generated(generator);
+    world.writeCompiled(compiled.toString());
+    return world;
+  }
+
+  @Test
+  public void testAnswersLikeTheCompiledWorld() throws IOException {
+    World world = compile(new MansionGenerator(3L, 2000, 30, 0.5, 1, 2));
+    PagedWorld paged = new PagedWorld(compiled.toString(), 16);
+    assertEquals(world.getSpaceCount(), paged.getSpaceCount());
+    assertEquals(world.getRowCount(), paged.getRowCount());
+    assertEquals(world.getColumnCount(), paged.getColumnCount());
+    assertEquals(world.viewTargetCharacter(), paged.viewTargetCharacter());
+    for (int id = 0; id < world.getSpaceCount(); id++) {
+      Ispace expected = world.getSpace(id);
+      String name = expected.getSpaceName();
+      assertEquals(world.getSpaceInfo(id), paged.getSpaceInfo(id));
+      assertEquals(world.getSpaceInfo(name), paged.getSpaceInfo(name));
+      assertEquals(id, paged.getSpaceByName(name.toUpperCase()).getSpaceId());
+      assertEquals(expected.getNeighbors(), paged.getSpace(id).getNeighbors());
+      assertEquals(world.getNeighborCount(id), paged.getNeighborCount(id));
+      for (int k = 0; k < world.getNeighborCount(id); k++) {
+        assertEquals(world.getNeighborId(id, k), paged.getNeighborId(id, k));
+      }
+      int row = expected.getUpperRow();
+      int col = expected.getUpperColumn();
+      assertEquals(world.findSpaceIdAt(row, col), paged.findSpaceIdAt(row, col));
+    }
+    assertFalse(paged.findSpaceByName("No Such Room").isPresent());
+    assertEquals(ids(world.findSpacesIn(10, 10, 40, 60)), ids(paged.findSpacesIn(10, 10, 40, 60)));
+    assertEquals(world.getSpaceItems(), paged.getSpaceItems());
+  }
+
+  private static List<Integer> ids(List<Ispace> spaces) {
+    List<Integer> ids = new ArrayList<>();
+    for (Ispace space : spaces) {
+      ids.add(space.getSpaceId());
+    }
+    return ids;
+  }
+
+  @Test
+  public void testPetAndTargetMoveLikeTheCompiledWorld() throws IOException {
+    World world = compile(new MansionGenerator(5L, 500));
+    PagedWorld paged = new PagedWorld(compiled.toString(), 4);
+    for (int turn = 0; turn < 1200; turn++) {
+      world.moveTargetCharacter();
+      paged.moveTargetCharacter();
+      world.movePetAutomatically();
+      paged.movePetAutomatically();
+      assertEquals(world.getTargetLocation().getSpaceId(),
+          paged.getTargetLocation().getSpaceId());
+      Ispace petSpace = paged.getPet().getCurrentSpace();
+      assertEquals(world.getPet().getCurrentSpace().getSpaceId(), petSpace.getSpaceId());
+      assertSame(petSpace, paged.getSpace(petSpace.getSpaceId()));
+      assertTrue(petSpace.getHasPet());
+    }
+  }
+
+  @Test
+  public void testWalksLikeTheCompiledWorld() throws IOException {
+    World world = compile(new MansionGenerator(29L, 1500, 40, 0.3, 1, 2));
+    PagedWorld paged = new PagedWorld(compiled.toString(), 16);
+    java.util.Random random = new java.util.Random(31L);
+    for (int pair = 0; pair < 500; pair++) {
+      int from = random.nextInt(world.getSpaceCount());
+      int to = random.nextInt(world.getSpaceCount());
+      Ispace pagedFrom = paged.getSpace(from);
+      Ispace pagedTo = paged.getSpace(to);
+      assertEquals(world.getDistance(world.getSpace(from), world.getSpace(to)),
+          paged.getDistance(pagedFrom, pagedTo));
+      assertEquals(world.getNextStep(world.getSpace(from), world.getSpace(to)),
+          paged.getNextStep(pagedFrom, pagedTo));
+    }
+  }
+
+  @Test
+  public void testLongWalksAreLeftToTheEstimate() throws IOException {
+    // One room per row, so the last room is past the search limit.
+    int rooms = PagedWorld.SEARCH_LIMIT + 10;
+    compile(new MansionGenerator(1L, rooms, 1, 0, 0, 1));
+    PagedWorld paged = new PagedWorld(compiled.toString(), 16);
+    Ispace first = paged.getSpace(0);
+    assertEquals(5, paged.getDistance(first, paged.getSpace(5)));
+    assertEquals(1, paged.getNextStep(first, paged.getSpace(5)));
+    assertEquals(-1, paged.getDistance(first, paged.getSpace(rooms - 1)));
+    assertEquals(-1, paged.getNextStep(first, paged.getSpace(rooms - 1)));
+  }
+
+  @Test
+  public void testCacheStaysBounded() throws IOException {
+    compile(new MansionGenerator(7L, 3000));
+    PagedWorld paged = new PagedWorld(compiled.toString(), 8);
+    paged.addPlayer("Alice", 0);
+    paged.addPlayer("Bob", 2999);
+    for (int id = 0; id < paged.getSpaceCount(); id++) {
+      paged.getSpace(id);
+      assertTrue(paged.heldRoomCount() <= 8 + 3);
+    }
+  }
+
+  @Test
+  public void testRoomsKeepTheirStateWhenDropped() throws IOException {
+    World world = compile(new MansionGenerator(9L, 400, 20, 0.5, 2, 1));
+    int start = 0;
+    while (world.getSpace(start).getItems().isEmpty() || world.getNeighborCount(start) == 0) {
+      start++;
+    }
+    PagedWorld paged = new PagedWorld(compiled.toString(), 2);
+    paged.addPlayer("Alice", start);
+    Iplayer alice = paged.getPlayers().get(0);
+    Ispace room = alice.getPlayerLocation();
+    String item = room.getItems().get(0);
+    alice.pickUpItem(item);
+
+    // Walk every room so that the cache turns over many times while Alice stays.
+    for (int id = 0; id < paged.getSpaceCount(); id++) {
+      paged.getSpace(id);
+    }
+    assertSame(room, paged.getSpace(start));
+
+    // Leave, turn the cache over again, and come back: the item is still gone.
+    alice.moveTo(paged.getSpace(paged.getNeighborId(start, 0)));
+    for (int id = 0; id < paged.getSpaceCount(); id++) {
+      paged.getSpace(id);
+    }
+    assertFalse(paged.getSpace(start).getItems().contains(item));
+    assertEquals(world.getSpace(start).getItems().size() - 1,
+        paged.getSpace(start).getItems().size());
+    assertEquals(1, alice.getPlayerItems().size());
+  }
+
+  @Test
+  public void testOpenPagesOnlyLargeCompiledFiles() throws IOException {
+    compile(new MansionGenerator(13L, 300));
+    long size = Files.size(compiled);
+    assertTrue(World.open(compiled.toString(), 100 * size) instanceof World);
+    assertTrue(World.open(compiled.toString(), 2 * size) instanceof PagedWorld);
+    assertTrue(World.open("res/mansion.txt", 1) instanceof World);
+  }
+
+  @Test
+  public void testTextFilesAreRejected() {
+    try {
+      new PagedWorld("res/mansion.txt");
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Not a compiled world"));
+    }
+  }
+
+  /**
+   * Plays a game of four computer players through the text controller in a
+   * separate JVM whose heap is a tenth of the size of the world file, then
+   * reads every room.
+   */
+  @Test(timeout = 120_000)
+  public void testPlaysAWorldTenTimesLargerThanTheHeap() throws Exception {
+    long heap = 4L << 20;
+    compile(new MansionGenerator(11L, 600_000));
+    assertTrue(Files.size(compiled) >= 10 * heap);
+
+    ProcessBuilder builder = new ProcessBuilder(
+        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+        "-Xmx" + (heap >> 20) + "m", "-cp", System.getProperty("java.class.path"),
+        Game.class.getName(), compiled.toString());
+    builder.redirectErrorStream(true);
+    Process process = builder.start();
+    String output;
+    try (InputStream in = process.getInputStream()) {
+      output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+    assertEquals(output, 0, process.exitValue());
+    assertEquals("600000 rooms read", output.trim());
+  }
+
+  /**
+   * The game run by {@link #testPlaysAWorldTenTimesLargerThanTheHeap()}.
+   */
+  public static final class Game {
+    private Game() {
+    }
+
+    /**
+     * Plays the game.
+     *
+     * @param args the compiled world file
+     * @throws IOException if the world cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+      PagedWorld world = new PagedWorld(args[0], 256);
+      world.setQuiet(true);
+      for (int i = 0; i < 4; i++) {
+        world.addPlayer("CPU" + i, i * 1000);
+        Iplayer added = world.getPlayers().remove(i);
+        world.getPlayers().add(new ComputerPlayer("CPU" + i, added.getPlayerLocation(), world,
+            RandomGenerator.seeded(i)));
+      }
+      new ControllerImpl(world, new StringReader(""), Writer.nullWriter(), 1000).startGame();
+      int read = 0;
+      for (int id = 0; id < world.getSpaceCount(); id++) {
+        read += world.getSpaceInfo(id).isEmpty() ? 0 : 1;
+      }
+      System.out.println(read + " rooms read");
+    }
+  }
+}
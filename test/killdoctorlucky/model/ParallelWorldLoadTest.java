@@ -0,0 +1,136 @@
+package killdoctorlucky.model;
+
+import static killdoctorlucky.model.TestWorlds.assertSameWorld;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests that a world loaded on a pool is the same, space for space, as one
+ * loaded on a single thread, and that bad files fail the same way.
+ */
+public class ParallelWorldLoadTest {
+
+  private ForkJoinPool pool;
+  private Path text;
+
+  /**
+   * Makes a pool and a file to write worlds into.
+   */
+  @Before
+  public void setUp() throws IOException {
+    pool = new ForkJoinPool(4);
+    text = Files.createTempFile("parallel", ".txt");
+  }
+
+  /**
+   * Shuts the pool down and removes the file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    pool.shutdown();
+    Files.deleteIfExists(text);
+  }
+
+  @Test
+  public void testStandardMansionLoadsTheSame() throws IOException {
+    assertSameWorld(new World("res/mansion.txt", null), new World("res/mansion.txt", pool));
+  }
+
+  @Test
+  public void testGeneratedMansionLoadsTheSame() throws IOException {
+    // Several pieces of spaces and of items.
+    new MansionGenerator(13L, 20_000, 60, 0.5, 1.5, 2).write(text);
+    World world = new World(text.toString(), null);
+    assertSameWorld(world, new World(text.toString(), pool));
+    ForkJoinPool one = new ForkJoinPool(1);
+    try {
+      assertSameWorld(world, new World(text.toString(), one));
+    } finally {
+      one.shutdown();
+    }
+  }
+
+  @Test
+  public void testOddLinesLoadTheSame() throws IOException {
+    new MansionGenerator(17L, 12_000, 40, 0.5, 1, 2).write(text);
+    List<String> lines = Files.readAllLines(text, StandardCharsets.UTF_8);
+    // Accented names go through the Scanner, a name that differs only in case
+    // from an earlier one loses to it, and every line ends with CR LF.
+    lines.set(4 + 5000, lines.get(4 + 5000) + " Caf\u00e9");
+    lines.set(4 + 9000, lines.get(4 + 9000).replaceAll("[A-Za-z].*", "")
+        + lines.get(4 + 10).replaceAll("^[-0-9 ]*", "").toUpperCase());
+    lines.set(4 + 11_000, "  " + lines.get(4 + 11_000).replace(' ', '\t') + "  ");
+    Files.write(text, String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+    assertSameWorld(new World(text.toString(), null), new World(text.toString(), pool));
+  }
+
+  @Test
+  public void testBadFilesFailTheSame() throws IOException {
+    new MansionGenerator(19L, 10_000).write(text);
+    List<String> lines = Files.readAllLines(text, StandardCharsets.UTF_8);
+
+    // The earliest bad line is reported, even when a later piece fails first.
+    List<String> twoBad = new ArrayList<>(lines);
+    twoBad.set(4 + 9000, "1 2 three 4 Attic");
+    twoBad.set(4 + 100, "1 2 3 Cellar");
+    assertFailsTheSame(twoBad, "Error parsing space details at line 104");
+
+    List<String> blank = new ArrayList<>(lines);
+    blank.set(4 + 7000, "   ");
+    blank.set(4 + 8500, "x");
+    assertFailsTheSame(blank, "Missing space details for space 7000");
+
+    int items = lines.size() - 10_000 - 5;
+    assertFailsTheSame(lines.subList(0, lines.size() - 3),
+        "Missing item details for item " + (items - 3));
+
+    List<String> badItem = new ArrayList<>(lines);
+    badItem.set(badItem.size() - 1, "0 lots Hammer");
+    assertFailsTheSame(badItem, "Error parsing item details at line ");
+  }
+
+  private void assertFailsTheSame(List<String> lines, String message) throws IOException {
+    Files.write(text, lines, StandardCharsets.UTF_8);
+    String sequential = failure(null);
+    assertTrue(sequential, sequential.startsWith(message));
+    assertEquals(sequential, failure(pool));
+  }
+
+  private String failure(ForkJoinPool on) {
+    try {
+      new World(text.toString(), on);
+    } catch (IOException e) {
+      return e.getMessage();
+    }
+    fail("Expected an IOException");
+    return null;
+  }
+
+  @Test
+  public void testCompiledFilesIgnoreThePool() throws IOException {
+    Path compiled = Files.createTempFile("parallel", ".kdlw");
+    try {
+      World world = new World("res/mansion.txt");
+      world.writeCompiled(compiled.toString());
+      World opened = new World(compiled.toString(), pool);
+      assertSameWorld(world, opened);
+      assertSame(opened.getSpace(3), opened.getSpace(3));
+    } finally {
+      Files.delete(compiled);
+    }
+  }
+}
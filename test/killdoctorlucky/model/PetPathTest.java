@@ -0,0 +1,99 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests that the iterative pet path visits spaces in the same order as the
+ * original recursive depth-first search.
+ */
+public class PetPathTest {
+
+  /**
+   * The recursive traversal the pet path used to be computed with.
+   */
+  private static int[] recursivePath(World world) {
+    List<Ispace> path = new ArrayList<>();
+    dfs(world, world.getSpaces().get(0), new HashSet<>(), path);
+    int[] ids = new int[path.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = world.getSpaces().indexOf(path.get(i));
+    }
+    return ids;
+  }
+
+  private static void dfs(World world, Ispace space, Set<String> visited, List<Ispace> path) {
+    if (!visited.add(space.getSpaceName())) {
+      return;
+    }
+    path.add(space);
+    for (String neighborName : space.getNeighbors()) {
+      Ispace neighbor = world.getSpaceByName(neighborName);
+      if (!visited.contains(neighbor.getSpaceName())) {
+        dfs(world, neighbor, visited, path);
+      }
+    }
+  }
+
+  @Test
+  public void testMansionPathMatchesRecursiveSearch() throws IOException {
+    World world = new World("res/mansion.txt");
+    int[] path = world.computePetPathIds();
+    assertEquals(world.getSpaceCount(), path.length);
+    assertArrayEquals(recursivePath(world), path);
+  }
+
+  @Test
+  public void testGeneratedPathsMatchRecursiveSearch() throws IOException {
+    for (long seed = 0; seed < 10; seed++) {
+      World world = TestWorlds.generated(new MansionGenerator(seed, 400, 5 + (int) seed * 3, seed / 10.0, 0,
+          1 + (int) (seed % 3)));
+      assertArrayEquals("seed " + seed, recursivePath(world), world.computePetPathIds());
+    }
+  }
+
+  @Test
+  public void testPathStaysInFirstComponent() throws IOException {
+    World world = TestWorlds.generated(new MansionGenerator(3L, 90, 10, 0.5, 0, 3));
+    assertEquals(30, world.computePetPathIds().length);
+  }
+
+  @Test
+  public void testLongCorridorDoesNotOverflowStack() throws IOException {
+    // One room per row: each room opens only onto the one below it.
+    int rooms = 200_000;
+    int[] path = TestWorlds.generated(new MansionGenerator(1L, rooms, 1, 0, 0, 1)).computePetPathIds();
+    assertEquals(rooms, path.length);
+    for (int i = 0; i < rooms; i++) {
+      assertEquals(i, path[i]);
+    }
+  }
+
+  @Test
+  public void testSubclassCanSetItsOwnPath() throws IOException {
+    World world = new World("res/mansion.txt") {
+      {
+        List<Ispace> path = computePetPath();
+        assertEquals(getSpaceCount(), path.size());
+        assertEquals(getSpace(0), path.get(0));
+        // Walk back and forth between the first two spaces of the search.
+        petPath = new ArrayList<>(path.subList(0, 2));
+        petIndex = 0;
+      }
+    };
+    Ispace first = world.getSpace(0);
+    Ispace second = world.getSpace(world.petPathIds()[1]);
+    world.movePetAutomatically();
+    assertEquals(second, world.getPet().getCurrentSpace());
+    world.movePetAutomatically();
+    assertEquals(first, world.getPet().getCurrentSpace());
+  }
+}
@@ -3,6 +3,7 @@ package killdoctorlucky.model;
 import static org.junit.Assert.assertEquals;
 
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -12,13 +13,14 @@ import org.junit.Test;
  */
 public class PlayerAttackTest {
   private Player player;
-  private TargetCharacter doctorLucky;
+  private ItargetCharacter doctorLucky;
 
   /**
    * A simple dummy world that only supports the needed methods for attack tests.
    */
   private class DummyWorld implements Iworld {
     private Ispace targetSpace;
+    private final ItargetCharacter doctorLucky = new TargetCharacter("Doctor Lucky", 50);
 
     public DummyWorld(Ispace targetSpace) {
       this.targetSpace = targetSpace;
@@ -108,6 +110,16 @@ public class PlayerAttackTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return doctorLucky;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
@@ -126,9 +138,7 @@ public class PlayerAttackTest {
     DummyWorld dummyWorldSameRoom = new DummyWorld(parlor);
     player = new Player("Alice", parlor, dummyWorldSameRoom);
 
-    // Reset Doctor Lucky's health
-    TargetCharacter.setInstance("Doctor Lucky", 50);
-    doctorLucky = TargetCharacter.getInstance();
+    doctorLucky = dummyWorldSameRoom.getTargetCharacter();
   }
 
   @Test
@@ -3,6 +3,7 @@ package killdoctorlucky.model;
 import static org.junit.Assert.assertEquals;
 
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,6 +23,7 @@ public class PlayerTest {
    */
   private class DummyWorld implements Iworld {
     private Ispace target;
+    private final ItargetCharacter doctorLucky = new TargetCharacter("Doctor Lucky", 50);
 
     public DummyWorld(Ispace target) {
       this.target = target;
@@ -111,6 +113,16 @@ public class PlayerTest {
       return null;
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return doctorLucky;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false;
@@ -167,8 +179,7 @@ public class PlayerTest {
   public void testAttackDoctorLuckyWithoutWeapon() {
     // Ensure player and Doctor Lucky are in the same room.
     ((DummyWorld) player.world).target = startSpace;
-    TargetCharacter.setInstance("Doctor Lucky", 50);
-    TargetCharacter doctorLucky = TargetCharacter.getInstance();
+    ItargetCharacter doctorLucky = player.world.getTargetCharacter();
     int initialHealth = doctorLucky.getTargetHealth();
 
     player.attackDoctorLucky("Loud Noise");
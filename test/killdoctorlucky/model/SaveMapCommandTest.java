@@ -1,5 +1,6 @@
 package killdoctorlucky.model;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -7,6 +8,11 @@ import controller.commands.Icommand;
 import controller.commands.SaveMapCommand;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.imageio.ImageIO;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -52,6 +58,41 @@ public class SaveMapCommandTest {
     assertTrue(true);
   }
 
+  @Test
+  public void testSaveReportsProgressAndKeepsThePixels() throws IOException {
+    World world = new World("res/mansion.txt");
+    List<Integer> percents = new ArrayList<>();
+    new SaveMapCommand(TEST_FILE, SaveMapCommand.FAST).save(world, percents::add);
+    try {
+      assertEquals(0, (int) percents.get(0));
+      assertEquals(100, (int) percents.get(percents.size() - 1));
+      for (int i = 1; i < percents.size(); i++) {
+        assertTrue(percents.get(i) > percents.get(i - 1));
+      }
+      BufferedImage expected = world.generateWorldMap();
+      BufferedImage saved = ImageIO.read(new File(TEST_FILE));
+      assertEquals(expected.getWidth(), saved.getWidth());
+      assertEquals(expected.getHeight(), saved.getHeight());
+      for (int y = 0; y < saved.getHeight(); y += 7) {
+        for (int x = 0; x < saved.getWidth(); x += 7) {
+          assertEquals(expected.getRGB(x, y), saved.getRGB(x, y));
+        }
+      }
+    } finally {
+      new File(TEST_FILE).delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testSaveToMissingDirectoryFails() throws IOException {
+    new SaveMapCommand("InvalidDir/testmap.png").save(mockWorld, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCompressionLevelOutOfRange() {
+    new SaveMapCommand(TEST_FILE, 10);
+  }
+
   /**
    * Minimal mock implementation of Iworld.
    */
@@ -140,6 +181,16 @@ public class SaveMapCommandTest {
       return null; // Return null or a dummy string if needed.
     }
 
+    @Override
+    public ItargetCharacter getTargetCharacter() {
+      return null;
+    }
+
+    @Override
+    public List<Ispace> getSpaces() {
+      return Collections.emptyList();
+    }
+
     @Override
     public boolean canPlayerSee(Iplayer a, Iplayer b) {
       return false; // Return false by default.
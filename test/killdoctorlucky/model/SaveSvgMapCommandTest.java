@@ -0,0 +1,83 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+
+import controller.commands.SaveSvgMapCommand;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests the streaming SVG map export.
+ */
+public class SaveSvgMapCommandTest {
+
+  private static Document parse(String svg) throws Exception {
+    return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+        .parse(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String write(World world, boolean markers, List<Integer> progress)
+      throws IOException {
+    StringWriter out = new StringWriter();
+    new SaveSvgMapCommand("unused.svg", markers).write(world, out, progress::add);
+    return out.toString();
+  }
+
+  @Test
+  public void testOneRectangleAndLabelPerRoom() throws Exception {
+    World world = new World("res/mansion.txt");
+    List<Integer> progress = new ArrayList<>();
+    Document doc = parse(write(world, false, progress));
+
+    Element svg = doc.getDocumentElement();
+    assertEquals("svg", svg.getTagName());
+    assertEquals(Integer.toString(world.getColumnCount() * 20 + 50), svg.getAttribute("width"));
+    assertEquals(Integer.toString(world.getRowCount() * 20), svg.getAttribute("height"));
+
+    NodeList rects = doc.getElementsByTagName("rect");
+    NodeList labels = doc.getElementsByTagName("text");
+    assertEquals(world.getSpaceCount() + 1, rects.getLength()); // plus the white background
+    assertEquals(world.getSpaceCount(), labels.getLength());
+    Ispace armory = world.getSpaceByName("Armory");
+    Element box = (Element) rects.item(armory.getSpaceId() + 1);
+    assertEquals("380", box.getAttribute("x"));
+    assertEquals("440", box.getAttribute("y"));
+    assertEquals("140", box.getAttribute("width"));
+    assertEquals("20", box.getAttribute("height"));
+    assertEquals("Armory", labels.item(armory.getSpaceId()).getTextContent());
+
+    assertEquals(100, (int) progress.get(progress.size() - 1));
+    assertEquals(0, doc.getElementsByTagName("circle").getLength());
+  }
+
+  @Test
+  public void testNamesAreEscapedAndMarkersDrawn() throws Exception {
+    Path file = Files.createTempFile("svg", ".txt");
+    Files.write(file, Arrays.asList("4 6 Odd <Names>", "50 Doctor Lucky", "Mi Meow", "2",
+        "0 0 1 2 Tom & Jerry's <Den>", "2 0 3 2 \"Quoted\" Hall", "0"));
+    World world = new World(file.toString());
+    Files.delete(file);
+    world.setQuiet(true);
+    world.addPlayer("A & B", 1);
+
+    Document doc = parse(write(world, true, new ArrayList<>()));
+    NodeList labels = doc.getElementsByTagName("text");
+    assertEquals("Tom & Jerry's <Den>", labels.item(0).getTextContent());
+    assertEquals("\"Quoted\" Hall", labels.item(1).getTextContent());
+    assertEquals(1, doc.getElementsByTagName("circle").getLength());
+    assertEquals("A & B", doc.getElementsByTagName("title").item(0).getTextContent());
+    assertEquals(1, doc.getElementsByTagName("polygon").getLength());
+  }
+}
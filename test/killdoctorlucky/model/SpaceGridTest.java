@@ -0,0 +1,176 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Tests that the grid-based neighbor search finds exactly the same neighbors
+ * as the pairwise scan it replaced.
+ */
+public class SpaceGridTest {
+
+  @Test
+  public void testMansionNeighborsMatchPairwiseScan() throws IOException {
+    World world = new World("res/mansion.txt");
+    List<Ispace> spaces = world.getSpaces();
+    int[][] expected = SpaceGrid.pairwiseAdjacency(spaces);
+    assertArrayEquals(expected, new SpaceGrid(spaces).adjacency());
+
+    for (int i = 0; i < spaces.size(); i++) {
+      List<String> names = new ArrayList<>();
+      for (int j : expected[i]) {
+        names.add(spaces.get(j).getSpaceName());
+      }
+      assertEquals(names, spaces.get(i).getNeighbors());
+    }
+  }
+
+  @Test
+  public void testKnownMansionNeighbors() throws IOException {
+    World world = new World("res/mansion.txt");
+    assertEquals(Arrays.asList("Billiard Room", "Dining Hall", "Drawing Room"),
+        world.getSpaceByName("Armory").getNeighbors());
+  }
+
+  @Test
+  public void testRandomLayoutsMatchPairwiseScan() {
+    Random random = new Random(42);
+    for (int round = 0; round < 20; round++) {
+      List<Ispace> spaces = new ArrayList<>();
+      int count = 1 + random.nextInt(300);
+      for (int i = 0; i < count; i++) {
+        int row = random.nextInt(60);
+        int col = random.nextInt(60);
+        spaces.add(new Space(row, col, row + random.nextInt(8), col + random.nextInt(8),
+            "Room " + i));
+      }
+      assertArrayEquals(SpaceGrid.pairwiseAdjacency(spaces), new SpaceGrid(spaces).adjacency());
+    }
+  }
+
+  @Test
+  public void testSwappedCornersAndOneHugeRoom() {
+    List<Ispace> spaces = new ArrayList<>();
+    spaces.add(new Space(0, 0, 100, 100, "Hall"));
+    spaces.add(new Space(5, 9, 2, 3, "Backwards"));
+    spaces.add(new Space(101, 40, 103, 45, "Porch"));
+    spaces.add(new Space(200, 200, 201, 201, "Shed"));
+    assertArrayEquals(SpaceGrid.pairwiseAdjacency(spaces), new SpaceGrid(spaces).adjacency());
+  }
+
+  @Test
+  public void testGridBuiltOnAPoolMatches() {
+    Random random = new Random(11);
+    List<Ispace> spaces = new ArrayList<>();
+    // Enough rooms for several pieces, crowded so that threads share cells.
+    for (int i = 0; i < 30_000; i++) {
+      int row = random.nextInt(400);
+      int col = random.nextInt(400);
+      spaces.add(new Space(row, col, row + random.nextInt(12), col + random.nextInt(12),
+          "Room " + i));
+    }
+    SpaceGrid grid = new SpaceGrid(spaces);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SpaceGrid built = new SpaceGrid(spaces, pool);
+      assertArrayEquals(grid.adjacency(), built.adjacency(pool));
+      assertArrayEquals(grid.adjacency(), built.adjacency());
+      for (int row = 0; row < 420; row += 3) {
+        for (int col = 0; col < 420; col += 7) {
+          assertEquals(grid.spaceAt(row, col), built.spaceAt(row, col));
+        }
+      }
+      assertArrayEquals(grid.query(50, 60, 90, 75), built.query(50, 60, 90, 75));
+      assertEquals(0, new SpaceGrid(new ArrayList<>(), pool).adjacency(pool).length);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testEmptyWorld() {
+    assertEquals(0, new SpaceGrid(new ArrayList<>()).adjacency().length);
+    assertEquals(0, new SpaceGrid(new ArrayList<>()).query(0, 0, 10, 10).length);
+  }
+
+  @Test
+  public void testQueryMatchesScanningEverySpace() {
+    Random random = new Random(7);
+    List<Ispace> spaces = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      int row = random.nextInt(80);
+      int col = random.nextInt(80);
+      spaces.add(new Space(row, col, row + random.nextInt(6), col + random.nextInt(6),
+          "Room " + i));
+    }
+    spaces.add(new Space(10, 70, 2, 60, "Backwards"));
+    SpaceGrid grid = new SpaceGrid(spaces);
+    for (int round = 0; round < 200; round++) {
+      int top = random.nextInt(100) - 10;
+      int left = random.nextInt(100) - 10;
+      int bottom = top + random.nextInt(30);
+      int right = left + random.nextInt(30);
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < spaces.size(); i++) {
+        Ispace s = spaces.get(i);
+        if (Math.min(s.getUpperRow(), s.getLowerRow()) <= bottom
+            && Math.max(s.getUpperRow(), s.getLowerRow()) >= top
+            && Math.min(s.getUpperColumn(), s.getLowerColumn()) <= right
+            && Math.max(s.getUpperColumn(), s.getLowerColumn()) >= left) {
+          expected.add(i);
+        }
+      }
+      int[] found = grid.query(top, left, bottom, right);
+      assertEquals(expected.size(), found.length);
+      for (int i = 0; i < found.length; i++) {
+        assertEquals((int) expected.get(i), found[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testSpaceAtMatchesScanningEverySpace() {
+    Random random = new Random(9);
+    List<Ispace> spaces = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      int row = random.nextInt(80);
+      int col = random.nextInt(80);
+      spaces.add(new Space(row, col, row + random.nextInt(6), col + random.nextInt(6),
+          "Room " + i));
+    }
+    spaces.add(new Space(10, 70, 2, 60, "Backwards"));
+    SpaceGrid grid = new SpaceGrid(spaces);
+    for (int row = -5; row < 95; row++) {
+      for (int col = -5; col < 95; col++) {
+        int expected = -1;
+        for (int i = 0; i < spaces.size() && expected < 0; i++) {
+          Ispace s = spaces.get(i);
+          if (s.getUpperRow() <= row && row < s.getLowerRow() && s.getUpperColumn() <= col
+              && col < s.getLowerColumn()) {
+            expected = i;
+          }
+        }
+        assertEquals(row + "," + col, expected, grid.spaceAt(row, col));
+      }
+    }
+    assertEquals(-1, new SpaceGrid(new ArrayList<>()).spaceAt(0, 0));
+  }
+
+  @Test
+  public void testWorldFindsTheRoomUnderAClick() throws IOException {
+    World world = new World("res/mansion.txt");
+    Ispace armory = world.getSpaceByName("Armory");
+    assertEquals(armory.getSpaceId(),
+        world.findSpaceIdAt(armory.getUpperRow(), armory.getUpperColumn()));
+    assertEquals(-1, world.findSpaceIdAt(-1, -1));
+    assertEquals(-1, world.findSpaceIdAt(world.getRowCount(), world.getColumnCount()));
+  }
+}
@@ -17,8 +17,7 @@ public class TargetCharacterTest {
    */
   @Before
   public void setUp() {
-    TargetCharacter.setInstance("Doctor Lucky", 50);
-    doctorLucky = TargetCharacter.getInstance();
+    doctorLucky = new TargetCharacter("Doctor Lucky", 50);
   }
 
   @Test
@@ -52,7 +51,7 @@ public class TargetCharacterTest {
 
   @Test
   public void testDecreaseHealthExactlyToZero() {
-    TargetCharacter.setInstance("Doctor Lucky", 10);
+    doctorLucky = new TargetCharacter("Doctor Lucky", 10);
     doctorLucky.decreaseHealth(10);
     assertEquals(0, doctorLucky.getTargetHealth());
   }
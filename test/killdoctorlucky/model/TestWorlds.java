@@ -0,0 +1,103 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import util.MansionGenerator;
+
+/**
+ * Worlds, and comparisons of them, shared by the model's tests.
+ */
+final class TestWorlds {
+
+  private TestWorlds() {
+  }
+
+  /**
+   * Loads the world a generator writes, through a temporary file that is
+   * removed again.
+   *
+   * @param generator the mansion to generate
+   * @return the loaded world
+   * @throws IOException if the file cannot be written or read
+   */
+  static World generated(MansionGenerator generator) throws IOException {
+    Path file = Files.createTempFile("generated", ".txt");
+    try {
+      generator.write(file);
+      return new World(file.toString());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Asserts that a world loaded, compiled or stored another way answers every
+   * query like the world it should equal: the grid, each room with its
+   * neighbors and items, the lookups by name and position, the pet's path and
+   * the target.
+   *
+   * @param expected the world as loaded from its text file
+   * @param actual the world to compare with it
+   */
+  static void assertSameWorld(World expected, World actual) {
+    assertEquals(expected.getRowCount(), actual.getRowCount());
+    assertEquals(expected.getColumnCount(), actual.getColumnCount());
+    assertEquals(expected.getSpaceCount(), actual.getSpaceCount());
+    for (int i = 0; i < expected.getSpaceCount(); i++) {
+      Ispace e = expected.getSpace(i);
+      Ispace a = actual.getSpace(i);
+      assertEquals(e.getSpaceName(), a.getSpaceName());
+      assertEquals(i, a.getSpaceId());
+      assertArrayEquals(new int[] { e.getUpperRow(), e.getUpperColumn(), e.getLowerRow(),
+          e.getLowerColumn() },
+          new int[] { a.getUpperRow(), a.getUpperColumn(), a.getLowerRow(), a.getLowerColumn() });
+      assertEquals(e.getNeighbors(), a.getNeighbors());
+      assertEquals(e.getItems(), a.getItems());
+      assertEquals(e.getHasPet(), a.getHasPet());
+      assertEquals(expected.getNeighborCount(i), actual.getNeighborCount(i));
+      for (int k = 0; k < expected.getNeighborCount(i); k++) {
+        assertEquals(expected.getNeighborId(i, k), actual.getNeighborId(i, k));
+      }
+      String name = e.getSpaceName();
+      assertEquals(expected.getSpaceInfo(i), actual.getSpaceInfo(i));
+      assertEquals(expected.getSpaceInfo(name), actual.getSpaceInfo(name));
+      // A name repeated in another case finds the earlier room in both.
+      Ispace found = actual.getSpace(expected.getSpaceByName(name).getSpaceId());
+      assertSame(found, actual.getSpaceByName(name));
+      assertSame(found, actual.getSpaceByName(name.toUpperCase()));
+      int row = e.getUpperRow();
+      int col = e.getUpperColumn();
+      assertEquals(expected.findSpaceIdAt(row, col), actual.findSpaceIdAt(row, col));
+    }
+    assertEquals(ids(expected.findSpacesIn(0, 0, 50, 50)), ids(actual.findSpacesIn(0, 0, 50, 50)));
+    assertFalse(actual.findSpaceByName("No Such Room").isPresent());
+    assertArrayEquals(expected.petPathIds(), actual.petPathIds());
+    assertEquals(expected.getSpaceItems(), actual.getSpaceItems());
+    assertEquals(expected.viewTargetCharacter(), actual.viewTargetCharacter());
+    assertEquals(expected.getPet().getName(), actual.getPet().getName());
+    assertEquals(expected.getPet().getCurrentSpace().getSpaceId(),
+        actual.getPet().getCurrentSpace().getSpaceId());
+  }
+
+  /**
+   * Gets the ids of spaces, in order.
+   *
+   * @param spaces the spaces
+   * @return their ids
+   */
+  static List<Integer> ids(List<Ispace> spaces) {
+    List<Integer> ids = new ArrayList<>();
+    for (Ispace space : spaces) {
+      ids.add(space.getSpaceId());
+    }
+    return ids;
+  }
+}
@@ -24,7 +24,6 @@ public class ViewTargetCharacterTest {
     room = new Space(0, 0, 1, 1, "TestRoom");
     world = new DummyWorld(java.util.Collections.singletonList(room));
     world.setTargetLocation(room);
-    TargetCharacter.setInstance("Doctor Lucky", 50);
   }
 
   @Test
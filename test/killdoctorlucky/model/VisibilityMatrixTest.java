@@ -0,0 +1,112 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests the precomputed visibility between spaces and the "who can see into
+ * this space?" query built on it.
+ */
+public class VisibilityMatrixTest {
+
+  private static World generated(long seed, int rooms) throws IOException {
+    World world = TestWorlds.generated(new MansionGenerator(seed, rooms, 12, 0.5, 0, 2));
+    world.setQuiet(true);
+    return world;
+  }
+
+  @Test
+  public void testMatrixFollowsNeighborLists() {
+    // 0 -> 1 and 1 -> 0, 1 -> 2 only one way, 70 has nobody.
+    int[] offsets = new int[72];
+    int[] targets = { 1, 0, 2 };
+    offsets[1] = 1;
+    for (int i = 2; i < offsets.length; i++) {
+      offsets[i] = 3;
+    }
+    VisibilityMatrix matrix = new VisibilityMatrix(offsets, targets);
+    assertTrue(matrix.canSee(0, 0));
+    assertTrue(matrix.canSee(0, 1));
+    assertTrue(matrix.canSee(1, 0));
+    assertTrue(matrix.canSee(1, 2));
+    assertFalse(matrix.canSee(2, 1));
+    assertFalse(matrix.canSee(0, 2));
+    assertTrue(matrix.canSee(70, 70));
+    assertFalse(matrix.canSee(70, 0));
+
+    assertEquals(1, matrix.nextObserver(2, 0));
+    assertEquals(2, matrix.nextObserver(2, 2));
+    assertEquals(-1, matrix.nextObserver(2, 3));
+    assertEquals(70, matrix.nextObserver(70, 0));
+    assertEquals(-1, matrix.nextObserver(70, 71));
+  }
+
+  @Test
+  public void testCanSeeMatchesNeighborNames() throws IOException {
+    World world = generated(7L, 300);
+    for (int from = 0; from < world.getSpaceCount(); from++) {
+      Ispace a = world.getSpace(from);
+      for (int to = 0; to < world.getSpaceCount(); to++) {
+        Ispace b = world.getSpace(to);
+        boolean expected = from == to || a.getNeighbors().contains(b.getSpaceName());
+        assertEquals(from + " -> " + to, expected, world.canSee(from, to));
+      }
+    }
+  }
+
+  @Test
+  public void testCanPlayerSeeInTheMansion() throws IOException {
+    World world = new World("res/mansion.txt");
+    Ispace armory = world.getSpaceByName("Armory");
+    Ispace nextDoor = world.getSpace(world.getNeighborId(armory.getSpaceId(), 0));
+    Player a = new Player("A", armory, world);
+    Player b = new Player("B", nextDoor, world);
+    assertTrue(world.canPlayerSee(a, b));
+    assertTrue(world.canPlayerSee(b, a));
+    for (Ispace space : world.getSpaces()) {
+      Player c = new Player("C", space, world);
+      boolean expected = space == armory || space.getNeighbors().contains("Armory");
+      assertEquals(space.getSpaceName(), expected, world.canPlayerSee(c, a));
+    }
+  }
+
+  @Test
+  public void testObserversMatchScanningEveryone() throws IOException {
+    World world = generated(11L, 200);
+    Random random = new Random(5);
+    for (int i = 0; i < 150; i++) {
+      world.addPlayer("Player " + i, random.nextInt(world.getSpaceCount()));
+    }
+    for (Ispace space : world.getSpaces()) {
+      List<Iplayer> expected = new ArrayList<>();
+      for (Iplayer player : world.getPlayers()) {
+        Ispace from = player.getPlayerLocation();
+        if (from == space || from.getNeighbors().contains(space.getSpaceName())) {
+          expected.add(player);
+        }
+      }
+      assertEquals(space.getSpaceName(), expected, world.getObservers(space));
+    }
+  }
+
+  @Test
+  public void testObserversIncludePlayersOfOtherWorlds() throws IOException {
+    World world = new World("res/mansion.txt");
+    World other = new World("res/mansion.txt");
+    Ispace armory = world.getSpaceByName("Armory");
+    world.getPlayers().add(new Player("Stranger", armory, other));
+    world.addPlayer("Local", armory.getSpaceId());
+    List<Iplayer> observers = world.getObservers(armory);
+    assertEquals(2, observers.size());
+    assertEquals("Stranger", observers.get(0).getPlayerName());
+    assertEquals("Local", observers.get(1).getPlayerName());
+  }
+}
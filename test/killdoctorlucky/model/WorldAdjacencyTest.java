@@ -0,0 +1,78 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the integer space ids and the compressed adjacency kept by World.
+ */
+public class WorldAdjacencyTest {
+
+  private World world;
+
+  /**
+   * Loads the standard mansion.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = new World("res/mansion.txt");
+  }
+
+  @Test
+  public void testSpaceIdsMatchListPositions() {
+    assertEquals(21, world.getSpaceCount());
+    for (int i = 0; i < world.getSpaceCount(); i++) {
+      assertEquals(i, world.getSpace(i).getSpaceId());
+      assertEquals(world.getSpaces().get(i), world.getSpace(i));
+    }
+  }
+
+  @Test
+  public void testNeighborIdsMatchNeighborNames() {
+    for (int i = 0; i < world.getSpaceCount(); i++) {
+      List<String> names = new ArrayList<>();
+      for (int k = 0; k < world.getNeighborCount(i); k++) {
+        names.add(world.getSpace(world.getNeighborId(i, k)).getSpaceName());
+      }
+      assertEquals(world.getSpace(i).getNeighbors(), names);
+    }
+  }
+
+  @Test
+  public void testAreNeighbors() {
+    Ispace armory = world.getSpaceByName("Armory");
+    assertTrue(world.areNeighbors(armory, world.getSpaceByName("Dining Hall")));
+    assertTrue(world.areNeighbors(world.getSpaceByName("Dining Hall"), armory));
+    assertFalse(world.areNeighbors(armory, world.getSpaceByName("Nursery")));
+    assertFalse(world.areNeighbors(armory, armory));
+  }
+
+  @Test
+  public void testUnindexedSpacesFallBackToNames() {
+    Space outside = new Space(0, 0, 1, 1, "Outside");
+    outside.getNeighbors().add("Armory");
+    assertEquals(-1, outside.getSpaceId());
+    assertTrue(world.areNeighbors(outside, world.getSpaceByName("Armory")));
+    assertFalse(world.areNeighbors(world.getSpaceByName("Armory"), outside));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testNeighborIdOutOfRange() {
+    world.getNeighborId(0, world.getNeighborCount(0));
+  }
+
+  @Test
+  public void testPlayerMovesUseAdjacency() {
+    world.addPlayer("Alice", 0);
+    Iplayer alice = world.getPlayers().get(0);
+    alice.moveTo(world.getSpaceByName("Dining Hall"));
+    assertEquals("Dining Hall", alice.getPlayerLocation().getSpaceName());
+  }
+}
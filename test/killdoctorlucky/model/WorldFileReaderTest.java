@@ -0,0 +1,166 @@
+package killdoctorlucky.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Scanner;
+import org.junit.Test;
+
+/**
+ * Tests the byte-level world file reader against the BufferedReader and
+ * Scanner parsing it replaced.
+ */
+public class WorldFileReaderTest {
+
+  private static WorldFileReader open(String text) throws IOException {
+    Path file = Files.createTempFile("reader", ".txt");
+    Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    try {
+      return new WorldFileReader(file.toString());
+    } finally {
+      Files.delete(file); // the open channel keeps the contents readable
+    }
+  }
+
+  @Test
+  public void testLinesEndLikeBufferedReader() throws IOException {
+    String text = "one\ntwo\r\nthree\rfour\r\r\n\nlast";
+    BufferedReader expected = new BufferedReader(new StringReader(text));
+    try (WorldFileReader in = open(text)) {
+      String line;
+      do {
+        line = expected.readLine();
+        assertEquals(line, in.readLine());
+      } while (line != null);
+      assertFalse(in.nextLine());
+    }
+  }
+
+  @Test
+  public void testTrailingCarriageReturnAtEndOfFile() throws IOException {
+    try (WorldFileReader in = open("a\r")) {
+      assertEquals("a", in.readLine());
+      assertNull(in.readLine());
+    }
+  }
+
+  @Test
+  public void testLineLongerThanTheBuffer() throws IOException {
+    char[] wide = new char[200_000];
+    Arrays.fill(wide, 'x');
+    String name = new String(wide);
+    try (WorldFileReader in = open("1 2 3 4 " + name + "\nnext\n")) {
+      assertTrue(in.nextLine());
+      assertTrue(in.isPlain());
+      for (int i = 1; i <= 4; i++) {
+        assertTrue(in.nextInt());
+        assertEquals(i, in.intValue());
+      }
+      assertEquals(name, in.rest());
+      assertEquals("next", in.readLine());
+    }
+  }
+
+  @Test
+  public void testTokensMatchScanner() throws IOException {
+    String[] lines = { "22 19 23 26 Armory", "  -1\t0  7 8   Tom's   \tDen  ", "0 0 0 0",
+        "2147483647 -2147483648 0 007 Big Room", "1 2 3 4 \t " };
+    for (String line : lines) {
+      try (WorldFileReader in = open(line + "\n"); Scanner scanner = new Scanner(line)) {
+        assertTrue(in.nextLine());
+        assertTrue(line, in.isPlain());
+        assertFalse(in.isBlank());
+        for (int i = 0; i < 4; i++) {
+          assertTrue(line, in.nextInt());
+          assertEquals(line, scanner.nextInt(), in.intValue());
+        }
+        StringBuilder name = new StringBuilder();
+        while (scanner.hasNext()) {
+          name.append(scanner.next()).append(' ');
+        }
+        assertEquals(line, name.toString().trim(), in.rest());
+      }
+    }
+  }
+
+  @Test
+  public void testUnusualTokensAreLeftForTheScanner() throws IOException {
+    String[] tokens = { "2147483648", "-2147483649", "+5", "1,000", "12abc", "-" };
+    for (String token : tokens) {
+      try (WorldFileReader in = open(token + " 1\n")) {
+        assertTrue(in.nextLine());
+        assertFalse(token, in.nextInt());
+      }
+    }
+    try (WorldFileReader in = open("1 2 3 4 Caf\u00e9\n \t \n")) {
+      assertTrue(in.nextLine());
+      assertFalse(in.isPlain());
+      // Decoded as a FileReader would, with the platform charset.
+      assertEquals(new String("1 2 3 4 Caf\u00e9".getBytes(StandardCharsets.UTF_8)), in.line());
+      assertTrue(in.nextLine());
+      assertTrue(in.isBlank());
+    }
+  }
+
+  @Test
+  public void testWorldLoadsOddlyWrittenFiles() throws IOException {
+    Path file = Files.createTempFile("odd", ".txt");
+    Files.write(file, ("36 30 Odd Mansion\r\n50 Doctor Lucky\r\nMi Meow\r\n3\r\n"
+        + "0 0 1 2 \tHall   of  Mirrors \r\n2 0 3 2 Caf\u00e9\r\n 4 0 5 2 Attic\r\n"
+        + "2\r\n0 3 Mirror\r\n1\t2   Cup  of\tTea\r\n").getBytes(StandardCharsets.UTF_8));
+    try {
+      World world = new World(file.toString());
+      assertEquals("Hall of Mirrors", world.getSpace(0).getSpaceName());
+      assertEquals(new String("Caf\u00e9".getBytes(StandardCharsets.UTF_8)),
+          world.getSpace(1).getSpaceName());
+      assertEquals("Attic", world.getSpace(2).getSpaceName());
+      assertEquals(4, world.getSpace(2).getUpperRow());
+      assertEquals(Arrays.asList("Cup of Tea"), world.getSpace(1).getItems());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testErrorsKeepTheirLineNumbers() throws IOException {
+    Path file = Files.createTempFile("bad", ".txt");
+    try {
+      Files.write(file, Arrays.asList("4 4 Bad", "50 Doctor Lucky", "Mi Meow", "2",
+          "0 0 1 1 Hall", "0 x 1 1 Broken", "0"));
+      try {
+        new World(file.toString());
+        fail("The broken space line should not load.");
+      } catch (IOException e) {
+        assertEquals("Error parsing space details at line 5", e.getMessage());
+      }
+      Files.write(file, Arrays.asList("4 4 Bad", "50 Doctor Lucky", "Mi Meow", "1",
+          "0 0 1 1 Hall", "2", "0 3 Knife", "0"));
+      try {
+        new World(file.toString());
+        fail("The broken item line should not load.");
+      } catch (IOException e) {
+        assertEquals("Error parsing item details at line 6", e.getMessage());
+      }
+      Files.write(file, Arrays.asList("4 4 Bad", "50 Doctor Lucky", "Mi Meow", "2",
+          "0 0 1 1 Hall", "   "));
+      try {
+        new World(file.toString());
+        fail("The missing space line should not load.");
+      } catch (IOException e) {
+        assertEquals("Missing space details for space 1", e.getMessage());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -1,13 +1,18 @@
 package killdoctorlucky.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -86,6 +91,18 @@ public class WorldTest {
     assertNotNull(map);
   }
 
+  @Test
+  public void testWorldMapIsDrawnOnce() {
+    BufferedImage map = world.generateWorldMap();
+    assertSame(map, world.generateWorldMap());
+    assertSame(map, new World(world).generateWorldMap());
+    world.indexSpaces();
+    BufferedImage redrawn = world.generateWorldMap();
+    assertNotSame(map, redrawn);
+    assertEquals(map.getWidth(), redrawn.getWidth());
+    assertEquals(map.getRGB(30, 30), redrawn.getRGB(30, 30));
+  }
+
   @Test
   public void testGetSpaceItems() {
     List<String> spaceItems = world.getSpaceItems();
@@ -123,4 +140,65 @@ public class WorldTest {
       assertNotNull(world.getTargetLocation());
     }
   }
+
+  @Test
+  public void testFindSpaceByNameCaseInsensitive() {
+    Optional<Ispace> space = world.findSpaceByName("WINE cellar");
+    assertTrue(space.isPresent());
+    assertEquals("Wine Cellar", space.get().getSpaceName());
+  }
+
+  @Test
+  public void testFindSpaceByNameUnknown() {
+    assertFalse(world.findSpaceByName("Ballroom").isPresent());
+  }
+
+  @Test
+  public void testGetSpaceByNameUnknownFallsBackToFirstSpace() {
+    assertEquals("Armory", world.getSpaceByName("Ballroom").getSpaceName());
+  }
+
+  @Test
+  public void testGetSpaceByNameFindsEverySpace() {
+    for (Ispace space : world.getSpaces()) {
+      assertEquals(space, world.getSpaceByName(space.getSpaceName().toUpperCase()));
+    }
+  }
+
+  @Test
+  public void testGetSpaceInfoUnknownSpace() {
+    assertEquals("Space not found: Ballroom", world.getSpaceInfo("Ballroom"));
+  }
+
+  @Test
+  public void testWorldsHaveSeparateTargets() throws IOException {
+    World other = new World("res/mansion.txt");
+    world.getTargetCharacter().decreaseHealth(50);
+    assertFalse(world.isGameNotOver());
+    assertTrue(other.isGameNotOver());
+    assertEquals(50, other.getTargetCharacter().getTargetHealth());
+  }
+
+  @Test
+  public void testCopiedWorldStartsWithFullHealth() {
+    world.getTargetCharacter().decreaseHealth(20);
+    World copy = new World(world);
+    assertEquals(50, copy.getTargetCharacter().getTargetHealth());
+    assertEquals("Doctor Lucky", copy.getTargetCharacter().getTargetName());
+    assertEquals(30, world.getTargetCharacter().getTargetHealth());
+  }
+
+  @Test
+  public void testCopiesShareDistancesOnlyOnceBuilt() {
+    World early = new World(world);
+    assertNull(world.builtDistances());
+    assertNull(early.builtDistances());
+
+    world.buildDistances();
+    World late = new World(world);
+    assertSame(world.builtDistances(), late.builtDistances());
+    Ispace armory = late.getSpaceByName("Armory");
+    assertEquals(1, late.getDistance(armory, late.getSpaceByName("Dining Hall")));
+    assertSame(world.builtDistances(), late.builtDistances());
+  }
 }
@@ -0,0 +1,45 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+/**
+ * Stress test that plays many games at once to check that games running in the
+ * same JVM do not share any state.
+ */
+public class ConcurrentGamesTest {
+  private static final int GAMES = 64;
+
+  @Test
+  public void testConcurrentGamesMatchSequentialGames()
+      throws IOException, InterruptedException, ExecutionException {
+    Simulator simulator = new Simulator("res/mansion.txt");
+    GameResult[] expected = new GameResult[GAMES];
+    for (int g = 0; g < GAMES; g++) {
+      expected[g] = simulator.play(2 + g % 4, 2000, g);
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(8);
+    try {
+      for (int round = 0; round < 3; round++) {
+        List<Future<GameResult>> results = new ArrayList<>();
+        for (int g = 0; g < GAMES; g++) {
+          final int game = g;
+          results.add(pool.submit(() -> simulator.play(2 + game % 4, 2000, game)));
+        }
+        for (int g = 0; g < GAMES; g++) {
+          assertEquals("game " + g, expected[g].toString(), results.get(g).get().toString());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the headless Simulator.
+ */
+public class SimulatorTest {
+  private Simulator simulator;
+
+  @Before
+  public void setUp() throws IOException {
+    simulator = new Simulator("res/mansion.txt");
+  }
+
+  @Test
+  public void testSameSeedPlaysSameGame() {
+    GameResult first = simulator.play(3, 500, 42L);
+    GameResult second = simulator.play(3, 500, 42L);
+    assertEquals(first.getWinner(), second.getWinner());
+    assertEquals(first.getTurns(), second.getTurns());
+    for (int seat = 0; seat < 3; seat++) {
+      assertEquals(first.getDamage(seat), second.getDamage(seat));
+    }
+  }
+
+  @Test
+  public void testLonePlayerPokesTargetOnFirstTurn() {
+    // Everyone starts in the Armory with the target, so an unseen player attacks.
+    GameResult result = simulator.play(1, 1, 5L);
+    assertEquals(1, result.getDamage(0));
+  }
+
+  @Test
+  public void testObservedPlayerDealsNoDamage() {
+    GameResult result = simulator.play(2, 1, 5L);
+    assertEquals(0, result.getDamage(0));
+    assertEquals(0, result.getDamage(1));
+  }
+
+  @Test
+  public void testDamageNeverExceedsTargetHealth() {
+    for (long seed = 0; seed < 20; seed++) {
+      GameResult result = simulator.play(3, 300, seed);
+      int total = 0;
+      for (int seat = 0; seat < 3; seat++) {
+        total += result.getDamage(seat);
+      }
+      assertTrue(result.toString(), total <= 50);
+      assertEquals(result.toString(), !result.isDraw(), total == 50);
+    }
+  }
+
+  @Test
+  public void testGameStopsAtMaxTurns() {
+    GameResult result = simulator.play(4, 1, 1L);
+    assertEquals(1, result.getTurns());
+    assertTrue(result.isDraw());
+    assertNull(result.getWinner());
+    assertEquals(-1, result.getWinnerSeat());
+  }
+
+  @Test
+  public void testGamesDoNotShareState() {
+    GameResult reference = simulator.play(2, 10_000, 99L);
+    simulator.play(5, 10_000, 3L);
+    GameResult again = simulator.play(2, 10_000, 99L);
+    assertEquals(reference.getTurns(), again.getTurns());
+    assertEquals(reference.getWinner(), again.getWinner());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPlayers() {
+    simulator.play(0, 10, 1L);
+  }
+
+  @Test(expected = IOException.class)
+  public void testMissingWorldFile() throws IOException {
+    new Simulator("res/no_such_mansion.txt");
+  }
+}
@@ -0,0 +1,122 @@
+package simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import killdoctorlucky.model.ComputerPlayer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the parallel Tournament runner.
+ */
+public class TournamentTest {
+  private Path file;
+  private Simulator simulator;
+
+  /**
+   * Writes a mansion of three rooms that cannot see each other, so a player
+   * alone in a room with the target always gets to attack.
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("tournament", ".txt");
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+      out.println("4 10 Three Wings");
+      out.println("10 Doctor Lucky");
+      out.println("Fortune the Cat");
+      out.println(3);
+      out.println("0 0 1 1 West Wing");
+      out.println("0 4 1 5 Middle Wing");
+      out.println("0 8 1 9 East Wing");
+      out.println(0);
+    }
+    simulator = new Simulator(file.toString());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testResultsDoNotDependOnThreadCount() {
+    Tournament tournament = new Tournament(simulator,
+        Arrays.asList(Entrant.computer("West", 0), Entrant.computer("East", 1)), 100);
+    ForkJoinPool one = new ForkJoinPool(1);
+    ForkJoinPool four = new ForkJoinPool(4);
+    try {
+      TournamentResult serial = tournament.run(500, 11L, one);
+      TournamentResult parallel = tournament.run(500, 11L, four);
+      assertArrayEquals(new long[] {serial.getWins(0), serial.getWins(1), serial.getDraws()},
+          new long[] {parallel.getWins(0), parallel.getWins(1), parallel.getDraws()});
+      assertEquals(serial.getAverageTurns(), parallel.getAverageTurns(), 0);
+      assertEquals(4, parallel.getThreads());
+    } finally {
+      one.shutdown();
+      four.shutdown();
+    }
+  }
+
+  @Test
+  public void testEveryGameIsCounted() {
+    TournamentResult result = new Tournament(simulator,
+        Arrays.asList(Entrant.computer("West", 0), Entrant.computer("East", 1)), 100)
+        .run(257, 3L);
+    assertEquals(257, result.getGames());
+    assertEquals(257, result.getWins(0) + result.getWins(1) + result.getDraws());
+    assertTrue(result.getGamesPerSecond() > 0);
+  }
+
+  @Test
+  public void testStrategyThatNeverAttacksNeverWins() {
+    Entrant idle = new Entrant("Idle", 0, (name, start, world, random) ->
+        new ComputerPlayer(name, start, world, random) {
+          @Override
+          public String takeTurn() {
+            return "waited";
+          }
+        });
+    List<Entrant> entrants = Arrays.asList(idle, Entrant.computer("Hunter", 1));
+    TournamentResult result = new Tournament(simulator, entrants, 100).run(200, 5L);
+    assertEquals(0, result.getWins(0));
+    assertEquals(200, result.getWins(1));
+    assertEquals(1.0, result.getWinRate(1), 0);
+    double[] ci = result.getConfidenceInterval(0);
+    assertEquals(0, ci[0], 1e-12);
+    assertTrue(ci[1] > 0 && ci[1] < 0.03);
+  }
+
+  @Test
+  public void testConfidenceIntervalContainsWinRate() {
+    TournamentResult result = new TournamentResult(Arrays.asList("A", "B"),
+        new long[] {30, 50}, 100, 20, 1000, 1_000_000, 1);
+    for (int i = 0; i < 2; i++) {
+      double[] ci = result.getConfidenceInterval(i);
+      assertTrue(ci[0] < result.getWinRate(i) && result.getWinRate(i) < ci[1]);
+    }
+    // Known Wilson interval for 50 of 100.
+    assertEquals(0.4038, result.getConfidenceInterval(1)[0], 1e-4);
+    assertEquals(0.5962, result.getConfidenceInterval(1)[1], 1e-4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateEntrantNames() {
+    new Tournament(simulator,
+        Arrays.asList(Entrant.computer("CPU", 0), Entrant.computer("CPU", 1)), 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStartSpaceOutsideMansion() {
+    simulator.play(Arrays.asList(Entrant.computer("Lost", 7)), 10, 1L);
+  }
+}
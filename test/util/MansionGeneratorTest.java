@@ -0,0 +1,145 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import killdoctorlucky.model.Ispace;
+import killdoctorlucky.model.World;
+import org.junit.Test;
+
+/**
+ * Tests for MansionGenerator.
+ */
+public class MansionGeneratorTest {
+
+  private static World load(MansionGenerator generator) throws IOException {
+    Path file = Files.createTempFile("generated", ".txt");
+    try {
+      generator.write(file);
+      return new World(file.toString());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static String text(MansionGenerator generator) throws IOException {
+    StringWriter out = new StringWriter();
+    generator.write(out);
+    return out.toString();
+  }
+
+  private static int countComponents(World world) {
+    int n = world.getSpaceCount();
+    boolean[] seen = new boolean[n];
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    int components = 0;
+    for (int start = 0; start < n; start++) {
+      if (seen[start]) {
+        continue;
+      }
+      components++;
+      seen[start] = true;
+      queue.add(start);
+      while (!queue.isEmpty()) {
+        int id = queue.poll();
+        for (int k = 0; k < world.getNeighborCount(id); k++) {
+          int next = world.getNeighborId(id, k);
+          if (!seen[next]) {
+            seen[next] = true;
+            queue.add(next);
+          }
+        }
+      }
+    }
+    return components;
+  }
+
+  private static int countEdges(World world) {
+    int edges = 0;
+    for (int id = 0; id < world.getSpaceCount(); id++) {
+      edges += world.getNeighborCount(id);
+    }
+    return edges / 2;
+  }
+
+  @Test
+  public void testGeneratedFileLoads() throws IOException {
+    MansionGenerator generator = new MansionGenerator(1L, 300);
+    World world = load(generator);
+    assertEquals(300, world.getSpaceCount());
+    assertEquals("Room 0", world.getSpace(0).getSpaceName());
+    assertEquals(75, generator.getItemCount());
+    int items = 0;
+    for (Ispace space : world.getSpaces()) {
+      items += space.getItems().size();
+    }
+    assertEquals(75, items);
+  }
+
+  @Test
+  public void testRoomsDoNotOverlap() throws IOException {
+    List<Ispace> spaces = load(new MansionGenerator(2L, 200, 13, 0.7, 0, 3)).getSpaces();
+    for (int i = 0; i < spaces.size(); i++) {
+      Ispace a = spaces.get(i);
+      for (int j = i + 1; j < spaces.size(); j++) {
+        Ispace b = spaces.get(j);
+        boolean overlap = a.getUpperRow() <= b.getLowerRow() && b.getUpperRow() <= a.getLowerRow()
+            && a.getUpperColumn() <= b.getLowerColumn() && b.getUpperColumn() <= a.getLowerColumn();
+        assertFalse(a.getSpaceName() + " overlaps " + b.getSpaceName(), overlap);
+      }
+    }
+  }
+
+  @Test
+  public void testSingleComponentIsConnected() throws IOException {
+    assertEquals(1, countComponents(load(new MansionGenerator(3L, 500, 20, 0, 0, 1))));
+  }
+
+  @Test
+  public void testDisconnectedComponents() throws IOException {
+    assertEquals(4, countComponents(load(new MansionGenerator(4L, 401, 10, 0.5, 0.1, 4))));
+    assertEquals(7, countComponents(load(new MansionGenerator(4L, 7, 3, 1, 0, 7))));
+  }
+
+  @Test
+  public void testCorridorDensityAddsConnections() throws IOException {
+    int sparse = countEdges(load(new MansionGenerator(5L, 400, 20, 0, 0, 1)));
+    int dense = countEdges(load(new MansionGenerator(5L, 400, 20, 1, 0, 1)));
+    // A comb of 20 rows of 20 has 399 links; a full grid has 760.
+    assertEquals(399, sparse);
+    assertEquals(760, dense);
+  }
+
+  @Test
+  public void testSameSeedWritesSameFile() throws IOException {
+    assertEquals(text(new MansionGenerator(6L, 250)), text(new MansionGenerator(6L, 250)));
+    assertFalse(text(new MansionGenerator(6L, 250)).equals(text(new MansionGenerator(7L, 250))));
+  }
+
+  @Test
+  public void testHeaderDescribesMansion() throws IOException {
+    String[] lines = text(new MansionGenerator(8L, 10, 4, 0.5, 0.5, 2)).split("\n");
+    // Two components of 5 rooms on 4 columns: 2 + 1 gap + 2 slot rows.
+    assertEquals("20 16 Generated Mansion 8", lines[0]);
+    assertEquals("10", lines[3]);
+    assertEquals("5", lines[14]);
+    assertTrue(lines[15].endsWith(" Item 0"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoreComponentsThanRooms() {
+    new MansionGenerator(1L, 3, 2, 0.5, 0, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCorridorDensityOutOfRange() {
+    new MansionGenerator(1L, 3, 2, 1.5, 0, 1);
+  }
+}
@@ -0,0 +1,83 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests for RandomGenerator.
+ */
+public class RandomGeneratorTest {
+
+  private static int[] draw(RandomGenerator generator, int count, int bound) {
+    int[] numbers = new int[count];
+    for (int i = 0; i < count; i++) {
+      numbers[i] = generator.nextInt(bound);
+    }
+    return numbers;
+  }
+
+  @Test
+  public void testFixedSequenceWrapsAround() {
+    RandomGenerator generator = new RandomGenerator(0, 1, 2, 3);
+    assertArrayEquals(new int[] {0, 1, 2, 3, 0, 1, 2, 3, 0}, draw(generator, 9, 10));
+  }
+
+  @Test
+  public void testFixedSequenceIsReducedByBound() {
+    RandomGenerator generator = new RandomGenerator(5, 7);
+    assertArrayEquals(new int[] {1, 1, 1}, draw(generator, 3, 2));
+  }
+
+  @Test
+  public void testSameSeedGivesSameNumbers() {
+    assertArrayEquals(draw(RandomGenerator.seeded(42L), 100, 1000),
+        draw(RandomGenerator.seeded(42L), 100, 1000));
+  }
+
+  @Test
+  public void testSplitStreamsAreReproducible() {
+    RandomGenerator first = RandomGenerator.seeded(7L);
+    RandomGenerator second = RandomGenerator.seeded(7L);
+    for (int i = 0; i < 8; i++) {
+      assertArrayEquals(draw(first.split(), 50, 100), draw(second.split(), 50, 100));
+    }
+    assertArrayEquals(draw(first, 50, 100), draw(second, 50, 100));
+  }
+
+  @Test
+  public void testSplitStreamsDiffer() {
+    RandomGenerator master = RandomGenerator.seeded(7L);
+    int[] a = draw(master.split(), 50, 1 << 30);
+    int[] b = draw(master.split(), 50, 1 << 30);
+    assertFalse(Arrays.equals(a, b));
+  }
+
+  @Test
+  public void testSeededNumbersStayInBounds() {
+    RandomGenerator generator = RandomGenerator.seeded(1L);
+    int[] counts = new int[3];
+    for (int i = 0; i < 3000; i++) {
+      counts[generator.nextInt(3)]++;
+    }
+    for (int count : counts) {
+      assertTrue(count > 800);
+    }
+  }
+
+  @Test
+  public void testFixedSequenceSplitStartsOver() {
+    RandomGenerator generator = new RandomGenerator(4, 5, 6);
+    generator.nextInt(10);
+    assertEquals(4, generator.split().nextInt(10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyFixedSequence() {
+    new RandomGenerator(new int[0]);
+  }
+}
@@ -0,0 +1,36 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the paint-time counter behind the View menu's frame times.
+ */
+public class FrameTimerTest {
+
+  @Test
+  public void testRecordsLastAverageAndWorst() {
+    FrameTimer timer = new FrameTimer();
+    timer.record(2_000_000, 100);
+    timer.record(4_000_000, 300);
+    assertEquals(2, timer.getFrameCount());
+    assertEquals(4.0, timer.getLastMillis(), 1e-9);
+    assertEquals(3.0, timer.getAverageMillis(), 1e-9);
+    assertEquals(4.0, timer.getWorstMillis(), 1e-9);
+    assertEquals(300, timer.getLastPixels());
+    assertEquals(200, timer.getAveragePixels());
+    assertTrue(timer.toString().startsWith("2 frames: last 4.00 ms over 300 px"));
+  }
+
+  @Test
+  public void testResetStartsOver() {
+    FrameTimer timer = new FrameTimer();
+    timer.record(5_000_000, 50);
+    timer.reset();
+    assertEquals(0, timer.getFrameCount());
+    assertEquals(0.0, timer.getAverageMillis(), 1e-9);
+    assertEquals(0, timer.getAveragePixels());
+  }
+}
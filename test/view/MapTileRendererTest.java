@@ -0,0 +1,103 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import killdoctorlucky.model.Iworld;
+import killdoctorlucky.model.PagedWorld;
+import killdoctorlucky.model.World;
+import org.junit.Test;
+import util.MansionGenerator;
+
+/**
+ * Tests the tiled map: at the default zoom the tiles must draw the same map as
+ * the full image, and only a bounded number of tiles is kept.
+ */
+public class MapTileRendererTest {
+
+  private static void assertSameMap(World world) {
+    assertSameMap(world.generateWorldMap(), world);
+  }
+
+  private static void assertSameMap(BufferedImage full, Iworld world) {
+    MapTileRenderer renderer = new MapTileRenderer(world, 4);
+    Dimension size = renderer.getMapSize(MapTileRenderer.DEFAULT_ZOOM);
+    assertEquals(full.getWidth(), size.width);
+    assertEquals(full.getHeight(), size.height);
+
+    BufferedImage tiled = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2 = tiled.createGraphics();
+    renderer.paint(g2, new Rectangle(size), MapTileRenderer.DEFAULT_ZOOM);
+    g2.dispose();
+    for (int y = 0; y < size.height; y++) {
+      for (int x = 0; x < size.width; x++) {
+        if (full.getRGB(x, y) != tiled.getRGB(x, y)) {
+          throw new AssertionError("Pixel (" + x + ", " + y + ") differs");
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTilesMatchTheFullMansionMap() throws IOException {
+    assertSameMap(new World("res/mansion.txt"));
+  }
+
+  @Test
+  public void testTilesMatchTheMapOfAPagedWorld() throws IOException {
+    Path compiled = Files.createTempFile("tiles", ".kdlw");
+    try {
+      World world = new World("res/mansion.txt");
+      world.writeCompiled(compiled.toString());
+      assertSameMap(world.generateWorldMap(), new PagedWorld(compiled.toString(), 4));
+    } finally {
+      Files.delete(compiled);
+    }
+  }
+
+  @Test
+  public void testTilesMatchAGeneratedMap() throws IOException {
+    Path file = Files.createTempFile("tiles", ".txt");
+    try {
+      new MansionGenerator(3L, 300, 20, 0.5, 0, 1).write(file);
+      assertSameMap(new World(file.toString()));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testCacheKeepsRecentTilesOnly() throws IOException {
+    MapTileRenderer renderer = new MapTileRenderer(new World("res/mansion.txt"), 3);
+    BufferedImage first = renderer.getTile(0, 0, 0);
+    BufferedImage second = renderer.getTile(0, 1, 0);
+    renderer.getTile(0, 2, 0);
+    assertSame(first, renderer.getTile(0, 0, 0));
+    renderer.getTile(0, 3, 0); // evicts (1, 0), the least recently used
+    assertEquals(3, renderer.getCachedTileCount());
+    assertSame(first, renderer.getTile(0, 0, 0));
+    BufferedImage again = renderer.getTile(0, 1, 0);
+    assertNotSame(second, again);
+    assertEquals(3, renderer.getCachedTileCount());
+  }
+
+  @Test
+  public void testMapSizeFollowsZoom() throws IOException {
+    World world = new World("res/mansion.txt");
+    MapTileRenderer renderer = new MapTileRenderer(world, 4);
+    for (int zoom = 0; zoom < MapTileRenderer.SCALES.length; zoom++) {
+      Dimension size = renderer.getMapSize(zoom);
+      assertEquals(world.getRowCount() * MapTileRenderer.SCALES[zoom], size.height);
+      assertTrue(size.width >= world.getColumnCount() * MapTileRenderer.SCALES[zoom]);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+
+/**
+ * Tests that the stretched background is only redrawn when the size changes.
+ */
+public class ScaledBackgroundTest {
+
+  private static BufferedImage filled(int width, int height, Color color) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = image.createGraphics();
+    g2.setColor(color);
+    g2.fillRect(0, 0, width, height);
+    g2.dispose();
+    return image;
+  }
+
+  private static int paint(ScaledBackground background, int width, int height) {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = target.createGraphics();
+    background.paint(g2, width, height, null);
+    g2.dispose();
+    return target.getRGB(width - 1, height - 1);
+  }
+
+  @Test
+  public void testStretchesToFill() {
+    ScaledBackground background = new ScaledBackground(filled(4, 4, Color.RED));
+    assertEquals(Color.RED.getRGB(), paint(background, 50, 30));
+  }
+
+  @Test
+  public void testRescalesOnlyWhenTheSizeChanges() {
+    BufferedImage source = filled(4, 4, Color.RED);
+    ScaledBackground background = new ScaledBackground(source);
+    paint(background, 50, 30);
+
+    // Changing the source behind its back shows whether the copy was reused.
+    Graphics2D g2 = source.createGraphics();
+    g2.setColor(Color.BLUE);
+    g2.fillRect(0, 0, 4, 4);
+    g2.dispose();
+    assertEquals(Color.RED.getRGB(), paint(background, 50, 30));
+    assertEquals(Color.BLUE.getRGB(), paint(background, 60, 30));
+  }
+}